@@ -0,0 +1,27 @@
+package com.idropin.application.service;
+
+import com.idropin.domain.vo.ClassificationRunStatus;
+
+/**
+ * 批量分类服务接口
+ *
+ * @author Idrop.in Team
+ */
+public interface BatchClassificationService {
+
+    /**
+     * 启动后台批量分类，scope 为 NEW（尚未分类的文件）或 ALL（全部文件）；
+     * 已有分类在执行时直接返回其状态
+     */
+    ClassificationRunStatus start(String scope);
+
+    /**
+     * 当前或最近一次批量分类的状态与吞吐指标，从未执行过时返回 null
+     */
+    ClassificationRunStatus getStatus();
+
+    /**
+     * 定期分类新上传的文件
+     */
+    void classifyNewFiles();
+}
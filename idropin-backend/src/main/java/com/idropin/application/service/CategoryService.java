@@ -3,6 +3,7 @@ package com.idropin.application.service;
 import com.idropin.domain.dto.CategoryCreateRequest;
 import com.idropin.domain.dto.CategoryUpdateRequest;
 import com.idropin.domain.entity.FileCategory;
+import com.idropin.domain.vo.CategoryDeleteResult;
 import com.idropin.domain.vo.CategoryTreeVO;
 
 import java.util.List;
@@ -35,9 +36,16 @@ public interface CategoryService {
     FileCategory updateCategory(String categoryId, CategoryUpdateRequest request, String userId);
 
     /**
-     * 删除分类
+     * 删除分类，分类下的文件移到目标分类（targetCategoryId 为空时移出分类）
+     *
+     * @param recursive 是否连同全部子孙分类一起删除；为 false 时存在子分类则不允许删除
      */
-    void deleteCategory(String categoryId, String userId);
+    CategoryDeleteResult deleteCategory(String categoryId, String targetCategoryId, boolean recursive, String userId);
+
+    /**
+     * 合并分类：文件和子分类移到目标分类，然后删除源分类
+     */
+    CategoryDeleteResult mergeCategory(String sourceCategoryId, String targetCategoryId, String userId);
 
     /**
      * 获取用户所有分类
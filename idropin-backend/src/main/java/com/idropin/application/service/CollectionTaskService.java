@@ -1,8 +1,11 @@
 package com.idropin.application.service;
 
 import com.idropin.domain.dto.CreateTaskRequest;
+import com.idropin.domain.dto.SubmissionQueryRequest;
 import com.idropin.domain.entity.CollectionTask;
 import com.idropin.domain.entity.FileSubmission;
+import com.idropin.domain.vo.CursorPageVO;
+import com.idropin.domain.vo.FileSubmissionVO;
 import com.idropin.domain.vo.TaskStatisticsVO;
 
 import java.util.List;
@@ -50,6 +53,22 @@ public interface CollectionTaskService {
    */
   List<com.idropin.domain.vo.FileSubmissionVO> getTaskSubmissions(String taskId, String userId);
 
+  /**
+   * 游标分页获取任务的提交记录（任务创建者），支持按提交者、时间范围、文件类型过滤
+   */
+  CursorPageVO<FileSubmissionVO> getTaskSubmissionPage(String taskId, String userId, SubmissionQueryRequest query);
+
+  /**
+   * 获取提交者本人在任务中的全部有效提交（公开接口，按姓名精确匹配）
+   */
+  List<FileSubmissionVO> getPublicSubmissions(CollectionTask task, String submitterName);
+
+  /**
+   * 游标分页获取提交者本人在任务中的有效提交（公开接口，按姓名精确匹配）
+   */
+  CursorPageVO<FileSubmissionVO> getPublicSubmissionPage(CollectionTask task, String submitterName,
+      SubmissionQueryRequest query);
+
   /**
    * 获取任务统计
    */
@@ -65,6 +84,12 @@ public interface CollectionTaskService {
    */
   List<com.idropin.domain.vo.FileSubmissionVO> getAllUserTaskSubmissions(String userId);
 
+  /**
+   * 游标分页获取用户所有任务的提交记录（按提交时间倒序）
+   * 支持按提交者姓名、提交时间范围和文件类型过滤，includeTotal 为 true 时返回符合条件的总数
+   */
+  CursorPageVO<FileSubmissionVO> getAllUserSubmissionPage(String userId, SubmissionQueryRequest query);
+
   /**
    * 获取用户的回收站任务列表
    */
@@ -4,11 +4,14 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.idropin.domain.dto.FileQueryRequest;
 import com.idropin.domain.dto.FileUpdateRequest;
 import com.idropin.domain.entity.File;
+import com.idropin.domain.vo.CursorPageVO;
 import com.idropin.domain.vo.FileUploadResult;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * 文件服务接口
@@ -28,9 +31,9 @@ public interface FileService {
     File uploadFileWithCustomName(MultipartFile file, String userId, String customFilename);
 
     /**
-     * 上传多个文件
+     * 上传多个文件，各文件并行写入存储、各自提交，全部完成后返回每个文件的结果
      */
-    List<FileUploadResult> uploadFiles(List<MultipartFile> files, String userId);
+    CompletableFuture<List<FileUploadResult>> uploadFiles(List<MultipartFile> files, String userId);
 
     /**
      * 获取文件流
@@ -42,6 +45,12 @@ public interface FileService {
      */
     IPage<File> getFiles(FileQueryRequest query, String userId);
 
+    /**
+     * 游标分页获取文件列表，按上传时间排序（sortOrder 为 asc 时正序，默认倒序）；
+     * 游标只记录上传时间，sortBy 为其他字段时抛出 400
+     */
+    CursorPageVO<File> getFilePage(FileQueryRequest query, String userId);
+
     /**
      * 获取文件详情
      */
@@ -88,9 +97,9 @@ public interface FileService {
     boolean hasPermission(String fileId, String userId);
 
     /**
-     * 获取用户的所有文件
+     * 分批遍历用户的所有文件，每批不超过 batchSize 条，不一次性加载到内存
      */
-    List<File> getFilesByUserId(String userId);
+    void forEachFileBatch(String userId, int batchSize, Consumer<List<File>> consumer);
 
     /**
      * 移动文件到回收站（软删除）
@@ -123,14 +132,14 @@ public interface FileService {
     void permanentDelete(List<String> fileIds, String userId);
 
     /**
-     * 清空回收站
+     * 获取回收站文件列表
      */
-    void emptyTrash(String userId);
+    IPage<File> getTrashFiles(int page, int size, String userId);
 
     /**
-     * 获取回收站文件列表
+     * 游标分页获取回收站文件列表（按删除时间倒序）
      */
-    IPage<File> getTrashFiles(int page, int size, String userId);
+    CursorPageVO<File> getTrashFilePage(String cursor, int limit, boolean includeTotal, String userId);
 
     /**
      * 获取回收站文件数量
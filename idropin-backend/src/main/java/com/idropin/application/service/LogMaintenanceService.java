@@ -0,0 +1,24 @@
+package com.idropin.application.service;
+
+/**
+ * 日志维护服务接口
+ *
+ * @author Idrop.in Team
+ */
+public interface LogMaintenanceService {
+
+    /**
+     * 将原始访问日志汇总到小时表
+     */
+    void rollupAccessLogs();
+
+    /**
+     * 将原始操作日志汇总到小时表
+     */
+    void rollupOperationLogs();
+
+    /**
+     * 预建未来分区并删除超出保留期的分区
+     */
+    void maintainPartitions();
+}
@@ -1,21 +1,16 @@
 package com.idropin.application.service;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.idropin.domain.dto.SearchRequest;
-import com.idropin.domain.entity.File;
-import com.idropin.domain.entity.FileCategory;
 import com.idropin.domain.vo.SearchResult;
-import com.idropin.infrastructure.persistence.mapper.FileCategoryMapper;
-import com.idropin.infrastructure.persistence.mapper.FileMapper;
+import com.idropin.infrastructure.cache.CategoryRegistry;
+import com.idropin.infrastructure.search.FileSearchEngine;
+import com.idropin.infrastructure.search.FileSearchHits;
 import com.idropin.infrastructure.storage.StorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
-import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -29,87 +24,17 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class SearchService {
 
-  private final FileMapper fileMapper;
-  private final FileCategoryMapper categoryMapper;
+  private final FileSearchEngine fileSearchEngine;
+  private final CategoryRegistry categoryRegistry;
   private final StorageService storageService;
   private final FileService fileService;
 
   public SearchResult searchFiles(SearchRequest request, String userId) {
     long startTime = System.currentTimeMillis();
 
-    LambdaQueryWrapper<File> wrapper = new LambdaQueryWrapper<>();
-    wrapper.apply("uploader_id = {0}::uuid", userId)
-        .eq(File::getStatus, "ACTIVE");
+    FileSearchHits hits = fileSearchEngine.search(request, userId);
 
-    if (StringUtils.hasText(request.getKeyword())) {
-      String keyword = request.getKeyword().trim();
-      wrapper.and(w -> w
-          .like(File::getName, keyword)
-          .or()
-          .like(File::getOriginalName, keyword));
-    }
-
-    if (StringUtils.hasText(request.getMimeType())) {
-      wrapper.eq(File::getMimeType, request.getMimeType());
-    }
-
-    if (StringUtils.hasText(request.getCategoryId())) {
-      wrapper.apply("category_id = {0}::uuid", request.getCategoryId());
-    }
-
-    if (request.getTags() != null && !request.getTags().isEmpty()) {
-      for (String tag : request.getTags()) {
-        wrapper.apply("array_to_string(tags, ',') LIKE CONCAT('%', ?, '%')", tag);
-      }
-    }
-
-    if (request.getMinFileSize() != null) {
-      wrapper.ge(File::getFileSize, request.getMinFileSize());
-    }
-    if (request.getMaxFileSize() != null) {
-      wrapper.le(File::getFileSize, request.getMaxFileSize());
-    }
-
-    if (StringUtils.hasText(request.getStartDate())) {
-      try {
-        LocalDateTime start = LocalDateTime.parse(request.getStartDate());
-        wrapper.ge(File::getCreatedAt, start);
-      } catch (Exception e) {
-        log.warn("Invalid start date format: {}", request.getStartDate());
-      }
-    }
-    if (StringUtils.hasText(request.getEndDate())) {
-      try {
-        LocalDateTime end = LocalDateTime.parse(request.getEndDate());
-        wrapper.le(File::getCreatedAt, end);
-      } catch (Exception e) {
-        log.warn("Invalid end date format: {}", request.getEndDate());
-      }
-    }
-
-    int page = request.getPage() != null ? request.getPage() : 0;
-    int size = request.getSize() != null ? request.getSize() : 20;
-    Page<File> pageObj = new Page<>(page, size);
-
-    String sortBy = StringUtils.hasText(request.getSortBy()) ? request.getSortBy() : "createdAt";
-    boolean isAsc = !"desc".equalsIgnoreCase(request.getSortOrder());
-
-    switch (sortBy) {
-      case "fileSize":
-        wrapper.orderBy(true, isAsc, File::getFileSize);
-        break;
-      case "name":
-        wrapper.orderBy(true, isAsc, File::getName);
-        break;
-      case "createdAt":
-      default:
-        wrapper.orderBy(true, isAsc, File::getCreatedAt);
-        break;
-    }
-
-    IPage<File> filePage = fileMapper.selectPage(pageObj, wrapper);
-
-    List<SearchResult.FileSearchItem> items = filePage.getRecords().stream()
+    List<SearchResult.FileSearchItem> items = hits.getFiles().stream()
         .map(file -> {
           String url = storageService.getFileUrl(file.getStoragePath());
           return SearchResult.FileSearchItem.builder()
@@ -133,19 +58,16 @@ public class SearchService {
     long duration = System.currentTimeMillis() - startTime;
 
     return SearchResult.builder()
-        .total(filePage.getTotal())
+        .total(hits.getTotal())
         .files(items)
         .duration(duration)
         .suggestions(suggestions)
+        .facets(hits.getFacets())
         .build();
   }
 
   private String getCategoryName(String categoryId) {
-    if (categoryId == null) {
-      return null;
-    }
-    FileCategory category = categoryMapper.selectById(categoryId);
-    return category != null ? category.getName() : null;
+    return categoryRegistry.getName(categoryId);
   }
 
   public List<String> generateSearchSuggestions(String keyword) {
@@ -0,0 +1,24 @@
+package com.idropin.application.service;
+
+import com.idropin.domain.entity.CollectionTask;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 提交记录导出服务接口
+ *
+ * @author Idrop.in Team
+ */
+public interface SubmissionExportService {
+
+    /**
+     * 流式导出信息收集任务的提交记录
+     *
+     * @param task   任务（调用方已完成权限校验）
+     * @param format 导出格式：csv 或 xlsx
+     * @param gzip   是否对 CSV 进行 gzip 压缩（xlsx 本身已压缩，忽略此参数）
+     * @param out    输出流
+     */
+    void exportInfoSubmissions(CollectionTask task, String format, boolean gzip, OutputStream out) throws IOException;
+}
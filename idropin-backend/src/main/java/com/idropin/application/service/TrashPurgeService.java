@@ -0,0 +1,26 @@
+package com.idropin.application.service;
+
+import com.idropin.domain.entity.FilePurgeJob;
+
+/**
+ * 回收站清理服务接口
+ *
+ * @author Idrop.in Team
+ */
+public interface TrashPurgeService {
+
+    /**
+     * 提交清空回收站任务，由后台分批执行；用户已有未完成的任务时直接返回该任务
+     */
+    FilePurgeJob submitEmptyTrash(String userId);
+
+    /**
+     * 查询任务状态，只能查询自己的任务
+     */
+    FilePurgeJob getJob(String jobId, String userId);
+
+    /**
+     * 清理超过保留期的回收站文件
+     */
+    void autoPurgeExpired();
+}
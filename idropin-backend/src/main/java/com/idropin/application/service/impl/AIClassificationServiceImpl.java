@@ -5,16 +5,14 @@ import com.idropin.application.service.CategoryService;
 import com.idropin.application.service.FileService;
 import com.idropin.domain.dto.AIClassificationRequest;
 import com.idropin.domain.entity.File;
-import com.idropin.domain.entity.FileCategory;
 import com.idropin.domain.vo.AIClassificationResult;
-import com.idropin.infrastructure.persistence.mapper.FileCategoryMapper;
+import com.idropin.infrastructure.cache.CategoryRegistry;
+import com.idropin.infrastructure.classification.FileTypeRules;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 /**
  * AI分类服务实现类
  *
@@ -26,7 +24,8 @@ import java.util.List;
 public class AIClassificationServiceImpl implements AIClassificationService {
 
   private final FileService fileService;
-  private final FileCategoryMapper categoryMapper;
+  private final CategoryRegistry categoryRegistry;
+  private final FileTypeRules fileTypeRules;
   private final CategoryService categoryService;
 
   @Value("${ai.classification.enabled:false}")
@@ -47,14 +46,14 @@ public class AIClassificationServiceImpl implements AIClassificationService {
     try {
       File file = fileService.getFileById(request.getFileId());
 
-      String categoryId = classifyByMimeType(file.getMimeType(), file.getOriginalName());
+      String categoryId = classifyByMimeType(file.getMimeType(), file.getOriginalName(), file.getUploaderId());
 
       if (categoryId != null) {
-        FileCategory category = categoryMapper.selectById(categoryId);
+        String categoryName = categoryRegistry.getName(categoryId);
         return AIClassificationResult.builder()
             .success(true)
             .categoryId(categoryId)
-            .categoryName(category != null ? category.getName() : "未分类")
+            .categoryName(categoryName != null ? categoryName : "未分类")
             .confidence(0.95)
             .build();
       }
@@ -78,72 +77,11 @@ public class AIClassificationServiceImpl implements AIClassificationService {
     }
   }
 
-  private String classifyByMimeType(String mimeType, String fileName) {
-    if (mimeType == null) {
+  private String classifyByMimeType(String mimeType, String fileName, String userId) {
+    FileTypeRules.Match match = fileTypeRules.classify(null, 0, mimeType, fileName);
+    if (match.source() == FileTypeRules.Source.DEFAULT) {
       return null;
     }
-
-    if (mimeType.startsWith("image/")) {
-      return findCategoryByName("图片");
-    }
-
-    if (isDocumentType(mimeType, fileName)) {
-      return findCategoryByName("文档");
-    }
-
-    if (mimeType.startsWith("video/")) {
-      return findCategoryByName("视频");
-    }
-
-    if (mimeType.startsWith("audio/")) {
-      return findCategoryByName("音频");
-    }
-
-    if (isArchiveType(mimeType, fileName)) {
-      return findCategoryByName("压缩包");
-    }
-
-    return null;
-  }
-
-  private boolean isDocumentType(String mimeType, String fileName) {
-    if (mimeType.startsWith("text/")) {
-      return true;
-    }
-
-    if (fileName != null) {
-      String lowerName = fileName.toLowerCase();
-      return lowerName.endsWith(".doc") || lowerName.endsWith(".docx") ||
-          lowerName.endsWith(".pdf") || lowerName.endsWith(".txt") ||
-          lowerName.endsWith(".xls") || lowerName.endsWith(".xlsx") ||
-          lowerName.endsWith(".ppt") || lowerName.endsWith(".pptx");
-    }
-
-    return false;
-  }
-
-  private boolean isArchiveType(String mimeType, String fileName) {
-    if (mimeType != null && mimeType.contains("zip") || mimeType.contains("rar") ||
-        mimeType.contains("7z") || mimeType.contains("tar")) {
-      return true;
-    }
-
-    if (fileName != null) {
-      String lowerName = fileName.toLowerCase();
-      return lowerName.endsWith(".zip") || lowerName.endsWith(".rar") ||
-          lowerName.endsWith(".7z") || lowerName.endsWith(".tar") ||
-          lowerName.endsWith(".gz");
-    }
-
-    return false;
-  }
-
-  private String findCategoryByName(String name) {
-    List<FileCategory> categories = categoryMapper.selectList(null);
-    return categories.stream()
-        .filter(c -> c.getName().equals(name))
-        .findFirst()
-        .map(FileCategory::getId)
-        .orElse(null);
+    return categoryRegistry.findId(userId, match.category());
   }
 }
@@ -2,18 +2,38 @@ package com.idropin.application.service.impl;
 
 import com.idropin.application.service.AccessLogService;
 import com.idropin.domain.entity.AccessLog;
+import com.idropin.infrastructure.batch.BoundedBatchWriter;
+import com.idropin.infrastructure.cache.VisitStatsStore;
 import com.idropin.infrastructure.persistence.mapper.AccessLogMapper;
+import com.idropin.infrastructure.security.VisitorFingerprintResolver;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * 访问日志服务实现
+ * 请求线程只做内存去重和入队，由后台线程批量写库；
+ * 访客以无状态指纹标识，不创建服务端会话；PV/UV 读取预聚合的计数器和 HyperLogLog
  *
  * @author Idrop.in Team
  */
@@ -23,30 +43,81 @@ import java.time.LocalDateTime;
 public class AccessLogServiceImpl implements AccessLogService {
 
     private final AccessLogMapper accessLogMapper;
+    private final VisitorFingerprintResolver visitorFingerprintResolver;
+    private final VisitStatsStore visitStatsStore;
+
+    @Value("${access-log.buffer-capacity:10000}")
+    private int bufferCapacity;
+
+    @Value("${access-log.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${access-log.flush-interval-ms:500}")
+    private long flushIntervalMillis;
+
+    @Value("${access-log.dedup-window-minutes:5}")
+    private long dedupWindowMinutes;
+
+    @Value("${access-log.dedup-max-entries:200000}")
+    private int dedupMaxEntries;
+
+    /**
+     * 访客最近一次被记录的时间（访客指纹 -> 毫秒时间戳），定期清理过期条目
+     */
+    private final Map<String, Long> recentVisitors = new ConcurrentHashMap<>();
+
+    private BoundedBatchWriter<AccessLog> writer;
+
+    /**
+     * 本实例开始实时计数的时间，之后的访问由写入线程实时计入
+     */
+    private LocalDateTime liveSince;
+
+    @PostConstruct
+    public void startWriter() {
+        liveSince = LocalDateTime.now();
+        try {
+            // 尽早登记回填截止时间，由其他实例执行回填时也不会晚于本实例开始计数的时间
+            visitStatsStore.resolveSeedCutoff(liveSince);
+        } catch (Exception e) {
+            log.warn("Failed to register visit stats seed cutoff: {}", e.getMessage());
+        }
+        writer = new BoundedBatchWriter<>("access-log", bufferCapacity, batchSize,
+                Duration.ofMillis(flushIntervalMillis), this::writeBatch);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stopWriter() {
+        writer.stop();
+    }
 
     @Override
-    @Transactional
     public void logAccess(HttpServletRequest request, String userId) {
         try {
+            String ip = getClientIp(request);
+            String userAgent = request.getHeader("User-Agent");
+            LocalDateTime now = LocalDateTime.now();
+
+            // 使用访客指纹作为会话标识，避免为匿名访客创建HttpSession
+            String visitorId = visitorFingerprintResolver.resolve(ip, userAgent, now.toLocalDate());
+
+            // 同一访客在去重窗口内只记录一次，避免重复记录
+            if (!markIfNotRecent(visitorId)) {
+                return;
+            }
+
             AccessLog accessLog = new AccessLog();
             accessLog.setUserId(userId);
-            accessLog.setIpAddress(getClientIp(request));
-            accessLog.setUserAgent(request.getHeader("User-Agent"));
+            accessLog.setIpAddress(ip);
+            accessLog.setUserAgent(userAgent);
             accessLog.setRequestPath(request.getRequestURI());
             accessLog.setRequestMethod(request.getMethod());
             accessLog.setReferer(request.getHeader("Referer"));
-            
-            // 使用session ID作为会话标识
-            HttpSession session = request.getSession(true);
-            accessLog.setSessionId(session.getId());
-            
-            accessLog.setCreatedAt(LocalDateTime.now());
-            
-            // 检查是否在5分钟内有相同session的访问记录，避免重复记录
-            LocalDateTime fiveMinutesAgo = LocalDateTime.now().minusMinutes(5);
-            if (!accessLogMapper.hasRecentAccess(session.getId(), fiveMinutesAgo)) {
-                accessLogMapper.insert(accessLog);
-            }
+            accessLog.setSessionId(visitorId);
+            accessLog.setCreatedAt(now);
+            accessLog.setId(UUID.randomUUID().toString());
+            writer.offer(accessLog);
         } catch (Exception e) {
             // 访问日志记录失败不应影响正常业务
             log.error("Failed to log access", e);
@@ -55,22 +126,116 @@ public class AccessLogServiceImpl implements AccessLogService {
 
     @Override
     public Long getTodayPV() {
-        return accessLogMapper.countTodayPV();
+        return visitStatsStore.getDailyPv(LocalDate.now());
     }
 
     @Override
     public Long getTodayUV() {
-        return accessLogMapper.countTodayUV();
+        return visitStatsStore.getDailyUv(LocalDate.now());
     }
 
     @Override
     public Long getTotalPV() {
-        return accessLogMapper.countTotalPV();
+        return visitStatsStore.getTotalPv();
     }
 
     @Override
     public Long getTotalUV() {
-        return accessLogMapper.countTotalUV();
+        return visitStatsStore.getTotalUv();
+    }
+
+    /**
+     * 首次启用预聚合统计时，从访问日志表回填历史PV/UV（仅由一个实例执行一次）
+     * UV 边读边写入 sketch（幂等），PV 在内存中按日累加，全部读完后与完成标记一起写入；
+     * 中途失败时释放执行锁，下次启动重新回填，不会重复累加PV；
+     * 截止时间由第一个启动的实例登记，重试和其他实例沿用同一截止时间
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void seedVisitStats() {
+        if (!visitStatsStore.tryStartSeeding()) {
+            return;
+        }
+        try {
+            LocalDateTime seedCutoff = visitStatsStore.resolveSeedCutoff(liveSince);
+            log.info("Seeding visit stats from access logs before {}", seedCutoff);
+            Map<LocalDate, List<String>> pending = new HashMap<>();
+            Map<LocalDate, Long> dailyPv = new HashMap<>();
+            accessLogMapper.streamVisitsBefore(seedCutoff, context -> {
+                Map<String, Object> row = context.getResultObject();
+                LocalDate day = toLocalDate(row.get("day"));
+                List<String> visitors = pending.computeIfAbsent(day, d -> new ArrayList<>());
+                visitors.add(String.valueOf(row.get("visitor")));
+                dailyPv.merge(day, 1L, Long::sum);
+                if (visitors.size() >= batchSize) {
+                    visitStatsStore.recordHistorical(day, visitors);
+                    pending.remove(day);
+                }
+            });
+            pending.forEach(visitStatsStore::recordHistorical);
+            visitStatsStore.completeSeeding(dailyPv);
+            log.info("Seeded visit stats from {} access log rows",
+                    dailyPv.values().stream().mapToLong(Long::longValue).sum());
+        } catch (Exception e) {
+            log.error("Failed to seed visit stats, will retry on next startup", e);
+            visitStatsStore.abortSeeding();
+        }
+    }
+
+    /**
+     * 写入线程的批量落库逻辑：先写日志表，再按日期累加PV/UV
+     */
+    private void writeBatch(List<AccessLog> logs) {
+        accessLogMapper.insertBatch(logs);
+        logs.stream()
+                .collect(Collectors.groupingBy(accessLog -> accessLog.getCreatedAt().toLocalDate(),
+                        Collectors.mapping(AccessLog::getSessionId, Collectors.toList())))
+                .forEach(visitStatsStore::record);
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        return (LocalDate) value;
+    }
+
+    /**
+     * 定期清理过期的访客去重记录
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpiredVisitors() {
+        long threshold = System.currentTimeMillis() - dedupWindowMillis();
+        recentVisitors.values().removeIf(lastSeen -> lastSeen < threshold);
+    }
+
+    /**
+     * 若访客在去重窗口内未被记录过，则记录当前时间并返回true
+     */
+    private boolean markIfNotRecent(String visitorId) {
+        if (recentVisitors.size() >= dedupMaxEntries) {
+            // 过载保护：去重表已满时先清理，仍满则放弃本次记录
+            evictExpiredVisitors();
+            if (recentVisitors.size() >= dedupMaxEntries) {
+                return false;
+            }
+        }
+        long now = System.currentTimeMillis();
+        long window = dedupWindowMillis();
+        boolean[] accepted = {false};
+        recentVisitors.compute(visitorId, (key, lastSeen) -> {
+            if (lastSeen != null && now - lastSeen < window) {
+                return lastSeen;
+            }
+            accepted[0] = true;
+            return now;
+        });
+        return accepted[0];
+    }
+
+    private long dedupWindowMillis() {
+        return Duration.ofMinutes(dedupWindowMinutes).toMillis();
     }
 
     /**
@@ -14,19 +14,27 @@ import com.idropin.domain.dto.SendMessageRequest;
 import com.idropin.domain.dto.UpdateQuotaRequest;
 import com.idropin.domain.dto.UpdateRoleRequest;
 import com.idropin.domain.dto.UpdateStatusRequest;
+import com.idropin.domain.entity.StatsSnapshot;
 import com.idropin.domain.entity.User;
 import com.idropin.domain.vo.AdminUserVO;
 import com.idropin.domain.vo.OverviewStatsVO;
+import com.idropin.infrastructure.cache.CoalescingCache;
 import com.idropin.infrastructure.cache.TokenCacheService;
+import com.idropin.infrastructure.persistence.mapper.StatsSnapshotMapper;
 import com.idropin.infrastructure.persistence.mapper.UserMapper;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.stream.Collectors;
 
 /**
@@ -45,43 +53,73 @@ public class AdminServiceImpl implements AdminService {
     private final AccessLogService accessLogService;
     private final PasswordEncoder passwordEncoder;
     private final TokenCacheService tokenCacheService;
+    private final StatsSnapshotMapper statsSnapshotMapper;
+
+    @Value("${admin.overview.cache-ttl-seconds:30}")
+    private long overviewCacheTtlSeconds;
+
+    private CoalescingCache<String, OverviewStatsVO> overviewCache;
+
+    private static final String OVERVIEW_CACHE_KEY = "overview";
 
     private static final String CHARS = "ABCDEFGHJKLMNPQRSTUVWXYZabcdefghjkmnpqrstuvwxyz23456789";
     private static final SecureRandom RANDOM = new SecureRandom();
 
+    @PostConstruct
+    public void initOverviewCache() {
+        overviewCache = new CoalescingCache<>(Duration.ofSeconds(overviewCacheTtlSeconds));
+    }
+
     @Override
     public OverviewStatsVO getOverviewStats() {
-        OverviewStatsVO stats = new OverviewStatsVO();
-        
-        // 用户统计
-        stats.setUserCount(userMapper.countUsers());
-        stats.setActiveUserCount(userMapper.countActiveUsers());
-        stats.setUserCountYesterday(userMapper.countUsersYesterday());
-        
-        // 文件统计
-        stats.setRecordCount(userMapper.countFiles());
-        stats.setRecordCountYesterday(userMapper.countFilesYesterday());
-        stats.setOssStorageBytes(userMapper.sumFileSize());
-        
-        // 日志统计
-        stats.setLogCount(operationLogService.countLogs());
-        stats.setLogCountYesterday(operationLogService.countLogsYesterday());
-        
+        // 短期缓存 + 请求合并：并发刷新的管理端只触发一次统计查询
+        return overviewCache.get(OVERVIEW_CACHE_KEY, this::loadOverviewStats);
+    }
+
+    /**
+     * 每天凌晨生成前一天的统计快照
+     */
+    @Scheduled(cron = "${admin.overview.snapshot-cron:0 5 0 * * ?}")
+    public void createDailySnapshot() {
+        try {
+            getOrCreateSnapshot(LocalDate.now().minusDays(1));
+        } catch (Exception e) {
+            log.error("Failed to create daily stats snapshot", e);
+        }
+    }
+
+    private OverviewStatsVO loadOverviewStats() {
+        // 用户、文件、日志统计：单条CTE查询，每张表只扫描一次
+        OverviewStatsVO stats = statsSnapshotMapper.selectOverviewCounts();
+        if (stats == null) {
+            stats = new OverviewStatsVO();
+        }
+
+        // 昨日新增：每天只计算一次并写入快照
+        StatsSnapshot yesterday = getOrCreateSnapshot(LocalDate.now().minusDays(1));
+        stats.setUserCountYesterday(yesterday != null ? yesterday.getNewUserCount() : 0L);
+        stats.setRecordCountYesterday(yesterday != null ? yesterday.getNewFileCount() : 0L);
+        stats.setLogCountYesterday(yesterday != null ? yesterday.getNewLogCount() : 0L);
+
         // PV/UV统计
         stats.setPvCount(accessLogService.getTodayPV());
         stats.setUvCount(accessLogService.getTodayUV());
         stats.setHistoryPvCount(accessLogService.getTotalPV());
         stats.setHistoryUvCount(accessLogService.getTotalUV());
-        
-        // 归档和无效文件统计
-        stats.setArchivedFileCount(userMapper.countArchivedFiles());
-        stats.setArchivedFileSize(userMapper.sumArchivedFileSize());
-        stats.setInvalidFileCount(userMapper.countInvalidFiles());
-        stats.setInvalidFileSize(userMapper.sumInvalidFileSize());
-        
+
         return stats;
     }
 
+    private StatsSnapshot getOrCreateSnapshot(LocalDate date) {
+        StatsSnapshot snapshot = statsSnapshotMapper.selectByDate(date);
+        if (snapshot == null) {
+            statsSnapshotMapper.insertSnapshot(date, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+            snapshot = statsSnapshotMapper.selectByDate(date);
+            log.info("Created stats snapshot for {}", date);
+        }
+        return snapshot;
+    }
+
     @Override
     public IPage<AdminUserVO> getUsers(String keyword, String status, Integer page, Integer size) {
         Page<AdminUserVO> pageParam = new Page<>(page, size);
@@ -0,0 +1,293 @@
+package com.idropin.application.service.impl;
+
+import com.idropin.application.service.BatchClassificationService;
+import com.idropin.common.exception.BusinessException;
+import com.idropin.domain.entity.File;
+import com.idropin.domain.event.FileEvent;
+import com.idropin.domain.vo.ClassificationRunStatus;
+import com.idropin.infrastructure.cache.CategoryRegistry;
+import com.idropin.infrastructure.classification.FileTypeRules;
+import com.idropin.infrastructure.persistence.mapper.FileMapper;
+import com.idropin.infrastructure.storage.StorageService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 批量分类服务实现
+ * 后台线程按ID键集分批扫描文件，每批的文件头由读取线程池并行读取：只通过范围读取取回规则表需要的前几百字节，
+ * 不下载整个文件；再按"魔数 → 扩展名 → MIME"规则判定分类，同一批按目标分类分组，每组一条 UPDATE 写回。
+ * 同一时间每个实例只执行一次分类，执行状态和吞吐指标保存在内存中供管理端查询
+ *
+ * @author Idrop.in Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchClassificationServiceImpl implements BatchClassificationService {
+
+    private final FileMapper fileMapper;
+    private final StorageService storageService;
+    private final FileTypeRules fileTypeRules;
+    private final CategoryRegistry categoryRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${classification.batch-size:500}")
+    private int batchSize;
+
+    @Value("${classification.read-concurrency:8}")
+    private int readConcurrency;
+
+    private ExecutorService runner;
+
+    private ExecutorService readers;
+
+    /**
+     * 当前或最近一次执行
+     */
+    private volatile Run current;
+
+    @PostConstruct
+    public void startExecutors() {
+        runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "classification-runner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger counter = new AtomicInteger();
+        readers = Executors.newFixedThreadPool(Math.max(1, readConcurrency), runnable -> {
+            Thread thread = new Thread(runnable, "classification-reader-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stopExecutors() {
+        // 未分类的文件保持 classified_at 为空，下次执行时继续
+        runner.shutdownNow();
+        readers.shutdownNow();
+        try {
+            runner.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized ClassificationRunStatus start(String scope) {
+        if (!ClassificationRunStatus.SCOPE_NEW.equals(scope) && !ClassificationRunStatus.SCOPE_ALL.equals(scope)) {
+            throw new BusinessException(400, "不支持的分类范围: " + scope);
+        }
+        Run running = current;
+        if (running != null && running.finishedAt == null) {
+            return running.toStatus();
+        }
+        Run run = new Run(scope);
+        try {
+            runner.execute(() -> execute(run));
+        } catch (RejectedExecutionException e) {
+            throw new BusinessException("分类服务正在关闭");
+        }
+        current = run;
+        log.info("Started batch classification, scope {}", scope);
+        return run.toStatus();
+    }
+
+    @Override
+    public ClassificationRunStatus getStatus() {
+        Run run = current;
+        return run != null ? run.toStatus() : null;
+    }
+
+    @Override
+    @Scheduled(cron = "${classification.cron:0 */10 * * * ?}")
+    public void classifyNewFiles() {
+        start(ClassificationRunStatus.SCOPE_NEW);
+    }
+
+    private void execute(Run run) {
+        boolean unclassifiedOnly = ClassificationRunStatus.SCOPE_NEW.equals(run.scope);
+        String afterId = null;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<File> files = fileMapper.selectClassificationBatch(unclassifiedOnly, afterId, batchSize);
+                if (files.isEmpty()) {
+                    break;
+                }
+                classifyBatch(files, run);
+                afterId = files.get(files.size() - 1).getId();
+                if (files.size() < batchSize) {
+                    break;
+                }
+            }
+            run.finish(Thread.currentThread().isInterrupted()
+                    ? ClassificationRunStatus.STATUS_CANCELLED
+                    : ClassificationRunStatus.STATUS_COMPLETED, null);
+        } catch (Exception e) {
+            log.error("Batch classification ({}) failed after {} files", run.scope, run.scanned.sum(), e);
+            run.finish(ClassificationRunStatus.STATUS_FAILED, e.getMessage());
+        }
+        ClassificationRunStatus status = run.toStatus();
+        log.info("Batch classification ({}) {}: scanned {} files, updated {}, read {} bytes, {} files/s",
+                run.scope, status.getStatus(), status.getScannedFiles(), status.getUpdatedFiles(),
+                status.getBytesRead(), String.format("%.1f", status.getFilesPerSecond()));
+    }
+
+    /**
+     * 并行读取一批文件的文件头并判定分类，按目标分类分组后在一个事务中写回
+     */
+    private void classifyBatch(List<File> files, Run run) {
+        List<CompletableFuture<String>> futures = new ArrayList<>(files.size());
+        for (File file : files) {
+            futures.add(CompletableFuture.supplyAsync(() -> classify(file, run), readers));
+        }
+
+        Map<String, List<String>> fileIdsByCategory = new HashMap<>();
+        Map<String, List<String>> movedFileIdsByUser = new HashMap<>();
+        for (int i = 0; i < files.size(); i++) {
+            File file = files.get(i);
+            String categoryId = futures.get(i).join();
+            fileIdsByCategory.computeIfAbsent(categoryId, k -> new ArrayList<>()).add(file.getId());
+            if (categoryId != null && !categoryId.equals(file.getCategoryId()) && isReplaceable(file.getCategoryId())) {
+                movedFileIdsByUser.computeIfAbsent(file.getUploaderId(), k -> new ArrayList<>()).add(file.getId());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Integer updated = transactionTemplate.execute(status -> {
+            int rows = 0;
+            for (Map.Entry<String, List<String>> entry : fileIdsByCategory.entrySet()) {
+                rows += fileMapper.applyClassification(entry.getValue(), entry.getKey(), now);
+            }
+            return rows;
+        });
+        run.scanned.add(files.size());
+        run.updated.add(updated != null ? updated : 0);
+        run.batches.increment();
+
+        movedFileIdsByUser.forEach((userId, fileIds) -> {
+            if (userId != null) {
+                eventPublisher.publishEvent(new FileEvent(FileEvent.Type.MOVED, userId, fileIds));
+            }
+        });
+    }
+
+    /**
+     * 读取文件头并判定分类，返回上传者可用的分类ID；文件头读取失败时按扩展名和 MIME 类型判定
+     */
+    private String classify(File file, Run run) {
+        byte[] header = null;
+        Long fileSize = file.getFileSize();
+        if (file.getStoragePath() != null && (fileSize == null || fileSize > 0)) {
+            int length = fileTypeRules.getHeaderLength();
+            try (InputStream in = storageService.downloadFileRange(file.getStoragePath(), 0, length)) {
+                header = in.readNBytes(length);
+                run.bytesRead.add(header.length);
+            } catch (Exception e) {
+                run.readFailures.increment();
+                log.debug("Failed to read header of file {}: {}", file.getId(), e.getMessage());
+            }
+        }
+
+        FileTypeRules.Match match = fileTypeRules.classify(
+                header, header != null ? header.length : 0, file.getMimeType(), file.getOriginalName());
+        switch (match.source()) {
+            case HEADER -> run.byHeader.increment();
+            case EXTENSION -> run.byExtension.increment();
+            case MIME_TYPE -> run.byMimeType.increment();
+            default -> run.unmatched.increment();
+        }
+        return categoryRegistry.findId(file.getUploaderId(), match.category());
+    }
+
+    /**
+     * 与 FileMapper#applyClassification 的条件一致：未分类或仍在系统默认分类中的文件才会被改写
+     */
+    private boolean isReplaceable(String categoryId) {
+        if (categoryId == null) {
+            return true;
+        }
+        String name = categoryRegistry.getName(categoryId);
+        return name != null && Objects.equals(categoryRegistry.findSystemId(name), categoryId);
+    }
+
+    /**
+     * 一次执行的状态与计数；计数由执行线程和读取线程并发累加
+     */
+    private static final class Run {
+        private final String scope;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startNanos = System.nanoTime();
+        private final LongAdder scanned = new LongAdder();
+        private final LongAdder updated = new LongAdder();
+        private final LongAdder byHeader = new LongAdder();
+        private final LongAdder byExtension = new LongAdder();
+        private final LongAdder byMimeType = new LongAdder();
+        private final LongAdder unmatched = new LongAdder();
+        private final LongAdder readFailures = new LongAdder();
+        private final LongAdder bytesRead = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private volatile String status = ClassificationRunStatus.STATUS_RUNNING;
+        private volatile String errorMessage;
+        private volatile LocalDateTime finishedAt;
+        private volatile long elapsedNanos = -1;
+
+        private Run(String scope) {
+            this.scope = scope;
+        }
+
+        private void finish(String status, String errorMessage) {
+            this.elapsedNanos = System.nanoTime() - startNanos;
+            this.status = status;
+            this.errorMessage = errorMessage;
+            this.finishedAt = LocalDateTime.now();
+        }
+
+        private ClassificationRunStatus toStatus() {
+            long elapsed = elapsedNanos >= 0 ? elapsedNanos : System.nanoTime() - startNanos;
+            long scannedFiles = scanned.sum();
+            double seconds = elapsed / 1_000_000_000d;
+            return ClassificationRunStatus.builder()
+                    .scope(scope)
+                    .status(status)
+                    .scannedFiles(scannedFiles)
+                    .updatedFiles(updated.sum())
+                    .matchedByHeader(byHeader.sum())
+                    .matchedByExtension(byExtension.sum())
+                    .matchedByMimeType(byMimeType.sum())
+                    .unmatched(unmatched.sum())
+                    .readFailures(readFailures.sum())
+                    .bytesRead(bytesRead.sum())
+                    .batches(batches.sum())
+                    .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsed))
+                    .filesPerSecond(seconds > 0 ? scannedFiles / seconds : 0d)
+                    .errorMessage(errorMessage)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
@@ -1,21 +1,29 @@
 package com.idropin.application.service.impl;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.idropin.application.service.CategoryService;
 import com.idropin.common.exception.BusinessException;
 import com.idropin.domain.dto.CategoryCreateRequest;
 import com.idropin.domain.dto.CategoryUpdateRequest;
-import com.idropin.domain.entity.File;
 import com.idropin.domain.entity.FileCategory;
+import com.idropin.domain.event.CategoryEvent;
+import com.idropin.domain.event.FileEvent;
+import com.idropin.domain.vo.CategoryDeleteResult;
 import com.idropin.domain.vo.CategoryTreeVO;
+import com.idropin.domain.vo.FileStatisticsVO;
+import com.idropin.infrastructure.cache.CoalescingCache;
 import com.idropin.infrastructure.persistence.mapper.FileCategoryMapper;
 import com.idropin.infrastructure.persistence.mapper.FileMapper;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.util.StringUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -32,6 +40,20 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final FileCategoryMapper categoryMapper;
     private final FileMapper fileMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${category.tree-cache-ttl-seconds:300}")
+    private long treeCacheTtlSeconds;
+
+    /**
+     * 用户分类树缓存（用户ID -> 带文件数的分类树），分类或文件变更时失效
+     */
+    private CoalescingCache<String, List<CategoryTreeVO>> treeCache;
+
+    @PostConstruct
+    public void initCache() {
+        treeCache = new CoalescingCache<>(Duration.ofSeconds(treeCacheTtlSeconds));
+    }
 
     @Override
     @Transactional
@@ -53,6 +75,7 @@ public class CategoryServiceImpl implements CategoryService {
         category.setCreatedAt(LocalDateTime.now());
 
         categoryMapper.insert(category);
+        eventPublisher.publishEvent(new CategoryEvent(userId));
         log.info("Category created: {} by user {}", category.getName(), userId);
 
         return category;
@@ -60,15 +83,35 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public List<CategoryTreeVO> getCategoryTree(String userId) {
+        return treeCache.get(userId, () -> loadCategoryTree(userId));
+    }
+
+    /**
+     * 分类列表和各分类的文件统计各查询一次，在内存中组装成树
+     */
+    private List<CategoryTreeVO> loadCategoryTree(String userId) {
         List<FileCategory> allCategories = categoryMapper.findByUserId(userId);
-        
-        Map<String, Long> fileCountMap = new HashMap<>();
-        for (FileCategory category : allCategories) {
-            long count = fileMapper.countByCategoryId(category.getId());
-            fileCountMap.put(category.getId(), count);
-        }
+        Map<String, FileStatisticsVO.CategoryStatistics> statsMap = categoryMapper.selectFileStatsByUserId(userId).stream()
+                .collect(Collectors.toMap(FileStatisticsVO.CategoryStatistics::getCategoryId, stats -> stats));
+        return buildCategoryTree(allCategories, statsMap);
+    }
+
+    /**
+     * 分类变更后失效该用户的分类树缓存
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryEvent(CategoryEvent event) {
+        treeCache.invalidate(event.getUserId());
+    }
 
-        return buildCategoryTree(allCategories, fileCountMap);
+    /**
+     * 文件上传、移动、删除等变更后失效文件所有者的分类树缓存
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFileEvent(FileEvent event) {
+        if (event.getUserId() != null) {
+            treeCache.invalidate(event.getUserId());
+        }
     }
 
     @Override
@@ -102,6 +145,7 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         categoryMapper.updateById(category);
+        eventPublisher.publishEvent(new CategoryEvent(userId));
         log.info("Category updated: {} by user {}", categoryId, userId);
 
         return category;
@@ -109,24 +153,72 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     @Transactional
-    public void deleteCategory(String categoryId, String userId) {
-        FileCategory category = getCategory(categoryId, userId);
+    public CategoryDeleteResult deleteCategory(String categoryId, String targetCategoryId, boolean recursive, String userId) {
+        getCategory(categoryId, userId);
 
-        List<FileCategory> children = categoryMapper.findByParentId(categoryId, userId);
-        if (!children.isEmpty()) {
-            throw new BusinessException("请先删除子分类");
+        List<String> categoryIds;
+        if (recursive) {
+            categoryIds = categoryMapper.selectSubtreeIds(categoryId, userId);
+        } else {
+            if (!categoryMapper.findByParentId(categoryId, userId).isEmpty()) {
+                throw new BusinessException("请先删除子分类");
+            }
+            categoryIds = List.of(categoryId);
         }
+        String targetId = resolveTargetCategory(targetCategoryId, categoryIds, userId);
+
+        int movedFiles = fileMapper.moveCategoryFiles(categoryIds, targetId, LocalDateTime.now());
+        int deletedCategories = categoryMapper.deleteByIds(categoryIds, userId);
+        eventPublisher.publishEvent(new CategoryEvent(userId));
+        log.info("Category deleted: {} by user {}, {} categories removed, {} files moved to {}",
+                categoryId, userId, deletedCategories, movedFiles, targetId);
+
+        return CategoryDeleteResult.builder()
+                .deletedCategories(deletedCategories)
+                .movedFiles(movedFiles)
+                .movedChildren(0)
+                .targetCategoryId(targetId)
+                .build();
+    }
 
-        LambdaQueryWrapper<File> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(File::getCategoryId, categoryId);
-        List<File> files = fileMapper.selectList(wrapper);
-        for (File file : files) {
-            file.setCategoryId(null);
-            fileMapper.updateById(file);
+    @Override
+    @Transactional
+    public CategoryDeleteResult mergeCategory(String sourceCategoryId, String targetCategoryId, String userId) {
+        getCategory(sourceCategoryId, userId);
+        if (!StringUtils.hasText(targetCategoryId)) {
+            throw new BusinessException("请选择目标分类");
         }
+        // 目标不能是源分类或其子孙，否则子分类会移到自身下面形成环
+        String targetId = resolveTargetCategory(targetCategoryId,
+                categoryMapper.selectSubtreeIds(sourceCategoryId, userId), userId);
 
-        categoryMapper.deleteById(categoryId);
-        log.info("Category deleted: {} by user {}", categoryId, userId);
+        int movedFiles = fileMapper.moveCategoryFiles(List.of(sourceCategoryId), targetId, LocalDateTime.now());
+        int movedChildren = categoryMapper.reparentChildren(sourceCategoryId, targetId, userId);
+        int deletedCategories = categoryMapper.deleteByIds(List.of(sourceCategoryId), userId);
+        eventPublisher.publishEvent(new CategoryEvent(userId));
+        log.info("Category merged: {} into {} by user {}, {} files and {} subcategories moved",
+                sourceCategoryId, targetId, userId, movedFiles, movedChildren);
+
+        return CategoryDeleteResult.builder()
+                .deletedCategories(deletedCategories)
+                .movedFiles(movedFiles)
+                .movedChildren(movedChildren)
+                .targetCategoryId(targetId)
+                .build();
+    }
+
+    /**
+     * 校验目标分类：必须属于该用户，且不在将被删除的分类中；未指定时返回 null
+     */
+    private String resolveTargetCategory(String targetCategoryId, List<String> removedIds, String userId) {
+        if (!StringUtils.hasText(targetCategoryId)) {
+            return null;
+        }
+        FileCategory target = getCategory(targetCategoryId, userId);
+        if (removedIds.contains(target.getId())) {
+            throw new BusinessException("目标分类不能是被删除的分类或其子分类");
+        }
+        return target.getId();
     }
 
     @Override
@@ -134,7 +226,8 @@ public class CategoryServiceImpl implements CategoryService {
         return categoryMapper.findByUserId(userId);
     }
 
-    private List<CategoryTreeVO> buildCategoryTree(List<FileCategory> categories, Map<String, Long> fileCountMap) {
+    private List<CategoryTreeVO> buildCategoryTree(List<FileCategory> categories,
+                                                   Map<String, FileStatisticsVO.CategoryStatistics> statsMap) {
         Map<String, List<FileCategory>> childrenMap = categories.stream()
                 .filter(c -> c.getParentId() != null)
                 .collect(Collectors.groupingBy(FileCategory::getParentId));
@@ -145,19 +238,21 @@ public class CategoryServiceImpl implements CategoryService {
                 .collect(Collectors.toList());
 
         return rootCategories.stream()
-                .map(root -> buildTreeNode(root, childrenMap, fileCountMap))
+                .map(root -> buildTreeNode(root, childrenMap, statsMap))
                 .collect(Collectors.toList());
     }
 
-    private CategoryTreeVO buildTreeNode(FileCategory category, Map<String, List<FileCategory>> childrenMap, 
-                                         Map<String, Long> fileCountMap) {
-        CategoryTreeVO node = CategoryTreeVO.fromEntity(category, fileCountMap.getOrDefault(category.getId(), 0L));
+    private CategoryTreeVO buildTreeNode(FileCategory category, Map<String, List<FileCategory>> childrenMap,
+                                         Map<String, FileStatisticsVO.CategoryStatistics> statsMap) {
+        FileStatisticsVO.CategoryStatistics stats = statsMap.get(category.getId());
+        CategoryTreeVO node = CategoryTreeVO.fromEntity(category, stats != null ? stats.getFileCount() : 0L);
+        node.setStorageSize(stats != null ? stats.getStorageSize() : 0L);
 
         List<FileCategory> children = childrenMap.get(category.getId());
         if (children != null && !children.isEmpty()) {
             List<CategoryTreeVO> childNodes = children.stream()
                     .sorted(Comparator.comparing(FileCategory::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder())))
-                    .map(child -> buildTreeNode(child, childrenMap, fileCountMap))
+                    .map(child -> buildTreeNode(child, childrenMap, statsMap))
                     .collect(Collectors.toList());
             node.setChildren(childNodes);
         }
@@ -4,25 +4,37 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.idropin.application.service.CollectionTaskService;
 import com.idropin.application.service.FileService;
 import com.idropin.common.exception.BusinessException;
+import com.idropin.common.util.KeysetCursor;
 import com.idropin.domain.dto.CreateTaskRequest;
+import com.idropin.domain.dto.SubmissionQueryRequest;
 import com.idropin.domain.entity.CollectionTask;
 import com.idropin.domain.entity.File;
 import com.idropin.domain.entity.FileSubmission;
 import com.idropin.domain.entity.TaskSubmission;
+import com.idropin.domain.event.FileEvent;
+import com.idropin.domain.event.SubmissionEvent;
+import com.idropin.domain.vo.CursorPageVO;
+import com.idropin.domain.vo.FileSubmissionVO;
 import com.idropin.domain.vo.TaskStatisticsVO;
 import com.idropin.domain.entity.TaskMoreInfo;
+import com.idropin.infrastructure.cache.CoalescingCache;
 import com.idropin.infrastructure.persistence.mapper.CollectionTaskMapper;
 import com.idropin.infrastructure.persistence.mapper.FileMapper;
 import com.idropin.infrastructure.persistence.mapper.FileSubmissionMapper;
 import com.idropin.infrastructure.persistence.mapper.TaskMoreInfoMapper;
 import com.idropin.infrastructure.persistence.mapper.TaskSubmissionMapper;
 import com.idropin.infrastructure.storage.StorageService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.util.StringUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -44,6 +56,42 @@ public class CollectionTaskServiceImpl implements CollectionTaskService {
   private final StorageService storageService;
   private final TaskSubmissionMapper taskSubmissionMapper;
   private final TaskMoreInfoMapper taskMoreInfoMapper;
+  private final ApplicationEventPublisher eventPublisher;
+
+  private static final int DEFAULT_PAGE_LIMIT = 50;
+  private static final int MAX_PAGE_LIMIT = 200;
+
+  /**
+   * 旧接口一次返回全部提交时，内部按此大小分批读取
+   */
+  private static final int LIST_BATCH_SIZE = 500;
+
+  /**
+   * 任务统计中展示的最近提交条数
+   */
+  private static final int RECENT_SUBMISSION_LIMIT = 10;
+
+  @Value("${collection.submission-count-cache-ttl-seconds:60}")
+  private long submissionCountCacheTtlSeconds;
+
+  /**
+   * 任务提交总数缓存（任务ID -> 未过滤的提交数），提交记录变更时失效
+   */
+  private CoalescingCache<String, Long> submissionCountCache;
+
+  @Value("${collection.statistics-cache-ttl-seconds:300}")
+  private long statisticsCacheTtlSeconds;
+
+  /**
+   * 任务统计缓存（任务ID -> 统计结果），提交、撤回或文件移入/移出回收站时失效
+   */
+  private CoalescingCache<String, TaskStatisticsVO> taskStatisticsCache;
+
+  @PostConstruct
+  public void initCaches() {
+    submissionCountCache = new CoalescingCache<>(Duration.ofSeconds(submissionCountCacheTtlSeconds));
+    taskStatisticsCache = new CoalescingCache<>(Duration.ofSeconds(statisticsCacheTtlSeconds));
+  }
 
   /**
    * 生成6位短码
@@ -290,6 +338,8 @@ public class CollectionTaskServiceImpl implements CollectionTaskService {
     submission.setCreatedAt(LocalDateTime.now());
 
     submissionMapper.insert(submission);
+    eventPublisher.publishEvent(FileEvent.of(FileEvent.Type.SUBMITTED, task.getCreatedBy(), fileId));
+    eventPublisher.publishEvent(new SubmissionEvent(taskId));
     log.info("File submitted to task: {} by {} from IP: {}", taskId, submitterId != null ? submitterId : submitterEmail, submitterIp);
 
     return submission;
@@ -307,131 +357,222 @@ public class CollectionTaskServiceImpl implements CollectionTaskService {
       return new ArrayList<>();
     }
 
-    // 根据任务类型查询不同的表
+    List<FileSubmissionVO> submissions = listAllSubmissions(task, new SubmissionQueryRequest(), false, false);
+    if (!"FILE".equals(task.getCollectionType())) {
+      for (FileSubmissionVO vo : submissions) {
+        vo.setFileName(vo.getFileName() != null ? vo.getFileName() : "信息提交");
+        vo.setFileSize(vo.getFileSize() != null ? vo.getFileSize() : 0L);
+      }
+      // 分批读取按 submitted_at 游标进行，旧接口的信息提交仍按 created_at 倒序返回
+      submissions.sort(Comparator.comparing(FileSubmissionVO::getCreatedAt,
+          Comparator.nullsLast(Comparator.reverseOrder())));
+    }
+    return submissions;
+  }
+
+  @Override
+  public CursorPageVO<FileSubmissionVO> getTaskSubmissionPage(String taskId, String userId,
+      SubmissionQueryRequest query) {
+    CollectionTask task = getTask(taskId, userId);
+    return querySubmissionPage(task, query, false, false);
+  }
+
+  @Override
+  public List<FileSubmissionVO> getPublicSubmissions(CollectionTask task, String submitterName) {
+    SubmissionQueryRequest query = new SubmissionQueryRequest();
+    query.setSubmitterName(submitterName);
+    return listAllSubmissions(task, query, true, true);
+  }
+
+  @Override
+  public CursorPageVO<FileSubmissionVO> getPublicSubmissionPage(CollectionTask task, String submitterName,
+      SubmissionQueryRequest query) {
+    // 复制查询条件，不修改调用方传入的对象
+    SubmissionQueryRequest publicQuery = new SubmissionQueryRequest();
+    publicQuery.setCursor(query.getCursor());
+    publicQuery.setLimit(query.getLimit());
+    publicQuery.setStartTime(query.getStartTime());
+    publicQuery.setEndTime(query.getEndTime());
+    publicQuery.setFileType(query.getFileType());
+    publicQuery.setIncludeTotal(query.getIncludeTotal());
+    publicQuery.setSubmitterName(submitterName);
+    CursorPageVO<FileSubmissionVO> page = querySubmissionPage(task, publicQuery, true, true);
+    // 公开接口不返回存储位置和其他提交者信息
+    for (FileSubmissionVO vo : page.getItems()) {
+      vo.setStoragePath(null);
+      vo.setFileUrl(null);
+      vo.setSubmitterId(null);
+    }
+    return page;
+  }
+
+  /**
+   * 查询一页提交记录；多取一条用于判断是否还有下一页
+   */
+  private CursorPageVO<FileSubmissionVO> querySubmissionPage(CollectionTask task, SubmissionQueryRequest query,
+      boolean exactName, boolean activeOnly) {
+    int limit = query.getLimit() == null || query.getLimit() <= 0
+        ? DEFAULT_PAGE_LIMIT : Math.min(query.getLimit(), MAX_PAGE_LIMIT);
+    KeysetCursor cursor = KeysetCursor.decode(query.getCursor());
+
+    List<FileSubmissionVO> items = fetchSubmissions(task, query, exactName, activeOnly, cursor, limit + 1);
+    boolean hasMore = items.size() > limit;
+    if (hasMore) {
+      items = new ArrayList<>(items.subList(0, limit));
+    }
+    String nextCursor = null;
+    if (hasMore) {
+      FileSubmissionVO last = items.get(items.size() - 1);
+      nextCursor = new KeysetCursor(last.getSubmittedAt(), last.getId()).encode();
+    }
+
+    Long total = null;
+    if (Boolean.TRUE.equals(query.getIncludeTotal())) {
+      total = hasFilters(query) || activeOnly
+          ? countSubmissions(task, query, exactName, activeOnly)
+          : submissionCountCache.get(task.getId(),
+              () -> countSubmissions(task, new SubmissionQueryRequest(), false, false));
+    }
+    return new CursorPageVO<>(items, nextCursor, hasMore, total);
+  }
+
+  /**
+   * 按游标分批读取全部匹配的提交记录（供旧的一次性返回接口使用）
+   */
+  private List<FileSubmissionVO> listAllSubmissions(CollectionTask task, SubmissionQueryRequest query,
+      boolean exactName, boolean activeOnly) {
+    List<FileSubmissionVO> all = new ArrayList<>();
+    KeysetCursor cursor = null;
+    while (true) {
+      List<FileSubmissionVO> batch = fetchSubmissions(task, query, exactName, activeOnly, cursor, LIST_BATCH_SIZE);
+      all.addAll(batch);
+      if (batch.size() < LIST_BATCH_SIZE) {
+        return all;
+      }
+      FileSubmissionVO last = batch.get(batch.size() - 1);
+      cursor = new KeysetCursor(last.getSubmittedAt(), last.getId());
+    }
+  }
+
+  /**
+   * 根据任务类型从 file_submission 或 task_submission 读取一批提交记录
+   */
+  private List<FileSubmissionVO> fetchSubmissions(CollectionTask task, SubmissionQueryRequest query,
+      boolean exactName, boolean activeOnly, KeysetCursor cursor, int limit) {
     if ("FILE".equals(task.getCollectionType())) {
-      // 文件收集任务：查询 file_submission 表
-      log.info("Querying file_submission table for FILE collection task, taskId: {}", taskId);
-      
-      // 使用字符串比较，显式转换类型避免UUID类型转换问题
-      LambdaQueryWrapper<FileSubmission> wrapper = new LambdaQueryWrapper<>();
-      wrapper.apply("task_id::text = {0}::text", taskId)
-          .orderByDesc(FileSubmission::getSubmittedAt);
-
-      List<FileSubmission> submissions = submissionMapper.selectList(wrapper);
-      
-      // 转换为VO，关联查询文件信息
-      return submissions.stream().map(submission -> {
-        com.idropin.domain.vo.FileSubmissionVO vo = new com.idropin.domain.vo.FileSubmissionVO();
-        vo.setId(submission.getId());
-        vo.setTaskId(submission.getTaskId());
-        vo.setFileId(submission.getFileId());
-        vo.setSubmitterId(submission.getSubmitterId());
-        vo.setSubmitterName(submission.getSubmitterName());
-        vo.setSubmitterEmail(submission.getSubmitterEmail());
-        vo.setSubmittedAt(submission.getSubmittedAt());
-        vo.setSubmitterIp(submission.getSubmitterIp());
-        
-        // 查询文件详细信息
-        if (submission.getFileId() != null) {
-          File file = fileMapper.selectById(submission.getFileId());
-          if (file != null) {
-            vo.setFileName(file.getOriginalName());
-            vo.setFileSize(file.getFileSize());
-            vo.setMimeType(file.getMimeType());
-            vo.setStoragePath(file.getStoragePath());
-            // 生成文件URL
-            vo.setFileUrl(storageService.getFileUrl(file.getStoragePath()));
-          }
+      // 提交记录与文件信息一次JOIN查出，避免逐条查询文件
+      List<FileSubmissionVO> submissions = submissionMapper.selectVOPage(task.getId(), query, exactName, cursor, limit);
+      for (FileSubmissionVO vo : submissions) {
+        vo.setStatus(0); // file_submission 没有 status 字段，默认为已提交
+        if (vo.getStoragePath() != null) {
+          // 生成文件URL
+          vo.setFileUrl(storageService.getFileUrl(vo.getStoragePath()));
         }
-        
-        return vo;
-      }).collect(Collectors.toList());
-      
-    } else {
-      // 信息收集任务：查询 task_submission 表
-      log.info("Querying task_submission table for INFO collection task");
-      
-      List<TaskSubmission> taskSubmissions = taskSubmissionMapper.findAllByTaskKey(taskId);
-      
-      // 转换为VO
-      return taskSubmissions.stream().map(submission -> {
-        com.idropin.domain.vo.FileSubmissionVO vo = new com.idropin.domain.vo.FileSubmissionVO();
-        vo.setId(submission.getId().toString());
-        vo.setTaskId(taskId);
-        vo.setSubmitterName(submission.getSubmitterName());
-        vo.setSubmitterEmail(submission.getSubmitterEmail());
-        vo.setSubmittedAt(submission.getSubmittedAt());
-        vo.setSubmitterIp(submission.getSubmitterIp());
-        vo.setFileName(submission.getFileName() != null ? submission.getFileName() : "信息提交");
-        vo.setFileSize(submission.getFileSize() != null ? submission.getFileSize() : 0L);
-        
-        return vo;
-      }).collect(Collectors.toList());
+      }
+      return submissions;
+    }
+
+    List<TaskSubmission> taskSubmissions = taskSubmissionMapper.selectKeysetPage(
+        task.getId(), query, exactName, activeOnly, cursor, limit);
+    List<FileSubmissionVO> submissions = new ArrayList<>(taskSubmissions.size());
+    for (TaskSubmission submission : taskSubmissions) {
+      FileSubmissionVO vo = new FileSubmissionVO();
+      vo.setId(submission.getId());
+      vo.setTaskId(task.getId());
+      vo.setSubmitterId(submission.getSubmitterId());
+      vo.setSubmitterName(submission.getSubmitterName());
+      vo.setSubmitterEmail(submission.getSubmitterEmail());
+      vo.setSubmittedAt(submission.getSubmittedAt());
+      vo.setSubmitterIp(submission.getSubmitterIp());
+      vo.setFileName(submission.getFileName());
+      vo.setFileSize(submission.getFileSize());
+      vo.setInfoData(submission.getInfoData());
+      vo.setStatus(submission.getStatus());
+      vo.setCreatedAt(submission.getCreatedAt());
+      submissions.add(vo);
+    }
+    return submissions;
+  }
+
+  private long countSubmissions(CollectionTask task, SubmissionQueryRequest query,
+      boolean exactName, boolean activeOnly) {
+    if ("FILE".equals(task.getCollectionType())) {
+      return submissionMapper.countVOs(task.getId(), query, exactName);
+    }
+    return taskSubmissionMapper.countKeysetPage(task.getId(), query, exactName, activeOnly);
+  }
+
+  private static boolean hasFilters(SubmissionQueryRequest query) {
+    return StringUtils.hasText(query.getSubmitterName())
+        || query.getStartTime() != null
+        || query.getEndTime() != null
+        || StringUtils.hasText(query.getFileType());
+  }
+
+  /**
+   * 提交记录变更后失效该任务的提交计数和统计
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onSubmissionEvent(SubmissionEvent event) {
+    submissionCountCache.invalidate(event.getTaskId());
+    taskStatisticsCache.invalidate(event.getTaskId());
+  }
+
+  /**
+   * 文件类型分布和最近提交的文件名不含回收站中的文件；文件移入、恢复或删除时无法直接定位到任务，全部失效
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onFileEvent(FileEvent event) {
+    FileEvent.Type type = event.getType();
+    if (type == FileEvent.Type.TRASHED || type == FileEvent.Type.RESTORED || type == FileEvent.Type.DELETED) {
+      taskStatisticsCache.invalidateAll();
     }
   }
 
   @Override
   public TaskStatisticsVO getTaskStatistics(String taskId, String userId) {
+    // 权限校验每次执行，缓存只保存统计结果
     CollectionTask task = getTask(taskId, userId);
+    TaskStatisticsVO stats = taskStatisticsCache.get(task.getId(), () -> computeTaskStatistics(task));
 
-    long totalSubmissions = 0;
-    long uniqueSubmittersCount = 0;
+    // 任务标题可能被修改，使用当前值
+    return TaskStatisticsVO.builder()
+        .taskId(taskId)
+        .taskTitle(task.getTitle())
+        .totalSubmissions(stats.getTotalSubmissions())
+        .uniqueSubmitters(stats.getUniqueSubmitters())
+        .fileTypeDistribution(stats.getFileTypeDistribution())
+        .recentSubmissions(stats.getRecentSubmissions())
+        .build();
+  }
+
+  /**
+   * 在数据库中聚合任务统计：总数与独立提交者、文件类型分布、最近提交各一条查询
+   */
+  private TaskStatisticsVO computeTaskStatistics(CollectionTask task) {
     Map<String, Long> fileTypeDistribution = new HashMap<>();
-    List<TaskStatisticsVO.RecentSubmission> recentSubmissions = new ArrayList<>();
+    List<TaskStatisticsVO.RecentSubmission> recentSubmissions;
+    Map<String, Object> summary;
 
     // 根据任务类型查询不同的表
     if ("FILE".equals(task.getCollectionType())) {
-      // 文件收集任务：查询 file_submission 表
-      LambdaQueryWrapper<FileSubmission> wrapper = new LambdaQueryWrapper<>();
-      wrapper.apply("task_id::text = {0}::text", taskId)
-          .orderByDesc(FileSubmission::getSubmittedAt);
-      List<FileSubmission> submissions = submissionMapper.selectList(wrapper);
-
-      totalSubmissions = submissions.size();
-
-      Set<String> uniqueSubmitters = submissions.stream()
-          .map(sub -> sub.getSubmitterId() != null ? sub.getSubmitterId() : sub.getSubmitterEmail())
-          .filter(id -> id != null && !id.isEmpty())
-          .collect(Collectors.toSet());
-      uniqueSubmittersCount = uniqueSubmitters.size();
-
-      for (FileSubmission submission : submissions) {
-        File file = fileMapper.selectById(submission.getFileId());
-        if (file != null) {
-          String type = file.getMimeType() != null ? file.getMimeType().split("/")[0] : "unknown";
-          fileTypeDistribution.put(type, fileTypeDistribution.getOrDefault(type, 0L) + 1);
-        }
+      summary = submissionMapper.selectTaskSummary(task.getId());
+      for (Map<String, Object> row : submissionMapper.selectTaskTypeDistribution(task.getId())) {
+        fileTypeDistribution.put((String) row.get("type"), toLong(row.get("count")));
       }
-
-      recentSubmissions = submissions.stream()
-          .limit(10)
-          .map(sub -> {
-            File file = fileMapper.selectById(sub.getFileId());
-            String fileName = file != null ? file.getOriginalName() : "未知文件";
-            return TaskStatisticsVO.RecentSubmission.builder()
-                .submissionId(sub.getId())
-                .fileName(fileName)
-                .submitterName(sub.getSubmitterName() != null ? sub.getSubmitterName() : "匿名用户")
-                .submittedAt(sub.getSubmittedAt().toString())
-                .build();
-          })
+      recentSubmissions = submissionMapper.selectRecentByTaskId(task.getId(), RECENT_SUBMISSION_LIMIT).stream()
+          .map(sub -> TaskStatisticsVO.RecentSubmission.builder()
+              .submissionId(sub.getId())
+              .fileName(sub.getFileName() != null ? sub.getFileName() : "未知文件")
+              .submitterName(sub.getSubmitterName() != null ? sub.getSubmitterName() : "匿名用户")
+              .submittedAt(sub.getSubmittedAt().toString())
+              .build())
           .collect(Collectors.toList());
     } else {
-      // 信息收集任务：查询 task_submission 表
-      List<TaskSubmission> submissions = taskSubmissionMapper.findAllByTaskKey(taskId);
-      
-      totalSubmissions = submissions.size();
-
-      Set<String> uniqueSubmitters = submissions.stream()
-          .map(TaskSubmission::getSubmitterName)
-          .filter(name -> name != null && !name.isEmpty())
-          .collect(Collectors.toSet());
-      uniqueSubmittersCount = uniqueSubmitters.size();
-
-      recentSubmissions = submissions.stream()
-          .limit(10)
+      summary = taskSubmissionMapper.selectTaskSummary(task.getId());
+      recentSubmissions = taskSubmissionMapper.selectRecentByTaskKey(task.getId(), RECENT_SUBMISSION_LIMIT).stream()
           .map(sub -> TaskStatisticsVO.RecentSubmission.builder()
-              .submissionId(sub.getId().toString())
+              .submissionId(sub.getId())
               .fileName(sub.getFileName() != null ? sub.getFileName() : "信息提交")
               .submitterName(sub.getSubmitterName() != null ? sub.getSubmitterName() : "匿名用户")
               .submittedAt(sub.getSubmittedAt().toString())
@@ -440,15 +581,17 @@ public class CollectionTaskServiceImpl implements CollectionTaskService {
     }
 
     return TaskStatisticsVO.builder()
-        .taskId(taskId)
-        .taskTitle(task.getTitle())
-        .totalSubmissions(totalSubmissions)
-        .uniqueSubmitters(uniqueSubmittersCount)
+        .totalSubmissions(toLong(summary.get("total")))
+        .uniqueSubmitters(toLong(summary.get("unique_submitters")))
         .fileTypeDistribution(fileTypeDistribution)
         .recentSubmissions(recentSubmissions)
         .build();
   }
 
+  private static long toLong(Object value) {
+    return value instanceof Number ? ((Number) value).longValue() : 0L;
+  }
+
   @Override
   public CollectionTask getTaskPublic(String taskId) {
     // 使用自定义的 selectByIdString 方法，明确指定 VARCHAR 类型避免 UUID 类型问题
@@ -457,30 +600,55 @@ public class CollectionTaskServiceImpl implements CollectionTaskService {
 
   @Override
   public List<com.idropin.domain.vo.FileSubmissionVO> getAllUserTaskSubmissions(String userId) {
-    List<CollectionTask> userTasks = getUserTasks(userId);
-    List<com.idropin.domain.vo.FileSubmissionVO> allSubmissions = new ArrayList<>();
-
-    for (CollectionTask task : userTasks) {
-      try {
-        List<com.idropin.domain.vo.FileSubmissionVO> submissions = getTaskSubmissions(task.getId(), userId);
-        // 为每个提交记录添加任务信息
-        for (com.idropin.domain.vo.FileSubmissionVO vo : submissions) {
-          vo.setTaskTitle(task.getTitle());
+    List<FileSubmissionVO> allSubmissions = new ArrayList<>();
+    SubmissionQueryRequest query = new SubmissionQueryRequest();
+    KeysetCursor cursor = null;
+    while (true) {
+      List<FileSubmissionVO> batch = fetchUserFeed(userId, query, cursor, LIST_BATCH_SIZE);
+      for (FileSubmissionVO vo : batch) {
+        if (vo.getFileId() == null) {
+          vo.setFileName(vo.getFileName() != null ? vo.getFileName() : "信息提交");
+          vo.setFileSize(vo.getFileSize() != null ? vo.getFileSize() : 0L);
         }
-        allSubmissions.addAll(submissions);
-      } catch (Exception e) {
-        log.warn("Failed to get submissions for task {}: {}", task.getId(), e.getMessage());
       }
+      allSubmissions.addAll(batch);
+      if (batch.size() < LIST_BATCH_SIZE) {
+        return allSubmissions;
+      }
+      FileSubmissionVO last = batch.get(batch.size() - 1);
+      cursor = new KeysetCursor(last.getSubmittedAt(), last.getId());
     }
+  }
 
-    // 按提交时间倒序排序
-    allSubmissions.sort((a, b) -> {
-      if (a.getSubmittedAt() == null) return 1;
-      if (b.getSubmittedAt() == null) return -1;
-      return b.getSubmittedAt().compareTo(a.getSubmittedAt());
-    });
+  @Override
+  public CursorPageVO<FileSubmissionVO> getAllUserSubmissionPage(String userId, SubmissionQueryRequest query) {
+    int limit = query.getLimit() == null || query.getLimit() <= 0
+        ? DEFAULT_PAGE_LIMIT : Math.min(query.getLimit(), MAX_PAGE_LIMIT);
+    List<FileSubmissionVO> items = fetchUserFeed(userId, query, KeysetCursor.decode(query.getCursor()), limit + 1);
+    boolean hasMore = items.size() > limit;
+    String nextCursor = null;
+    if (hasMore) {
+      items = new ArrayList<>(items.subList(0, limit));
+      FileSubmissionVO last = items.get(items.size() - 1);
+      nextCursor = new KeysetCursor(last.getSubmittedAt(), last.getId()).encode();
+    }
+    Long total = Boolean.TRUE.equals(query.getIncludeTotal())
+        ? submissionMapper.countUserFeed(userId, query) : null;
+    return new CursorPageVO<>(items, nextCursor, hasMore, total);
+  }
 
-    return allSubmissions;
+  /**
+   * 一次查询读取用户所有任务的一批提交记录，耗时与任务数量无关
+   */
+  private List<FileSubmissionVO> fetchUserFeed(String userId, SubmissionQueryRequest query,
+      KeysetCursor cursor, int limit) {
+    List<FileSubmissionVO> submissions = submissionMapper.selectUserFeed(userId, query, cursor, limit);
+    for (FileSubmissionVO vo : submissions) {
+      if (vo.getStoragePath() != null) {
+        vo.setFileUrl(storageService.getFileUrl(vo.getStoragePath()));
+      }
+    }
+    return submissions;
   }
 
   @Override
@@ -531,8 +699,9 @@ public class CollectionTaskServiceImpl implements CollectionTaskService {
     }
     
     LambdaQueryWrapper<FileSubmission> wrapper = new LambdaQueryWrapper<>();
-    wrapper.apply("task_id::text = {0}::text", task.getId());
+    wrapper.apply("task_id = {0,jdbcType=OTHER}", task.getId());
     submissionMapper.delete(wrapper);
+    eventPublisher.publishEvent(new SubmissionEvent(task.getId()));
 
     int affected = taskMapper.deletePermanentlyByIdAndCreatedBy(task.getId(), userId);
     if (affected <= 0) {
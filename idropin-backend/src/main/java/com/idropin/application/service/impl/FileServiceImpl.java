@@ -5,30 +5,51 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.idropin.application.service.FileService;
 import com.idropin.common.exception.BusinessException;
+import com.idropin.common.util.KeysetCursor;
 import com.idropin.domain.dto.FileQueryRequest;
 import com.idropin.domain.dto.FileUpdateRequest;
 import com.idropin.domain.entity.File;
 import com.idropin.domain.entity.FileCategory;
+import com.idropin.domain.event.FileEvent;
+import com.idropin.domain.vo.CursorPageVO;
 import com.idropin.domain.vo.FileUploadResult;
 import com.idropin.domain.vo.FileVO;
+import com.idropin.infrastructure.cache.CategoryRegistry;
+import com.idropin.infrastructure.cache.CoalescingCache;
 import com.idropin.infrastructure.persistence.mapper.FileMapper;
 import com.idropin.infrastructure.persistence.mapper.FileCategoryMapper;
+import com.idropin.infrastructure.storage.InFlightByteBudget;
+import com.idropin.infrastructure.storage.PendingUploadTracker;
 import com.idropin.infrastructure.storage.StorageService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 文件服务实现类
@@ -43,6 +64,10 @@ public class FileServiceImpl implements FileService {
     private final FileMapper fileMapper;
     private final StorageService storageService;
     private final FileCategoryMapper categoryMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PendingUploadTracker pendingUploadTracker;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoryRegistry categoryRegistry;
 
     @Value("${file.upload.max-size:104857600}")
     private long maxFileSize;
@@ -50,90 +75,195 @@ public class FileServiceImpl implements FileService {
     @Value("${file.upload.allowed-types:}")
     private List<String> allowedTypes;
 
-    private static final int MAX_BATCH_SIZE = 10;
-    
-    private static final Map<String, String> CATEGORY_NAME_MAP = new HashMap<>();
-    static {
-        CATEGORY_NAME_MAP.put("文档", "43d7428b-0468-4623-abe4-19f50e8db9a0");
-        CATEGORY_NAME_MAP.put("图片", "72e62a74-a7e0-4737-8361-cd8384093cd0");
-        CATEGORY_NAME_MAP.put("视频", "fb79c20d-d601-419b-8947-b1d1c55a6131");
-        CATEGORY_NAME_MAP.put("音频", "d9e923c1-bc8e-4da1-b361-3f5628d67826");
-        CATEGORY_NAME_MAP.put("压缩包", "133f9930-e9a6-4db7-bcd4-9c4daa6ce008");
-        CATEGORY_NAME_MAP.put("其他", "de17a518-59ec-44ef-a6b6-495d99b0ba0c");
+    @Value("${file.upload.max-batch-size:10}")
+    private int maxBatchSize;
+
+    @Value("${file.upload.concurrency:4}")
+    private int uploadConcurrency;
+
+    @Value("${file.upload.queue-capacity:200}")
+    private int uploadQueueCapacity;
+
+    @Value("${file.upload.max-in-flight-bytes-per-user:268435456}")
+    private long maxInFlightBytesPerUser;
+
+    /**
+     * 批量回收站/恢复/删除操作单条语句处理的最大ID数
+     */
+    private static final int BULK_CHUNK_SIZE = 1000;
+
+    private static final int DEFAULT_PAGE_LIMIT = 20;
+    private static final int MAX_PAGE_LIMIT = 200;
+
+    @Value("${file.count-cache-ttl-seconds:60}")
+    private long countCacheTtlSeconds;
+
+    /**
+     * 用户有效文件数缓存（用户ID -> 未过滤的文件数），文件变更时失效
+     */
+    private CoalescingCache<String, Long> fileCountCache;
+
+    /**
+     * 用户回收站文件数缓存，文件变更时失效
+     */
+    private CoalescingCache<String, Long> trashCountCache;
+
+    /**
+     * 批量上传的存储写入线程池，队列有界，满时该文件直接失败
+     */
+    private ThreadPoolExecutor uploadExecutor;
+
+    /**
+     * 每个用户同时写入存储的字节数上限
+     */
+    private InFlightByteBudget uploadBudget;
+
+    @PostConstruct
+    public void initCaches() {
+        fileCountCache = new CoalescingCache<>(Duration.ofSeconds(countCacheTtlSeconds));
+        trashCountCache = new CoalescingCache<>(Duration.ofSeconds(countCacheTtlSeconds));
     }
 
+    @PostConstruct
+    public void initUploadExecutor() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        int threads = Math.max(1, uploadConcurrency);
+        uploadExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, uploadQueueCapacity)), runnable -> {
+            Thread thread = new Thread(runnable, "file-upload-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        uploadBudget = new InFlightByteBudget(maxInFlightBytesPerUser);
+    }
+
+    @PreDestroy
+    public void shutdownUploadExecutor() {
+        uploadExecutor.shutdown();
+        try {
+            if (!uploadExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                uploadExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            uploadExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+    
     @Override
-    @Transactional
     public File uploadFile(MultipartFile multipartFile, String userId) {
         return uploadFileWithCustomName(multipartFile, userId, multipartFile.getOriginalFilename());
     }
 
+    /**
+     * 两阶段上传：先在事务之外写入对象存储，上传期间不占用数据库连接；
+     * 写入完成后在短事务中插入文件记录并返回ID。记录未能提交时删除已写入的对象
+     */
     @Override
-    @Transactional
     public File uploadFileWithCustomName(MultipartFile multipartFile, String userId, String customFilename) {
         validateFile(multipartFile);
 
-        try {
-            String originalFilename = customFilename != null ? customFilename : multipartFile.getOriginalFilename();
-            String extension = getFileExtension(originalFilename);
-            String storagePath = generateStoragePath(userId, extension);
+        String originalFilename = customFilename != null ? customFilename : multipartFile.getOriginalFilename();
+        String extension = getFileExtension(originalFilename);
+        String storagePath = generateStoragePath(userId, extension);
 
-            String url = storageService.uploadFile(
+        pendingUploadTracker.begin(storagePath);
+        try (InputStream inputStream = multipartFile.getInputStream()) {
+            storageService.uploadFile(
                     storagePath,
-                    multipartFile.getInputStream(),
+                    inputStream,
                     multipartFile.getContentType(),
                     multipartFile.getSize()
             );
+        } catch (Exception e) {
+            pendingUploadTracker.discard(storagePath);
+            log.error("Failed to upload file: {}", multipartFile.getOriginalFilename(), e);
+            throw new BusinessException("文件上传失败: " + e.getMessage());
+        }
 
-            File file = new File();
-            file.setId(java.util.UUID.randomUUID().toString());
-            file.setName(originalFilename);
-            file.setOriginalName(originalFilename);
-            file.setFileSize(multipartFile.getSize());
-            file.setMimeType(multipartFile.getContentType());
-            file.setStoragePath(storagePath);
-            file.setStorageProvider("MINIO");
-            file.setUploaderId(userId);
-            file.setStatus("ACTIVE");
-            file.setCategoryId(determineCategoryId(multipartFile.getContentType()));
-            file.setCreatedAt(LocalDateTime.now());
-            file.setUpdatedAt(LocalDateTime.now());
-
-            fileMapper.insertFile(file);
-            // 查询刚插入的文件获取ID
-            File insertedFile = fileMapper.findLatestByStoragePath(storagePath);
-            if (insertedFile != null) {
-                file.setId(insertedFile.getId());
-            }
-            log.info("File uploaded successfully: {} by user {}", originalFilename, userId);
+        LocalDateTime now = LocalDateTime.now();
+        File file = new File();
+        file.setId(UUID.randomUUID().toString());
+        file.setName(originalFilename);
+        file.setOriginalName(originalFilename);
+        file.setFileSize(multipartFile.getSize());
+        file.setMimeType(multipartFile.getContentType());
+        file.setStoragePath(storagePath);
+        file.setStorageProvider("MINIO");
+        file.setUploaderId(userId);
+        file.setStatus("ACTIVE");
+        file.setCategoryId(determineCategoryId(multipartFile.getContentType()));
+        file.setCreatedAt(now);
+        file.setUpdatedAt(now);
 
-            return file;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                confirmUploadOnCompletion(storagePath);
+                file.setId(fileMapper.insertReturningId(file));
+                eventPublisher.publishEvent(FileEvent.of(FileEvent.Type.UPLOADED, userId, file.getId()));
+            });
         } catch (Exception e) {
-            log.error("Failed to upload file: {}", multipartFile.getOriginalFilename(), e);
+            log.error("Failed to save file record: {}", multipartFile.getOriginalFilename(), e);
             throw new BusinessException("文件上传失败: " + e.getMessage());
         }
+        log.info("File uploaded successfully: {} by user {}", originalFilename, userId);
+        return file;
     }
 
+    /**
+     * 文件记录随事务提交后确认对象；回滚（包括外层事务回滚）时删除对象
+     */
+    private void confirmUploadOnCompletion(String storagePath) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    pendingUploadTracker.complete(storagePath);
+                } else {
+                    pendingUploadTracker.discard(storagePath);
+                }
+            }
+        });
+    }
+
+    /**
+     * 各文件的存储写入在上传线程池中并行执行，每个文件各自提交；
+     * 同一用户进行中的字节数受 max-in-flight-bytes-per-user 限制，超出的文件排队等待
+     */
     @Override
-    @Transactional
-    public List<FileUploadResult> uploadFiles(List<MultipartFile> files, String userId) {
-        if (files.size() > MAX_BATCH_SIZE) {
-            throw new BusinessException("批量上传文件数量不能超过 " + MAX_BATCH_SIZE + " 个");
+    public CompletableFuture<List<FileUploadResult>> uploadFiles(List<MultipartFile> files, String userId) {
+        if (files.size() > maxBatchSize) {
+            throw new BusinessException("批量上传文件数量不能超过 " + maxBatchSize + " 个");
         }
 
-        List<FileUploadResult> results = new ArrayList<>();
+        List<CompletableFuture<FileUploadResult>> futures = new ArrayList<>(files.size());
         for (MultipartFile file : files) {
-            try {
-                File uploadedFile = uploadFile(file, userId);
-                String url = storageService.getFileUrl(uploadedFile.getStoragePath());
-                FileVO fileVO = FileVO.fromEntity(uploadedFile, url);
-                results.add(FileUploadResult.success(file.getOriginalFilename(), fileVO));
-            } catch (Exception e) {
-                log.error("Failed to upload file in batch: {}", file.getOriginalFilename(), e);
-                results.add(FileUploadResult.failure(file.getOriginalFilename(), e.getMessage()));
-            }
+            long size = file.getSize();
+            futures.add(uploadBudget.acquire(userId, size)
+                    .thenApplyAsync(ignored -> uploadInBatch(file, userId), uploadExecutor)
+                    .exceptionally(e -> {
+                        // 只有任务未能进入线程池时才会到这里，额度需在此归还
+                        uploadBudget.release(userId, size);
+                        log.warn("Upload executor rejected file in batch: {}", file.getOriginalFilename());
+                        return FileUploadResult.failure(file.getOriginalFilename(), "上传繁忙，请稍后重试");
+                    }));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+    }
+
+    private FileUploadResult uploadInBatch(MultipartFile file, String userId) {
+        try {
+            File uploadedFile = uploadFile(file, userId);
+            String url = storageService.getFileUrl(uploadedFile.getStoragePath());
+            FileVO fileVO = FileVO.fromEntity(uploadedFile, url);
+            return FileUploadResult.success(file.getOriginalFilename(), fileVO);
+        } catch (Exception e) {
+            log.error("Failed to upload file in batch: {}", file.getOriginalFilename(), e);
+            return FileUploadResult.failure(file.getOriginalFilename(), e.getMessage());
+        } finally {
+            uploadBudget.release(userId, file.getSize());
         }
-        return results;
     }
 
     @Override
@@ -152,7 +282,7 @@ public class FileServiceImpl implements FileService {
         String keyword = StringUtils.hasText(query.getKeyword()) ? query.getKeyword() : null;
         
         List<File> files = fileMapper.findByUploaderIdWithPagination(userId, categoryId, keyword, size, offset);
-        long total = fileMapper.countByUploaderIdWithCondition(userId, categoryId, keyword);
+        long total = countFiles(userId, categoryId, keyword);
         
         Page<File> result = new Page<>(page, size);
         result.setRecords(files);
@@ -161,6 +291,56 @@ public class FileServiceImpl implements FileService {
         return result;
     }
 
+    @Override
+    public CursorPageVO<File> getFilePage(FileQueryRequest query, String userId) {
+        // 游标只记录上传时间，其他排序字段无法续页，直接拒绝而不是静默按上传时间返回
+        if (StringUtils.hasText(query.getSortBy()) && !"createdAt".equals(query.getSortBy())) {
+            throw new BusinessException(400, "游标分页仅支持按上传时间（createdAt）排序");
+        }
+        if (StringUtils.hasText(query.getSortOrder())
+                && !"asc".equalsIgnoreCase(query.getSortOrder()) && !"desc".equalsIgnoreCase(query.getSortOrder())) {
+            throw new BusinessException(400, "排序方向只能是 asc 或 desc");
+        }
+        boolean ascending = "asc".equalsIgnoreCase(query.getSortOrder());
+        int limit = resolveLimit(query.getSize());
+        String categoryId = query.getCategoryId() != null ? query.getCategoryId().toString() : null;
+        String keyword = StringUtils.hasText(query.getKeyword()) ? query.getKeyword() : null;
+
+        List<File> files = fileMapper.findByUploaderIdKeyset(
+                userId, categoryId, keyword, ascending, KeysetCursor.decode(query.getCursor()), limit + 1);
+        Long total = Boolean.TRUE.equals(query.getIncludeTotal()) ? countFiles(userId, categoryId, keyword) : null;
+        return toCursorPage(files, limit, File::getCreatedAt, total);
+    }
+
+    /**
+     * 统计用户文件数，无过滤条件时走缓存
+     */
+    private long countFiles(String userId, String categoryId, String keyword) {
+        if (categoryId == null && keyword == null) {
+            return fileCountCache.get(userId, () -> fileMapper.countByUploaderId(userId));
+        }
+        return fileMapper.countByUploaderIdWithCondition(userId, categoryId, keyword);
+    }
+
+    private static int resolveLimit(Integer size) {
+        return size == null || size <= 0 ? DEFAULT_PAGE_LIMIT : Math.min(size, MAX_PAGE_LIMIT);
+    }
+
+    /**
+     * 多查询的一条用于判断是否还有下一页，游标取本页最后一条的 (排序时间, id)
+     */
+    private static CursorPageVO<File> toCursorPage(List<File> files, int limit,
+                                                   Function<File, LocalDateTime> sortTime, Long total) {
+        boolean hasMore = files.size() > limit;
+        String nextCursor = null;
+        if (hasMore) {
+            files = new ArrayList<>(files.subList(0, limit));
+            File last = files.get(files.size() - 1);
+            nextCursor = new KeysetCursor(sortTime.apply(last), last.getId()).encode();
+        }
+        return new CursorPageVO<>(files, nextCursor, hasMore, total);
+    }
+
     @Override
     public File getFile(String fileId, String userId) {
         File file = fileMapper.selectById(fileId);
@@ -187,9 +367,11 @@ public class FileServiceImpl implements FileService {
     public File updateFile(String fileId, FileUpdateRequest request, String userId) {
         File file = getFile(fileId, userId);
 
+        boolean renamed = StringUtils.hasText(request.getName()) && !request.getName().equals(file.getName());
         if (StringUtils.hasText(request.getName())) {
             file.setName(request.getName());
         }
+        boolean moved = request.getCategoryId() != null && !request.getCategoryId().equals(file.getCategoryId());
         if (request.getCategoryId() != null) {
             file.setCategoryId(request.getCategoryId());
         }
@@ -202,6 +384,12 @@ public class FileServiceImpl implements FileService {
         file.setUpdatedAt(LocalDateTime.now());
 
         fileMapper.updateById(file);
+        if (moved) {
+            eventPublisher.publishEvent(FileEvent.of(FileEvent.Type.MOVED, userId, fileId));
+        }
+        if (renamed || request.getTags() != null) {
+            eventPublisher.publishEvent(FileEvent.of(FileEvent.Type.UPDATED, userId, fileId));
+        }
         log.info("File updated: {} by user {}", fileId, userId);
 
         return file;
@@ -219,31 +407,80 @@ public class FileServiceImpl implements FileService {
         }
 
         fileMapper.deleteById(fileId);
+        eventPublisher.publishEvent(FileEvent.of(FileEvent.Type.DELETED, userId, fileId));
         log.info("File deleted: {} by user {}", fileId, userId);
     }
 
     @Override
     @Transactional
     public void deleteFiles(List<String> fileIds, String userId) {
+        List<String> deletedIds = bulkDelete(fileIds, userId, false);
+        log.info("Batch deleted {}/{} files by user {}", deletedIds.size(), fileIds.size(), userId);
+    }
+
+    /**
+     * 分块执行带所有权校验的批量删除，事务提交后再删除存储中的文件
+     *
+     * @param trashed true 只删除回收站中的文件，false 只删除未删除的文件
+     * @return 实际删除的文件ID
+     */
+    private List<String> bulkDelete(List<String> fileIds, String userId, boolean trashed) {
+        List<String> deletedIds = new ArrayList<>();
         List<String> storagePaths = new ArrayList<>();
-        
-        for (String fileId : fileIds) {
-            File file = fileMapper.selectById(fileId);
-            if (file != null && file.getUploaderId().equals(userId)) {
-                storagePaths.add(file.getStoragePath());
-                fileMapper.deleteById(fileId);
+        for (List<String> chunk : chunkIds(fileIds)) {
+            for (File file : fileMapper.deleteByIdsReturning(chunk, userId, trashed)) {
+                deletedIds.add(file.getId());
+                if (file.getStoragePath() != null) {
+                    storagePaths.add(file.getStoragePath());
+                }
             }
         }
+        if (!deletedIds.isEmpty()) {
+            eventPublisher.publishEvent(new FileEvent(FileEvent.Type.DELETED, userId, deletedIds));
+        }
+        deleteStorageAfterCommit(storagePaths);
+        return deletedIds;
+    }
+
+    /**
+     * 去重并按 BULK_CHUNK_SIZE 切分ID，控制单条语句的参数个数
+     */
+    private static List<List<String>> chunkIds(List<String> fileIds) {
+        List<String> distinct = fileIds.stream()
+                .filter(StringUtils::hasText)
+                .distinct()
+                .collect(Collectors.toList());
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < distinct.size(); i += BULK_CHUNK_SIZE) {
+            chunks.add(distinct.subList(i, Math.min(i + BULK_CHUNK_SIZE, distinct.size())));
+        }
+        return chunks;
+    }
 
-        if (!storagePaths.isEmpty()) {
+    /**
+     * 存储删除不可回滚，在事务中调用时等提交后再执行
+     */
+    private void deleteStorageAfterCommit(List<String> storagePaths) {
+        if (storagePaths.isEmpty()) {
+            return;
+        }
+        Runnable task = () -> {
             try {
                 storageService.deleteFiles(storagePaths);
             } catch (Exception e) {
                 log.error("Failed to batch delete physical files", e);
             }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
         }
-
-        log.info("Batch deleted {} files by user {}", fileIds.size(), userId);
     }
 
     @Override
@@ -262,8 +499,19 @@ public class FileServiceImpl implements FileService {
     }
 
     @Override
-    public List<File> getFilesByUserId(String userId) {
-        return fileMapper.findByUploaderId(userId);
+    public void forEachFileBatch(String userId, int batchSize, Consumer<List<File>> consumer) {
+        KeysetCursor cursor = null;
+        while (true) {
+            List<File> batch = fileMapper.findByUploaderIdKeyset(userId, null, null, false, cursor, batchSize);
+            if (!batch.isEmpty()) {
+                consumer.accept(batch);
+            }
+            if (batch.size() < batchSize) {
+                return;
+            }
+            File last = batch.get(batch.size() - 1);
+            cursor = new KeysetCursor(last.getCreatedAt(), last.getId());
+        }
     }
 
     @Override
@@ -274,6 +522,7 @@ public class FileServiceImpl implements FileService {
             throw new BusinessException("文件已在回收站中");
         }
         fileMapper.softDeleteById(fileId, LocalDateTime.now());
+        eventPublisher.publishEvent(FileEvent.of(FileEvent.Type.TRASHED, userId, fileId));
         log.info("File moved to trash: {} by user {}", fileId, userId);
     }
 
@@ -281,13 +530,12 @@ public class FileServiceImpl implements FileService {
     @Transactional
     public void moveToTrash(List<String> fileIds, String userId) {
         LocalDateTime now = LocalDateTime.now();
-        for (String fileId : fileIds) {
-            File file = fileMapper.selectById(fileId);
-            if (file != null && file.getUploaderId().equals(userId) && !Boolean.TRUE.equals(file.getDeleted())) {
-                fileMapper.softDeleteById(fileId, now);
-            }
+        List<String> trashedIds = new ArrayList<>();
+        for (List<String> chunk : chunkIds(fileIds)) {
+            trashedIds.addAll(fileMapper.trashByIds(chunk, userId, now));
         }
-        log.info("Batch moved {} files to trash by user {}", fileIds.size(), userId);
+        eventPublisher.publishEvent(new FileEvent(FileEvent.Type.TRASHED, userId, trashedIds));
+        log.info("Batch moved {}/{} files to trash by user {}", trashedIds.size(), fileIds.size(), userId);
     }
 
     @Override
@@ -304,6 +552,7 @@ public class FileServiceImpl implements FileService {
             throw new BusinessException("文件不在回收站中");
         }
         fileMapper.restoreById(fileId, LocalDateTime.now());
+        eventPublisher.publishEvent(FileEvent.of(FileEvent.Type.RESTORED, userId, fileId));
         log.info("File restored from trash: {} by user {}", fileId, userId);
     }
 
@@ -311,13 +560,12 @@ public class FileServiceImpl implements FileService {
     @Transactional
     public void restoreFromTrash(List<String> fileIds, String userId) {
         LocalDateTime now = LocalDateTime.now();
-        for (String fileId : fileIds) {
-            File file = fileMapper.selectById(fileId);
-            if (file != null && file.getUploaderId().equals(userId) && Boolean.TRUE.equals(file.getDeleted())) {
-                fileMapper.restoreById(fileId, now);
-            }
+        List<String> restoredIds = new ArrayList<>();
+        for (List<String> chunk : chunkIds(fileIds)) {
+            restoredIds.addAll(fileMapper.restoreByIds(chunk, userId, now));
         }
-        log.info("Batch restored {} files from trash by user {}", fileIds.size(), userId);
+        eventPublisher.publishEvent(new FileEvent(FileEvent.Type.RESTORED, userId, restoredIds));
+        log.info("Batch restored {}/{} files from trash by user {}", restoredIds.size(), fileIds.size(), userId);
     }
 
     @Override
@@ -339,54 +587,22 @@ public class FileServiceImpl implements FileService {
             log.error("Failed to delete physical file: {}", file.getStoragePath(), e);
         }
         fileMapper.deleteById(fileId);
+        eventPublisher.publishEvent(FileEvent.of(FileEvent.Type.DELETED, userId, fileId));
         log.info("File permanently deleted: {} by user {}", fileId, userId);
     }
 
     @Override
     @Transactional
     public void permanentDelete(List<String> fileIds, String userId) {
-        List<String> storagePaths = new ArrayList<>();
-        for (String fileId : fileIds) {
-            File file = fileMapper.selectById(fileId);
-            if (file != null && file.getUploaderId().equals(userId) && Boolean.TRUE.equals(file.getDeleted())) {
-                storagePaths.add(file.getStoragePath());
-                fileMapper.deleteById(fileId);
-            }
-        }
-        if (!storagePaths.isEmpty()) {
-            try {
-                storageService.deleteFiles(storagePaths);
-            } catch (Exception e) {
-                log.error("Failed to batch delete physical files", e);
-            }
-        }
-        log.info("Batch permanently deleted {} files by user {}", fileIds.size(), userId);
-    }
-
-    @Override
-    @Transactional
-    public void emptyTrash(String userId) {
-        List<File> deletedFiles = fileMapper.findDeletedByUploaderId(userId);
-        List<String> storagePaths = new ArrayList<>();
-        for (File file : deletedFiles) {
-            storagePaths.add(file.getStoragePath());
-            fileMapper.deleteById(file.getId());
-        }
-        if (!storagePaths.isEmpty()) {
-            try {
-                storageService.deleteFiles(storagePaths);
-            } catch (Exception e) {
-                log.error("Failed to delete physical files when emptying trash", e);
-            }
-        }
-        log.info("Trash emptied for user {}, deleted {} files", userId, deletedFiles.size());
+        List<String> deletedIds = bulkDelete(fileIds, userId, true);
+        log.info("Batch permanently deleted {}/{} files by user {}", deletedIds.size(), fileIds.size(), userId);
     }
 
     @Override
     public IPage<File> getTrashFiles(int page, int size, String userId) {
         int offset = (page - 1) * size;
         List<File> files = fileMapper.findDeletedByUploaderIdWithPagination(userId, size, offset);
-        long total = fileMapper.countDeletedByUploaderId(userId);
+        long total = getTrashCount(userId);
         
         Page<File> result = new Page<>(page, size);
         result.setRecords(files);
@@ -394,9 +610,27 @@ public class FileServiceImpl implements FileService {
         return result;
     }
 
+    @Override
+    public CursorPageVO<File> getTrashFilePage(String cursor, int limit, boolean includeTotal, String userId) {
+        int pageLimit = resolveLimit(limit);
+        List<File> files = fileMapper.findDeletedByUploaderIdKeyset(userId, KeysetCursor.decode(cursor), pageLimit + 1);
+        return toCursorPage(files, pageLimit, File::getDeletedAt, includeTotal ? getTrashCount(userId) : null);
+    }
+
     @Override
     public long getTrashCount(String userId) {
-        return fileMapper.countDeletedByUploaderId(userId);
+        return trashCountCache.get(userId, () -> fileMapper.countDeletedByUploaderId(userId));
+    }
+
+    /**
+     * 文件变更后失效该用户的文件数缓存
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFileEvent(FileEvent event) {
+        if (event.getUserId() != null) {
+            fileCountCache.invalidate(event.getUserId());
+            trashCountCache.invalidate(event.getUserId());
+        }
     }
 
     @Override
@@ -418,6 +652,7 @@ public class FileServiceImpl implements FileService {
                 log.error("Failed to delete physical file: {}", file.getStoragePath(), e);
             }
             fileMapper.deleteById(fileId);
+            eventPublisher.publishEvent(FileEvent.of(FileEvent.Type.DELETED, file.getUploaderId(), fileId));
             log.info("File deleted: {}", fileId);
         }
     }
@@ -453,27 +688,27 @@ public class FileServiceImpl implements FileService {
 
     private String determineCategoryId(String mimeType) {
         if (mimeType == null) {
-            return CATEGORY_NAME_MAP.get("其他");
+            return categoryRegistry.findSystemId("其他");
         }
         
         mimeType = mimeType.toLowerCase();
         
         if (mimeType.startsWith("image/")) {
-            return CATEGORY_NAME_MAP.get("图片");
+            return categoryRegistry.findSystemId("图片");
         }
         
         if (mimeType.startsWith("video/")) {
-            return CATEGORY_NAME_MAP.get("视频");
+            return categoryRegistry.findSystemId("视频");
         }
         
         if (mimeType.startsWith("audio/")) {
-            return CATEGORY_NAME_MAP.get("音频");
+            return categoryRegistry.findSystemId("音频");
         }
         
         if (mimeType.contains("zip") || mimeType.contains("rar") || mimeType.contains("7z")
                 || mimeType.contains("tar") || mimeType.contains("gz") || mimeType.contains("bz2")
                 || mimeType.equals("application/x-compressed") || mimeType.equals("application/x-archive")) {
-            return CATEGORY_NAME_MAP.get("压缩包");
+            return categoryRegistry.findSystemId("压缩包");
         }
         
         if (mimeType.contains("pdf") || mimeType.contains("word") || mimeType.contains("document")
@@ -482,9 +717,9 @@ public class FileServiceImpl implements FileService {
                 || mimeType.startsWith("text/") || mimeType.equals("application/msword")
                 || mimeType.equals("application/vnd.ms-excel") || mimeType.equals("application/vnd.ms-powerpoint")
                 || mimeType.contains("application/vnd.openxmlformats-officedocument")) {
-            return CATEGORY_NAME_MAP.get("文档");
+            return categoryRegistry.findSystemId("文档");
         }
         
-        return CATEGORY_NAME_MAP.get("其他");
+        return categoryRegistry.findSystemId("其他");
     }
 }
@@ -70,10 +70,9 @@ public class FileShareServiceImpl implements FileShareService {
     info.setDownloadLimit(share.getDownloadLimit());
     info.setDownloadCount(share.getDownloadCount());
     
-    // 获取创建者用户名 - 规范化UUID格式（移除连字符）
-    String normalizedCreatedBy = share.getCreatedBy() != null ? share.getCreatedBy().replace("-", "") : null;
-    if (normalizedCreatedBy != null) {
-      User creator = userMapper.findById(normalizedCreatedBy);
+    // 获取创建者用户名
+    if (share.getCreatedBy() != null) {
+      User creator = userMapper.findById(share.getCreatedBy());
       if (creator != null) {
         info.setCreatorUsername(creator.getUsername());
       }
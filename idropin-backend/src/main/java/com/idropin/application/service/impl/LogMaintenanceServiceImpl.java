@@ -0,0 +1,125 @@
+package com.idropin.application.service.impl;
+
+import com.idropin.application.service.LogMaintenanceService;
+import com.idropin.infrastructure.persistence.mapper.AccessLogMapper;
+import com.idropin.infrastructure.persistence.mapper.LogPartitionMapper;
+import com.idropin.infrastructure.persistence.mapper.OperationLogMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.regex.Matcher;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 日志维护服务实现
+ * 访问日志和操作日志按月分区，过期数据按分区整体删除；
+ * 访问日志和操作日志每小时汇总一次，汇总表长期保留
+ *
+ * @author Idrop.in Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LogMaintenanceServiceImpl implements LogMaintenanceService {
+
+    private static final String ACCESS_LOG_TABLE = "sys_access_log";
+    private static final String OPERATION_LOG_TABLE = "sys_operation_log";
+    private static final Pattern PARTITION_NAME = Pattern.compile("^(sys_access_log|sys_operation_log)_p(\\d{6})$");
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final AccessLogMapper accessLogMapper;
+    private final OperationLogMapper operationLogMapper;
+    private final LogPartitionMapper logPartitionMapper;
+
+    @Value("${log-maintenance.partition-months-ahead:3}")
+    private int partitionMonthsAhead;
+
+    @Value("${log-maintenance.access-log-retention-months:6}")
+    private int accessLogRetentionMonths;
+
+    @Value("${log-maintenance.operation-log-retention-months:12}")
+    private int operationLogRetentionMonths;
+
+    /**
+     * 启动时确保当月及未来分区存在，避免写入落不到分区
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        maintainPartitions();
+    }
+
+    @Override
+    @Scheduled(cron = "${log-maintenance.rollup-cron:0 2 * * * ?}")
+    public void rollupAccessLogs() {
+        rollup(ACCESS_LOG_TABLE, accessLogMapper::selectLatestRollupHour, accessLogMapper::rollupHourly,
+                accessLogRetentionMonths);
+    }
+
+    @Override
+    @Scheduled(cron = "${log-maintenance.rollup-cron:0 2 * * * ?}")
+    public void rollupOperationLogs() {
+        rollup(OPERATION_LOG_TABLE, operationLogMapper::selectLatestRollupHour, operationLogMapper::rollupHourly,
+                operationLogRetentionMonths);
+    }
+
+    @Override
+    @Scheduled(cron = "${log-maintenance.partition-cron:0 30 0 * * ?}")
+    public void maintainPartitions() {
+        maintainPartitions(ACCESS_LOG_TABLE, accessLogRetentionMonths);
+        maintainPartitions(OPERATION_LOG_TABLE, operationLogRetentionMonths);
+    }
+
+    private void rollup(String table, Supplier<LocalDateTime> latestRollupHour,
+                        BiFunction<LocalDateTime, LocalDateTime, Integer> rollupHourly, int retentionMonths) {
+        LocalDateTime currentHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        try {
+            LocalDateTime latest = latestRollupHour.get();
+            // 重算最近一个已汇总的小时，兼容异步写入的迟到数据
+            LocalDateTime from = latest != null ? latest : currentHour.minusMonths(retentionMonths);
+            if (!from.isBefore(currentHour)) {
+                return;
+            }
+            int buckets = rollupHourly.apply(from, currentHour);
+            log.info("Rolled up {} [{}, {}) into {} hourly buckets", table, from, currentHour, buckets);
+        } catch (Exception e) {
+            log.error("Failed to roll up {}", table, e);
+        }
+    }
+
+    private void maintainPartitions(String parentTable, int retentionMonths) {
+        YearMonth currentMonth = YearMonth.now();
+        try {
+            for (int i = 0; i <= partitionMonthsAhead; i++) {
+                LocalDate monthStart = currentMonth.plusMonths(i).atDay(1);
+                logPartitionMapper.ensureMonthlyPartition(parentTable, monthStart);
+            }
+
+            YearMonth oldestRetained = currentMonth.minusMonths(retentionMonths);
+            for (String partition : logPartitionMapper.listPartitions(parentTable)) {
+                Matcher matcher = PARTITION_NAME.matcher(partition);
+                if (!matcher.matches() || !matcher.group(1).equals(parentTable)) {
+                    continue;
+                }
+                YearMonth month = YearMonth.parse(matcher.group(2), PARTITION_MONTH);
+                if (month.isBefore(oldestRetained)) {
+                    logPartitionMapper.dropPartition(partition);
+                    log.info("Dropped expired log partition: {}", partition);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to maintain partitions for {}", parentTable, e);
+        }
+    }
+}
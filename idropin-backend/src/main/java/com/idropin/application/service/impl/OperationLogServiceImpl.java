@@ -2,19 +2,39 @@ package com.idropin.application.service.impl;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.idropin.application.service.OperationLogService;
 import com.idropin.domain.entity.OperationLog;
 import com.idropin.domain.vo.OperationLogVO;
+import com.idropin.infrastructure.batch.BoundedBatchWriter;
+import com.idropin.infrastructure.batch.WriteAheadJournal;
 import com.idropin.infrastructure.persistence.mapper.OperationLogMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 操作日志服务实现
+ * 日志在调用方事务提交后入队，由后台线程批量写库；
+ * 安全相关的操作先写入本地预写日志，写库失败时定期重新入队，进程退出时在下次启动重放
  *
  * @author Idrop.in Team
  */
@@ -24,9 +44,63 @@ import java.time.LocalDateTime;
 public class OperationLogServiceImpl implements OperationLogService {
 
     private final OperationLogMapper operationLogMapper;
+    private final ObjectMapper objectMapper;
+
+    @Value("${log-maintenance.log-page-window-months:1}")
+    private int pageWindowMonths;
+
+    @Value("${operation-log.buffer-capacity:5000}")
+    private int bufferCapacity;
+
+    @Value("${operation-log.batch-size:200}")
+    private int batchSize;
+
+    @Value("${operation-log.flush-interval-ms:500}")
+    private long flushIntervalMillis;
+
+    @Value("${operation-log.journal-path:./data/operation-log.journal}")
+    private String journalPath;
+
+    @Value("${operation-log.durable-types:USER_REGISTER,UPDATE_USER_STATUS,RESET_PASSWORD,BIND_PHONE,UPDATE_QUOTA,FORCE_LOGOUT,UPDATE_ROLE,UPDATE_ROUTE_CONFIG,UPDATE_SYSTEM_CONFIG,TOGGLE_SYSTEM_CONFIG}")
+    private Set<String> durableTypes;
+
+    /**
+     * 已写入预写日志但尚未确认写库的条数，归零时截断预写日志
+     */
+    private final AtomicInteger pendingDurable = new AtomicInteger();
+
+    /**
+     * 已写入预写日志但写库失败的日志，定期重新入队
+     */
+    private final Queue<QueuedLog> failedJournaled = new ConcurrentLinkedQueue<>();
+
+    private BoundedBatchWriter<QueuedLog> writer;
+
+    private WriteAheadJournal<OperationLog> journal;
+
+    @PostConstruct
+    public void start() {
+        journal = new WriteAheadJournal<>(Path.of(journalPath), objectMapper, OperationLog.class);
+        try {
+            replay(journal.open());
+        } catch (IOException e) {
+            log.error("Failed to open operation log journal {}, durable entries will not be journaled", journalPath, e);
+            journal = null;
+        }
+        writer = new BoundedBatchWriter<>("operation-log", bufferCapacity, batchSize,
+                Duration.ofMillis(flushIntervalMillis), this::writeBatch);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        writer.stop();
+        if (journal != null) {
+            journal.close();
+        }
+    }
 
     @Override
-    @Transactional
     public void log(String operatorId, String operationType, String targetType, String targetId, String description, String ipAddress) {
         OperationLog operationLog = new OperationLog();
         operationLog.setOperatorId(operatorId);
@@ -36,13 +110,108 @@ public class OperationLogServiceImpl implements OperationLogService {
         operationLog.setDescription(description);
         operationLog.setIpAddress(ipAddress);
         operationLog.setCreatedAt(LocalDateTime.now());
-        operationLogMapper.insert(operationLog);
+        operationLog.setId(UUID.randomUUID().toString());
+
+        // 在事务中调用时，等事务提交后再入队，回滚的操作不留日志
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(operationLog);
+                }
+            });
+        } else {
+            enqueue(operationLog);
+        }
     }
 
     @Override
     public IPage<OperationLogVO> getLogs(Integer page, Integer size) {
         Page<OperationLogVO> pageParam = new Page<>(page, size);
-        return operationLogMapper.selectLogPage(pageParam);
+        // 只查询最近几个月的分区，避免分页计数扫描全部历史
+        LocalDateTime since = LocalDate.now().withDayOfMonth(1).minusMonths(pageWindowMonths).atStartOfDay();
+        return operationLogMapper.selectLogPage(pageParam, since);
+    }
+
+    private void enqueue(OperationLog operationLog) {
+        boolean journaled = false;
+        if (journal != null && durableTypes.contains(operationLog.getOperationType())) {
+            try {
+                synchronized (journal) {
+                    journal.append(operationLog);
+                    pendingDurable.incrementAndGet();
+                }
+                journaled = true;
+            } catch (Exception e) {
+                // 日志记录失败不应影响正常业务
+                log.error("Failed to journal operation log: {}", operationLog.getId(), e);
+            }
+        }
+        QueuedLog entry = new QueuedLog(operationLog, journaled);
+        if (!writer.offer(entry) && journaled) {
+            // 队列已满时已记入预写日志的日志改为同步写入，失败时稍后重新入队
+            try {
+                writeBatch(List.of(entry));
+            } catch (Exception e) {
+                log.error("Failed to write durable operation log, will retry: {}", operationLog.getId(), e);
+            }
+        }
+    }
+
+    /**
+     * 批量写库；只有确实记入预写日志的条目才计入确认数，全部确认后截断预写日志。
+     * 写库失败时这些条目留待重试
+     */
+    private void writeBatch(List<QueuedLog> entries) {
+        try {
+            operationLogMapper.insertBatch(entries.stream().map(QueuedLog::operationLog).toList());
+        } catch (RuntimeException e) {
+            entries.stream().filter(QueuedLog::journaled).forEach(failedJournaled::add);
+            throw e;
+        }
+        int journaledCount = (int) entries.stream().filter(QueuedLog::journaled).count();
+        if (journaledCount > 0 && pendingDurable.addAndGet(-journaledCount) == 0) {
+            synchronized (journal) {
+                if (pendingDurable.get() == 0) {
+                    journal.truncate();
+                }
+            }
+        }
+    }
+
+    /**
+     * 将写库失败的已记入预写日志的条目重新入队；重复写入由 ON CONFLICT DO NOTHING 跳过
+     */
+    @Scheduled(fixedDelayString = "${operation-log.retry-interval-ms:30000}")
+    public void retryFailedJournaled() {
+        QueuedLog entry;
+        while ((entry = failedJournaled.peek()) != null) {
+            if (!writer.offer(entry)) {
+                // 队列仍满，下次再试
+                return;
+            }
+            failedJournaled.poll();
+        }
+    }
+
+    /**
+     * 重放上次未确认的预写日志
+     */
+    private void replay(List<OperationLog> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            for (int i = 0; i < entries.size(); i += batchSize) {
+                operationLogMapper.insertBatch(entries.subList(i, Math.min(i + batchSize, entries.size())));
+            }
+            journal.truncate();
+            log.info("Replayed {} operation log entries from journal", entries.size());
+        } catch (Exception e) {
+            // 保留文件，下次启动再重放
+            pendingDurable.addAndGet(entries.size());
+            log.error("Failed to replay {} operation log entries, journal kept", entries.size(), e);
+        }
     }
 
     @Override
@@ -54,4 +223,10 @@ public class OperationLogServiceImpl implements OperationLogService {
     public Long countLogsYesterday() {
         return operationLogMapper.countLogsYesterday();
     }
+
+    /**
+     * 待写库的日志，journaled 表示已记入预写日志且尚未确认
+     */
+    private record QueuedLog(OperationLog operationLog, boolean journaled) {
+    }
 }
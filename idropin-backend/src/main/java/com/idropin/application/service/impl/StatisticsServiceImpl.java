@@ -3,9 +3,7 @@ package com.idropin.application.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.idropin.application.service.StatisticsService;
 import com.idropin.domain.entity.File;
-import com.idropin.domain.entity.FileCategory;
 import com.idropin.domain.vo.FileStatisticsVO;
-import com.idropin.infrastructure.persistence.mapper.FileCategoryMapper;
 import com.idropin.infrastructure.persistence.mapper.FileMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,7 +25,6 @@ import java.util.stream.Collectors;
 public class StatisticsServiceImpl implements StatisticsService {
 
   private final FileMapper fileMapper;
-  private final FileCategoryMapper categoryMapper;
 
   @Override
   public FileStatisticsVO getFileStatistics(String userId) {
@@ -71,13 +68,13 @@ public class StatisticsServiceImpl implements StatisticsService {
   public FileStatisticsVO getSystemStatistics() {
     LambdaQueryWrapper<File> wrapper = new LambdaQueryWrapper<>();
     wrapper.eq(File::getStatus, "ACTIVE")
-        .and(w -> w.isNull(File::getDeleted).or().eq(File::getDeleted, false));
+        .eq(File::getDeleted, false);
 
     Long totalFiles = fileMapper.selectCount(wrapper);
 
     wrapper.clear();
     wrapper.eq(File::getStatus, "ACTIVE")
-        .and(w -> w.isNull(File::getDeleted).or().eq(File::getDeleted, false))
+        .eq(File::getDeleted, false)
         .select(File::getFileSize);
     List<File> files = fileMapper.selectList(wrapper);
     Long totalStorageSize = files.stream()
@@ -119,7 +116,7 @@ public class StatisticsServiceImpl implements StatisticsService {
   private Long countSystemFilesByDateRange(LocalDateTime start, LocalDateTime end) {
     LambdaQueryWrapper<File> wrapper = new LambdaQueryWrapper<>();
     wrapper.eq(File::getStatus, "ACTIVE")
-        .and(w -> w.isNull(File::getDeleted).or().eq(File::getDeleted, false))
+        .eq(File::getDeleted, false)
         .ge(File::getCreatedAt, start)
         .lt(File::getCreatedAt, end);
     return fileMapper.selectCount(wrapper);
@@ -154,7 +151,7 @@ public class StatisticsServiceImpl implements StatisticsService {
   private List<FileStatisticsVO.FileTypeDistribution> getSystemFileTypeDistribution() {
     LambdaQueryWrapper<File> wrapper = new LambdaQueryWrapper<>();
     wrapper.eq(File::getStatus, "ACTIVE")
-        .and(w -> w.isNull(File::getDeleted).or().eq(File::getDeleted, false))
+        .eq(File::getDeleted, false)
         .select(File::getMimeType);
     List<File> files = fileMapper.selectList(wrapper);
 
@@ -213,7 +210,7 @@ public class StatisticsServiceImpl implements StatisticsService {
 
     LambdaQueryWrapper<File> wrapper = new LambdaQueryWrapper<>();
     wrapper.eq(File::getStatus, "ACTIVE")
-        .and(w -> w.isNull(File::getDeleted).or().eq(File::getDeleted, false))
+        .eq(File::getDeleted, false)
         .ge(File::getCreatedAt, start)
         .lt(File::getCreatedAt, end)
         .select(File::getFileSize);
@@ -233,72 +230,11 @@ public class StatisticsServiceImpl implements StatisticsService {
   }
 
   private List<FileStatisticsVO.CategoryStatistics> getCategoryStatistics(String userId) {
-    List<File> ownFiles = fileMapper.findCategoryStatsByUploaderId(userId);
-    List<File> taskFiles = fileMapper.findCategoryStatsByTaskOwner(userId);
-    
-    List<File> allFiles = new ArrayList<>();
-    allFiles.addAll(ownFiles);
-    allFiles.addAll(taskFiles);
-
-    Map<String, List<File>> categoryFilesMap = allFiles.stream()
-        .filter(file -> file.getCategoryId() != null)
-        .collect(Collectors.groupingBy(File::getCategoryId));
-
-    List<FileStatisticsVO.CategoryStatistics> statistics = new ArrayList<>();
-
-    for (Map.Entry<String, List<File>> entry : categoryFilesMap.entrySet()) {
-      FileCategory category = categoryMapper.selectById(entry.getKey());
-      if (category != null) {
-        List<File> categoryFiles = entry.getValue();
-        Long fileCount = (long) categoryFiles.size();
-        Long storageSize = categoryFiles.stream().mapToLong(File::getFileSize).sum();
-
-        statistics.add(FileStatisticsVO.CategoryStatistics.builder()
-            .categoryId(category.getId())
-            .categoryName(category.getName())
-            .fileCount(fileCount)
-            .storageSize(storageSize)
-            .build());
-      }
-    }
-
-    return statistics.stream()
-        .sorted((a, b) -> Long.compare(b.getFileCount(), a.getFileCount()))
-        .collect(Collectors.toList());
+    return fileMapper.selectCategoryStatsByUser(userId);
   }
 
   private List<FileStatisticsVO.CategoryStatistics> getSystemCategoryStatistics() {
-    LambdaQueryWrapper<File> wrapper = new LambdaQueryWrapper<>();
-    wrapper.eq(File::getStatus, "ACTIVE")
-        .and(w -> w.isNull(File::getDeleted).or().eq(File::getDeleted, false))
-        .select(File::getCategoryId, File::getFileSize);
-    List<File> files = fileMapper.selectList(wrapper);
-
-    Map<String, List<File>> categoryFilesMap = files.stream()
-        .filter(file -> file.getCategoryId() != null)
-        .collect(Collectors.groupingBy(File::getCategoryId));
-
-    List<FileStatisticsVO.CategoryStatistics> statistics = new ArrayList<>();
-
-    for (Map.Entry<String, List<File>> entry : categoryFilesMap.entrySet()) {
-      FileCategory category = categoryMapper.selectById(entry.getKey());
-      if (category != null) {
-        List<File> categoryFiles = entry.getValue();
-        Long fileCount = (long) categoryFiles.size();
-        Long storageSize = categoryFiles.stream().mapToLong(File::getFileSize).sum();
-
-        statistics.add(FileStatisticsVO.CategoryStatistics.builder()
-            .categoryId(category.getId())
-            .categoryName(category.getName())
-            .fileCount(fileCount)
-            .storageSize(storageSize)
-            .build());
-      }
-    }
-
-    return statistics.stream()
-        .sorted((a, b) -> Long.compare(b.getFileCount(), a.getFileCount()))
-        .collect(Collectors.toList());
+    return fileMapper.selectSystemCategoryStats();
   }
 
   private FileStatisticsVO.StorageUsage getStorageUsage(Long used) {
@@ -0,0 +1,149 @@
+package com.idropin.application.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.idropin.application.service.SubmissionExportService;
+import com.idropin.domain.entity.CollectionTask;
+import com.idropin.domain.entity.TaskMoreInfo;
+import com.idropin.domain.entity.TaskSubmission;
+import com.idropin.infrastructure.export.CsvRowWriter;
+import com.idropin.infrastructure.export.RowWriter;
+import com.idropin.infrastructure.export.XlsxRowWriter;
+import com.idropin.infrastructure.persistence.mapper.TaskMoreInfoMapper;
+import com.idropin.infrastructure.persistence.mapper.TaskSubmissionMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 提交记录导出服务实现
+ * 表头取自任务的表单配置（task_more_info.info）及提交记录中出现过的字段，提交记录通过游标逐行读取、逐行写出，
+ * 导出过程中不在内存中保留整张结果集
+ *
+ * @author Idrop.in Team
+ */
+@Slf4j
+@Service
+public class SubmissionExportServiceImpl implements SubmissionExportService {
+
+    private static final List<String> FIXED_HEADERS = List.of("提交者", "提交时间", "状态");
+
+    private final TaskSubmissionMapper taskSubmissionMapper;
+    private final TaskMoreInfoMapper taskMoreInfoMapper;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 解析 infoData 的共享读取器（ObjectReader 线程安全，可复用）
+     */
+    private final ObjectReader infoDataReader;
+
+    public SubmissionExportServiceImpl(TaskSubmissionMapper taskSubmissionMapper,
+                                       TaskMoreInfoMapper taskMoreInfoMapper,
+                                       ObjectMapper objectMapper) {
+        this.taskSubmissionMapper = taskSubmissionMapper;
+        this.taskMoreInfoMapper = taskMoreInfoMapper;
+        this.objectMapper = objectMapper;
+        this.infoDataReader = objectMapper.readerFor(new TypeReference<Map<String, String>>() {});
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportInfoSubmissions(CollectionTask task, String format, boolean gzip, OutputStream out)
+            throws IOException {
+        List<String> fields = resolveFields(task.getId());
+
+        List<String> header = new ArrayList<>(FIXED_HEADERS.size() + fields.size());
+        header.addAll(FIXED_HEADERS);
+        header.addAll(fields);
+
+        try (RowWriter writer = "xlsx".equalsIgnoreCase(format)
+                ? new XlsxRowWriter(out, task.getTitle())
+                : new CsvRowWriter(out, gzip)) {
+            writer.writeRow(header);
+            taskSubmissionMapper.streamByTaskKey(task.getId(), context -> {
+                try {
+                    writer.writeRow(toRow(context.getResultObject(), fields));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 确定导出字段：先取表单配置中的字段，再扫描一遍提交记录，把表单修改前提交的旧字段追加在后面
+     * （只保留字段名，不保留记录）
+     */
+    private List<String> resolveFields(String taskId) {
+        Set<String> fields = new LinkedHashSet<>(parseTemplateFields(taskMoreInfoMapper.selectByTaskId(taskId)));
+        taskSubmissionMapper.streamByTaskKey(taskId, context -> fields.addAll(parseInfoData(context.getResultObject()).keySet()));
+        return new ArrayList<>(fields);
+    }
+
+    /**
+     * 表单配置为 JSON 数组，元素为字段名字符串（旧格式）或含 text/name 的对象
+     */
+    private List<String> parseTemplateFields(TaskMoreInfo moreInfo) {
+        if (moreInfo == null || !StringUtils.hasText(moreInfo.getInfo())) {
+            return Collections.emptyList();
+        }
+        try {
+            JsonNode root = objectMapper.readTree(moreInfo.getInfo());
+            if (!root.isArray()) {
+                return Collections.emptyList();
+            }
+            Set<String> fields = new LinkedHashSet<>();
+            for (JsonNode item : root) {
+                String name = item.isTextual() ? item.asText() : item.path("text").asText(item.path("name").asText(""));
+                if (StringUtils.hasText(name)) {
+                    fields.add(name);
+                }
+            }
+            return new ArrayList<>(fields);
+        } catch (IOException e) {
+            log.warn("Failed to parse task form config: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    private List<String> toRow(TaskSubmission sub, List<String> fields) {
+        Map<String, String> infoMap = parseInfoData(sub);
+        List<String> row = new ArrayList<>(FIXED_HEADERS.size() + fields.size());
+        row.add(sub.getSubmitterName() != null ? sub.getSubmitterName() : "");
+        row.add(sub.getSubmittedAt() != null ? sub.getSubmittedAt().toString() : "");
+        row.add(sub.getStatus() == null || sub.getStatus() == 0 ? "已提交" : "已撤回");
+        for (String field : fields) {
+            String value = infoMap.get(field);
+            row.add(value != null ? value : "");
+        }
+        return row;
+    }
+
+    private Map<String, String> parseInfoData(TaskSubmission sub) {
+        if (!StringUtils.hasText(sub.getInfoData())) {
+            return Collections.emptyMap();
+        }
+        try {
+            Map<String, String> infoMap = infoDataReader.readValue(sub.getInfoData());
+            return infoMap != null ? infoMap : Collections.emptyMap();
+        } catch (IOException e) {
+            log.warn("Failed to parse infoData: {}", e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+}
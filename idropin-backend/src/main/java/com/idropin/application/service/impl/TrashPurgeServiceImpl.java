@@ -0,0 +1,263 @@
+package com.idropin.application.service.impl;
+
+import com.idropin.application.service.TrashPurgeService;
+import com.idropin.common.exception.BusinessException;
+import com.idropin.domain.entity.File;
+import com.idropin.domain.entity.FilePurgeJob;
+import com.idropin.domain.event.FileEvent;
+import com.idropin.infrastructure.persistence.mapper.FileMapper;
+import com.idropin.infrastructure.persistence.mapper.FilePurgeJobMapper;
+import com.idropin.infrastructure.storage.StorageService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 回收站清理服务实现
+ * 清空回收站和过期自动清理都落成 file_purge_job 任务，由后台线程每批删除 batch-size 条记录，
+ * 每批一个事务并同时累加任务进度；存储文件在该批提交后删除。
+ * 已删除的行不会再被选中，任务中断后从剩余的行继续即可，启动时和每隔 resume-interval-ms 会接管停滞的任务
+ *
+ * @author Idrop.in Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TrashPurgeServiceImpl implements TrashPurgeService {
+
+    /**
+     * 剩余的行被其他事务锁定时的重试间隔
+     */
+    private static final long LOCKED_RETRY_MILLIS = 1000;
+
+    private final FileMapper fileMapper;
+    private final FilePurgeJobMapper purgeJobMapper;
+    private final StorageService storageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${trash-purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${trash-purge.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${trash-purge.workers:2}")
+    private int workers;
+
+    @Value("${trash-purge.stale-minutes:10}")
+    private long staleMinutes;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void startExecutor() {
+        executor = Executors.newFixedThreadPool(Math.max(1, workers), runnable -> {
+            Thread thread = new Thread(runnable, "trash-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stopExecutor() {
+        // 未完成的任务保持 RUNNING，超过 stale-minutes 后由其他实例或下次启动接管
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public FilePurgeJob submitEmptyTrash(String userId) {
+        FilePurgeJob active = purgeJobMapper.selectActiveByUserId(userId);
+        if (active != null) {
+            return active;
+        }
+        FilePurgeJob job = newJob(FilePurgeJob.TYPE_EMPTY_TRASH, userId, LocalDateTime.now());
+        try {
+            purgeJobMapper.insert(job);
+        } catch (DuplicateKeyException e) {
+            // 并发提交时以先插入的任务为准
+            active = purgeJobMapper.selectActiveByUserId(userId);
+            if (active != null) {
+                return active;
+            }
+            throw e;
+        }
+        dispatch(job.getId());
+        log.info("Submitted empty-trash job {} for user {}", job.getId(), userId);
+        return job;
+    }
+
+    @Override
+    public FilePurgeJob getJob(String jobId, String userId) {
+        FilePurgeJob job = purgeJobMapper.selectById(jobId);
+        if (job == null || !Objects.equals(job.getUserId(), userId)) {
+            throw new BusinessException(404, "清理任务不存在");
+        }
+        return job;
+    }
+
+    @Override
+    @Scheduled(cron = "${trash-purge.auto-purge-cron:0 40 3 * * ?}")
+    public void autoPurgeExpired() {
+        if (retentionDays <= 0) {
+            return;
+        }
+        if (purgeJobMapper.selectActiveAutoPurge() == null) {
+            FilePurgeJob job = newJob(FilePurgeJob.TYPE_AUTO_PURGE, null, LocalDateTime.now().minusDays(retentionDays));
+            purgeJobMapper.insert(job);
+            log.info("Submitted auto-purge job {} for trash before {}", job.getId(), job.getCutoff());
+        }
+        resumePendingJobs();
+    }
+
+    /**
+     * 启动时接管未完成的任务
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            resumePendingJobs();
+        } catch (Exception e) {
+            log.error("Failed to resume trash purge jobs", e);
+        }
+    }
+
+    /**
+     * 定期接管停滞的任务（执行实例退出后超过 stale-minutes 未更新进度），
+     * 以及派发时线程池已关闭而仍为 PENDING 的任务
+     */
+    @Scheduled(initialDelayString = "${trash-purge.resume-interval-ms:600000}",
+            fixedDelayString = "${trash-purge.resume-interval-ms:600000}")
+    public void resumeStaleJobs() {
+        try {
+            resumePendingJobs();
+        } catch (Exception e) {
+            log.error("Failed to resume trash purge jobs", e);
+        }
+    }
+
+    private void resumePendingJobs() {
+        for (FilePurgeJob job : purgeJobMapper.selectResumable(staleBefore())) {
+            dispatch(job.getId());
+        }
+    }
+
+    private void dispatch(String jobId) {
+        try {
+            executor.execute(() -> runJob(jobId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Trash purge executor is shut down, job {} will be resumed later", jobId);
+        }
+    }
+
+    /**
+     * 执行任务直到没有可删除的行；抢占失败说明任务已由其他线程或实例执行。
+     * 批量删除跳过被锁定的行，某批删除 0 行时还需不跳过锁确认没有剩余，
+     * 否则剩余的行正被其他任务删除，稍后重试（空批次同样刷新进度时间，任务不会被判定为中断）
+     */
+    private void runJob(String jobId) {
+        if (purgeJobMapper.claim(jobId, staleBefore(), LocalDateTime.now()) == 0) {
+            return;
+        }
+        FilePurgeJob job = purgeJobMapper.selectById(jobId);
+        long purged = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                int deleted = purgeBatch(job);
+                purged += deleted;
+                if (deleted > 0) {
+                    continue;
+                }
+                if (!fileMapper.existsTrashToPurge(job.getUserId(), job.getCutoff())) {
+                    break;
+                }
+                try {
+                    TimeUnit.MILLISECONDS.sleep(LOCKED_RETRY_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            purgeJobMapper.finish(jobId, FilePurgeJob.STATUS_COMPLETED, null, LocalDateTime.now());
+            log.info("Trash purge job {} ({}) completed, purged {} files in this run", jobId, job.getJobType(), purged);
+        } catch (Exception e) {
+            log.error("Trash purge job {} failed after purging {} files", jobId, purged, e);
+            purgeJobMapper.finish(jobId, FilePurgeJob.STATUS_FAILED, e.getMessage(), LocalDateTime.now());
+        }
+    }
+
+    /**
+     * 删除一批记录并在同一事务中累加进度，提交后清理存储并发布删除事件
+     *
+     * @return 本批删除的行数
+     */
+    private int purgeBatch(FilePurgeJob job) {
+        List<File> deleted = transactionTemplate.execute(status -> {
+            List<File> rows = fileMapper.purgeTrashBatch(job.getUserId(), job.getCutoff(), batchSize);
+            purgeJobMapper.addProgress(job.getId(), rows.size(), LocalDateTime.now());
+            return rows;
+        });
+        if (deleted == null || deleted.isEmpty()) {
+            return 0;
+        }
+
+        List<String> storagePaths = deleted.stream()
+                .map(File::getStoragePath)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        try {
+            storageService.deleteFiles(storagePaths);
+        } catch (Exception e) {
+            log.error("Failed to delete physical files for trash purge job {}", job.getId(), e);
+        }
+        deleted.stream()
+                .collect(Collectors.groupingBy(File::getUploaderId,
+                        Collectors.mapping(File::getId, Collectors.toList())))
+                .forEach((userId, fileIds) ->
+                        eventPublisher.publishEvent(new FileEvent(FileEvent.Type.DELETED, userId, fileIds)));
+        return deleted.size();
+    }
+
+    private LocalDateTime staleBefore() {
+        return LocalDateTime.now().minus(Duration.ofMinutes(staleMinutes));
+    }
+
+    private static FilePurgeJob newJob(String jobType, String userId, LocalDateTime cutoff) {
+        LocalDateTime now = LocalDateTime.now();
+        FilePurgeJob job = new FilePurgeJob();
+        job.setUserId(userId);
+        job.setJobType(jobType);
+        job.setStatus(FilePurgeJob.STATUS_PENDING);
+        job.setCutoff(cutoff);
+        job.setPurgedCount(0L);
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        return job;
+    }
+}
@@ -0,0 +1,67 @@
+package com.idropin.common.util;
+
+import com.idropin.common.exception.BusinessException;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 键集分页游标
+ * 由排序时间和ID组成，编码为URL安全的Base64字符串返回给客户端。
+ * 排序时间允许为空（历史数据中时间列可能为NULL），查询按 NULLS LAST 排序，空时间编码为空串
+ *
+ * @author Idrop.in Team
+ */
+@Getter
+public class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 上一页最后一条记录的排序时间，可能为null
+     */
+    private final LocalDateTime time;
+
+    /**
+     * 上一页最后一条记录的ID
+     */
+    private final String id;
+
+    public KeysetCursor(LocalDateTime time, String id) {
+        this.time = time;
+        this.id = id;
+    }
+
+    /**
+     * 编码为游标字符串
+     */
+    public String encode() {
+        String raw = (time != null ? time.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标字符串，为空时返回null
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.indexOf(SEPARATOR);
+            String time = raw.substring(0, index);
+            String id = raw.substring(index + 1);
+            if (id.isEmpty()) {
+                throw new IllegalArgumentException("missing id");
+            }
+            // 兼容旧版本把空时间编码成的 "null"
+            boolean noTime = time.isEmpty() || "null".equals(time);
+            return new KeysetCursor(noTime ? null : LocalDateTime.parse(time), id);
+        } catch (RuntimeException e) {
+            throw new BusinessException(400, "无效的分页游标");
+        }
+    }
+}
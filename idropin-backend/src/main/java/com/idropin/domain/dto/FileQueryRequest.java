@@ -37,6 +37,16 @@ public class FileQueryRequest {
      */
     private String keyword;
 
+    /**
+     * 游标（游标分页接口使用，为空时从第一页开始）
+     */
+    private String cursor;
+
+    /**
+     * 是否返回总数（游标分页接口使用）
+     */
+    private Boolean includeTotal = false;
+
     /**
      * 排序字段（createdAt, fileSize, name）
      */
@@ -0,0 +1,53 @@
+package com.idropin.domain.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * 提交记录游标分页查询请求
+ *
+ * @author Idrop.in Team
+ */
+@Data
+public class SubmissionQueryRequest {
+
+    /**
+     * 上一页返回的游标，为空时从最新的提交开始
+     */
+    private String cursor;
+
+    /**
+     * 每页大小
+     */
+    private Integer limit = 50;
+
+    /**
+     * 提交者姓名（模糊匹配）
+     */
+    private String submitterName;
+
+    /**
+     * 提交时间下限（包含）
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime startTime;
+
+    /**
+     * 提交时间上限（不包含）
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime endTime;
+
+    /**
+     * 文件类型（MIME类型前缀，如 image、application/pdf），仅对文件收集任务生效；
+     * 查询所有任务的提交记录时指定该条件只返回文件提交
+     */
+    private String fileType;
+
+    /**
+     * 是否返回总数
+     */
+    private Boolean includeTotal = false;
+}
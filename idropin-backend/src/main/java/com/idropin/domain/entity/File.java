@@ -93,4 +93,9 @@ public class File {
    * 删除时间
    */
   private LocalDateTime deletedAt;
+
+  /**
+   * 后台批量分类的完成时间，为空表示尚未按内容分类
+   */
+  private LocalDateTime classifiedAt;
 }
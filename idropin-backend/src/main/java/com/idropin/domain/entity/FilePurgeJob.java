@@ -0,0 +1,84 @@
+package com.idropin.domain.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 回收站清理任务实体
+ *
+ * @author Idrop.in Team
+ */
+@Data
+@TableName("file_purge_job")
+public class FilePurgeJob {
+
+    /**
+     * 任务类型：用户清空回收站
+     */
+    public static final String TYPE_EMPTY_TRASH = "EMPTY_TRASH";
+
+    /**
+     * 任务类型：过期文件自动清理
+     */
+    public static final String TYPE_AUTO_PURGE = "AUTO_PURGE";
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    /**
+     * 任务ID
+     */
+    @TableId(type = IdType.ASSIGN_UUID)
+    private String id;
+
+    /**
+     * 用户ID，自动清理任务为空
+     */
+    private String userId;
+
+    /**
+     * 任务类型
+     */
+    private String jobType;
+
+    /**
+     * 任务状态
+     */
+    private String status;
+
+    /**
+     * 只清理在此时间及之前移入回收站的文件
+     */
+    private LocalDateTime cutoff;
+
+    /**
+     * 已删除的文件数
+     */
+    private Long purgedCount;
+
+    /**
+     * 失败原因
+     */
+    private String errorMessage;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+
+    /**
+     * 完成时间
+     */
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,45 @@
+package com.idropin.domain.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 每日统计快照实体
+ *
+ * @author Idrop.in Team
+ */
+@Data
+@TableName("sys_stats_snapshot")
+public class StatsSnapshot {
+
+    /**
+     * 快照日期
+     */
+    @TableId(type = IdType.INPUT)
+    private LocalDate snapshotDate;
+
+    /**
+     * 当日新增用户数
+     */
+    private Long newUserCount;
+
+    /**
+     * 当日新增文件数
+     */
+    private Long newFileCount;
+
+    /**
+     * 当日新增操作日志数
+     */
+    private Long newLogCount;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,22 @@
+package com.idropin.domain.event;
+
+import lombok.Getter;
+
+/**
+ * 分类变更事件
+ * 分类创建、修改、删除后发布，用于失效分类树缓存
+ *
+ * @author Idrop.in Team
+ */
+@Getter
+public class CategoryEvent {
+
+    /**
+     * 分类所属用户ID
+     */
+    private final String userId;
+
+    public CategoryEvent(String userId) {
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,58 @@
+package com.idropin.domain.event;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 文件领域事件
+ * 由文件服务和收集任务服务在数据提交后发布，用于驱动统计推送等下游处理
+ *
+ * @author Idrop.in Team
+ */
+@Getter
+public class FileEvent {
+
+    /**
+     * 事件类型
+     */
+    public enum Type {
+        /** 上传 */
+        UPLOADED,
+        /** 移入回收站 */
+        TRASHED,
+        /** 从回收站恢复 */
+        RESTORED,
+        /** 永久删除 */
+        DELETED,
+        /** 提交到收集任务 */
+        SUBMITTED,
+        /** 移动到其他分类 */
+        MOVED,
+        /** 重命名或修改标签 */
+        UPDATED
+    }
+
+    private final Type type;
+
+    /**
+     * 统计数据受影响的用户ID（文件所有者或任务创建者）
+     */
+    private final String userId;
+
+    /**
+     * 涉及的文件ID
+     */
+    private final List<String> fileIds;
+
+    public FileEvent(Type type, String userId, List<String> fileIds) {
+        this.type = type;
+        this.userId = userId;
+        this.fileIds = fileIds != null ? List.copyOf(fileIds) : Collections.emptyList();
+    }
+
+    public static FileEvent of(Type type, String userId, String fileId) {
+        return new FileEvent(type, userId, fileId != null ? List.of(fileId) : null);
+    }
+}
@@ -0,0 +1,22 @@
+package com.idropin.domain.event;
+
+import lombok.Getter;
+
+/**
+ * 提交记录变更事件
+ * 任务的提交记录新增、撤回或删除后发布，用于失效该任务的提交计数、统计等缓存
+ *
+ * @author Idrop.in Team
+ */
+@Getter
+public class SubmissionEvent {
+
+    /**
+     * 发生变更的任务ID
+     */
+    private final String taskId;
+
+    public SubmissionEvent(String taskId) {
+        this.taskId = taskId;
+    }
+}
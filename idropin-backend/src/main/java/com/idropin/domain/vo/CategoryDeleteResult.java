@@ -0,0 +1,38 @@
+package com.idropin.domain.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 分类删除/合并结果
+ *
+ * @author Idrop.in Team
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryDeleteResult {
+
+    /**
+     * 删除的分类数（含子分类）
+     */
+    private Integer deletedCategories;
+
+    /**
+     * 移动的文件数
+     */
+    private Integer movedFiles;
+
+    /**
+     * 移入的子分类数（合并时）
+     */
+    private Integer movedChildren;
+
+    /**
+     * 文件移入的目标分类ID，为空表示移出分类
+     */
+    private String targetCategoryId;
+}
@@ -19,6 +19,7 @@ public class CategoryTreeVO {
     private String color;
     private Integer sortOrder;
     private Long fileCount;
+    private Long storageSize;
     private List<CategoryTreeVO> children = new ArrayList<>();
 
     /**
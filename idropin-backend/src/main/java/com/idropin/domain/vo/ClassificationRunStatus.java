@@ -0,0 +1,102 @@
+package com.idropin.domain.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 批量分类执行状态
+ *
+ * @author Idrop.in Team
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClassificationRunStatus {
+
+    public static final String SCOPE_NEW = "NEW";
+    public static final String SCOPE_ALL = "ALL";
+
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+    public static final String STATUS_CANCELLED = "CANCELLED";
+
+    /**
+     * 分类范围：NEW / ALL
+     */
+    private String scope;
+
+    /**
+     * 状态：RUNNING / COMPLETED / FAILED / CANCELLED
+     */
+    private String status;
+
+    /**
+     * 已扫描的文件数
+     */
+    private Long scannedFiles;
+
+    /**
+     * 写回的文件数（含分类不变、仅标记为已分类的文件）
+     */
+    private Long updatedFiles;
+
+    /**
+     * 按文件头魔数判定的文件数
+     */
+    private Long matchedByHeader;
+
+    /**
+     * 按扩展名判定的文件数
+     */
+    private Long matchedByExtension;
+
+    /**
+     * 按MIME类型判定的文件数
+     */
+    private Long matchedByMimeType;
+
+    /**
+     * 没有匹配规则、归入"其他"的文件数
+     */
+    private Long unmatched;
+
+    /**
+     * 文件头读取失败的文件数（仍按扩展名和MIME类型分类）
+     */
+    private Long readFailures;
+
+    /**
+     * 从存储读取的字节数
+     */
+    private Long bytesRead;
+
+    /**
+     * 已处理的批次数
+     */
+    private Long batches;
+
+    /**
+     * 已执行时长（毫秒）
+     */
+    private Long elapsedMillis;
+
+    /**
+     * 平均吞吐（文件/秒）
+     */
+    private Double filesPerSecond;
+
+    /**
+     * 失败原因
+     */
+    private String errorMessage;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+}
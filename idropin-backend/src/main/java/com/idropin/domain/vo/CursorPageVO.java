@@ -0,0 +1,38 @@
+package com.idropin.domain.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 游标分页结果VO
+ *
+ * @author Idrop.in Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageVO<T> {
+
+    /**
+     * 当前页数据
+     */
+    private List<T> items;
+
+    /**
+     * 下一页游标，没有更多数据时为null
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有更多数据
+     */
+    private boolean hasMore;
+
+    /**
+     * 总数（仅在请求时返回）
+     */
+    private Long total;
+}
@@ -81,4 +81,19 @@ public class FileSubmissionVO {
     * 提交者IP地址
     */
    private String submitterIp;
+
+   /**
+    * 提交的信息数据（JSON，仅信息收集任务）
+    */
+   private String infoData;
+
+   /**
+    * 提交状态：0-已提交，1-已撤回
+    */
+   private Integer status;
+
+   /**
+    * 创建时间
+    */
+   private LocalDateTime createdAt;
 }
@@ -4,6 +4,7 @@ import lombok.Builder;
 import lombok.Data;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 搜索结果
@@ -34,6 +35,11 @@ public class SearchResult {
    */
   private List<String> suggestions;
 
+  /**
+   * 分面统计：category / mimeType / tag -> (值 -> 文件数)，仅 Lucene 搜索引擎提供
+   */
+  private Map<String, Map<String, Long>> facets;
+
   /**
    * 文件搜索项
    */
@@ -0,0 +1,168 @@
+package com.idropin.infrastructure.batch;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 有界异步批量写入器
+ * 调用方线程只做非阻塞入队，后台线程按"条数或时间间隔"先到者触发批量写入；
+ * 队列满时直接丢弃并计数，保证调用方在过载时不会被拖慢
+ *
+ * @author Idrop.in Team
+ */
+@Slf4j
+public class BoundedBatchWriter<T> {
+
+    private final String name;
+    private final BlockingQueue<T> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Consumer<List<T>> sink;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    /**
+     * @param name          写入器名称（用于线程名和日志）
+     * @param capacity      队列容量
+     * @param batchSize     单批最大条数
+     * @param flushInterval 最长刷新间隔
+     * @param sink          批量写入逻辑（在刷新线程中同步调用）
+     */
+    public BoundedBatchWriter(String name, int capacity, int batchSize, Duration flushInterval,
+                              Consumer<List<T>> sink) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.sink = sink;
+    }
+
+    /**
+     * 启动后台刷新线程
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::runLoop, name + "-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * 停止后台线程并写出队列中剩余的数据
+     */
+    public synchronized void stop() {
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        drainRemaining();
+        log.info("{} stopped: written={}, dropped={}, failed={}", name, written.get(), dropped.get(), failed.get());
+    }
+
+    /**
+     * 非阻塞入队
+     *
+     * @return 是否入队成功；队列已满时返回false
+     */
+    public boolean offer(T item) {
+        if (queue.offer(item)) {
+            return true;
+        }
+        long count = dropped.incrementAndGet();
+        if (count == 1 || count % 1000 == 0) {
+            log.warn("{} queue is full, dropped {} entries so far", name, count);
+        }
+        return false;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    private void runLoop() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                T first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    T next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                // stop() 中断等待，剩余数据由 drainRemaining 写出
+                flush(batch);
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void drainRemaining() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<T> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            sink.accept(List.copyOf(batch));
+            written.addAndGet(batch.size());
+        } catch (Exception e) {
+            failed.addAndGet(batch.size());
+            log.error("{} failed to write batch of {} entries", name, batch.size(), e);
+        } finally {
+            batch.clear();
+        }
+    }
+}
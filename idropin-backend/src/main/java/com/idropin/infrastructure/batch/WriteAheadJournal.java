@@ -0,0 +1,147 @@
+package com.idropin.infrastructure.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 本地预写日志
+ * 每条记录以一行JSON追加到文件，写入数据库前先落盘，进程异常退出后可在启动时重放；
+ * 确认所有记录都已写库后再截断文件，或只保留仍未确认的记录重写文件
+ *
+ * @author Idrop.in Team
+ */
+@Slf4j
+public class WriteAheadJournal<T> {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final Class<T> type;
+
+    private FileChannel channel;
+
+    public WriteAheadJournal(Path path, ObjectMapper objectMapper, Class<T> type) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.type = type;
+    }
+
+    /**
+     * 读取文件中尚未确认的记录（用于启动时重放），并打开文件供后续追加
+     */
+    public synchronized List<T> open() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        List<T> entries = new ArrayList<>();
+        if (Files.exists(path)) {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    entries.add(objectMapper.readValue(line, type));
+                } catch (IOException e) {
+                    // 进程崩溃时最后一行可能只写了一半
+                    log.warn("Skipping unreadable journal line in {}: {}", path, e.getMessage());
+                }
+            }
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return entries;
+    }
+
+    /**
+     * 追加一条记录
+     */
+    public synchronized void append(T entry) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(toLine(entry));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to journal " + path, e);
+        }
+    }
+
+    /**
+     * 清空文件（调用方需保证所有记录都已确认）
+     */
+    public synchronized void truncate() {
+        try {
+            channel.truncate(0);
+        } catch (IOException e) {
+            log.warn("Failed to truncate journal {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * 用给定记录替换文件内容（压缩已确认的记录）：先写临时文件并刷盘，再原子替换，
+     * 中途崩溃时保留原文件
+     */
+    public synchronized void rewrite(Collection<T> entries) {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (T entry : entries) {
+                    ByteBuffer buffer = ByteBuffer.wrap(toLine(entry));
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                }
+                out.force(true);
+            }
+            channel.close();
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to rewrite journal {}: {}", path, e.getMessage());
+        } finally {
+            reopen();
+        }
+    }
+
+    /**
+     * 强制刷盘并关闭
+     */
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(true);
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close journal {}: {}", path, e.getMessage());
+        }
+    }
+
+    private byte[] toLine(T entry) throws IOException {
+        return (objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void reopen() {
+        if (channel.isOpen()) {
+            return;
+        }
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to reopen journal " + path, e);
+        }
+    }
+}
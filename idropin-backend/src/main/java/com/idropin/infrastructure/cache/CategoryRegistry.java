@@ -0,0 +1,134 @@
+package com.idropin.infrastructure.cache;
+
+import com.idropin.domain.entity.FileCategory;
+import com.idropin.domain.event.CategoryEvent;
+import com.idropin.infrastructure.persistence.mapper.FileCategoryMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分类注册表
+ * 在内存中保存分类 ID ↔ 名称的不可变快照（按用户，加上 user_id 为空的系统默认分类），
+ * 查询为 O(1) 且不访问数据库。分类变更提交后整体重建快照，
+ * 并定期刷新以同步其他实例上的变更
+ *
+ * @author Idrop.in Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryRegistry {
+
+    private final FileCategoryMapper categoryMapper;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 根据分类ID获取名称，未知分类返回 null
+     */
+    public String getName(String categoryId) {
+        if (categoryId == null) {
+            return null;
+        }
+        return current().namesById.get(categoryId);
+    }
+
+    /**
+     * 按名称查找分类：先找用户自己的分类，没有时使用同名的系统默认分类
+     */
+    public String findId(String userId, String name) {
+        Snapshot current = current();
+        if (userId != null) {
+            String id = current.idsByUserAndName.getOrDefault(userId, Collections.emptyMap()).get(name);
+            if (id != null) {
+                return id;
+            }
+        }
+        return current.systemIdsByName.get(name);
+    }
+
+    /**
+     * 按名称查找系统默认分类
+     */
+    public String findSystemId(String name) {
+        return current().systemIdsByName.get(name);
+    }
+
+    /**
+     * 分类变更提交后重建快照
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryEvent(CategoryEvent event) {
+        refresh();
+    }
+
+    /**
+     * 定期刷新，同步其他实例上的分类变更
+     */
+    @Scheduled(fixedDelayString = "${category.registry-refresh-ms:300000}")
+    public void refresh() {
+        try {
+            snapshot = Snapshot.of(categoryMapper.selectNameIndex());
+        } catch (Exception e) {
+            // 保留旧快照，下次刷新再试
+            log.warn("Failed to refresh category registry: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = Snapshot.of(categoryMapper.selectNameIndex());
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private static final class Snapshot {
+        private final Map<String, String> namesById;
+        private final Map<String, Map<String, String>> idsByUserAndName;
+        private final Map<String, String> systemIdsByName;
+
+        private Snapshot(Map<String, String> namesById,
+                         Map<String, Map<String, String>> idsByUserAndName,
+                         Map<String, String> systemIdsByName) {
+            this.namesById = namesById;
+            this.idsByUserAndName = idsByUserAndName;
+            this.systemIdsByName = systemIdsByName;
+        }
+
+        /**
+         * 分类已按 sort_order、created_at 排序，同名分类保留排在前面的
+         */
+        private static Snapshot of(List<FileCategory> categories) {
+            Map<String, String> namesById = new HashMap<>();
+            Map<String, Map<String, String>> idsByUserAndName = new HashMap<>();
+            Map<String, String> systemIdsByName = new HashMap<>();
+            for (FileCategory category : categories) {
+                if (category.getId() == null || category.getName() == null) {
+                    continue;
+                }
+                namesById.put(category.getId(), category.getName());
+                Map<String, String> byName = category.getUserId() == null
+                        ? systemIdsByName
+                        : idsByUserAndName.computeIfAbsent(category.getUserId(), k -> new HashMap<>());
+                byName.putIfAbsent(category.getName(), category.getId());
+            }
+            Map<String, Map<String, String>> frozenUsers = new HashMap<>();
+            idsByUserAndName.forEach((userId, byName) -> frozenUsers.put(userId, Map.copyOf(byName)));
+            return new Snapshot(Map.copyOf(namesById), Map.copyOf(frozenUsers), Map.copyOf(systemIdsByName));
+        }
+    }
+}
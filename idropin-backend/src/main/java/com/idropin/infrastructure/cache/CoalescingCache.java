@@ -0,0 +1,85 @@
+package com.idropin.infrastructure.cache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 带请求合并的短期本地缓存
+ * 同一个key在加载期间的并发请求只会触发一次加载，其余请求等待同一结果；
+ * 加载完成后结果在TTL内直接复用
+ *
+ * @author Idrop.in Team
+ */
+public class CoalescingCache<K, V> {
+
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    public CoalescingCache(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * 获取缓存值，不存在或已过期时调用loader加载
+     */
+    public V get(K key, Supplier<V> loader) {
+        Entry<V> created = new Entry<>();
+        Entry<V> entry = entries.compute(key, (k, existing) ->
+                existing != null && !existing.isExpired() ? existing : created);
+
+        if (entry == created) {
+            try {
+                V value = loader.get();
+                created.complete(value, System.nanoTime() + ttlNanos);
+            } catch (RuntimeException e) {
+                entries.remove(key, created);
+                created.future.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return entry.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 使指定key失效
+     */
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private static final class Entry<V> {
+
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+
+        // 加载完成前为 Long.MAX_VALUE，加载中的条目永不过期
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private void complete(V value, long expiresAt) {
+            this.expiresAt = expiresAt;
+            future.complete(value);
+        }
+
+        private boolean isExpired() {
+            return future.isDone() && System.nanoTime() - expiresAt > 0;
+        }
+    }
+}
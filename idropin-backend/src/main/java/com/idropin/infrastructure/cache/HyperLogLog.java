@@ -0,0 +1,85 @@
+package com.idropin.infrastructure.cache;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 内存版 HyperLogLog 基数估计
+ * 使用 2^14 个寄存器，标准误差约 0.81%，与 Redis 的 HyperLogLog 精度一致；
+ * 作为 Redis 不可用时的本地兜底
+ *
+ * @author Idrop.in Team
+ */
+public class HyperLogLog {
+
+    private static final int PRECISION = 14;
+    private static final int REGISTER_COUNT = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+
+    private final byte[] registers = new byte[REGISTER_COUNT];
+
+    /**
+     * 添加元素
+     */
+    public synchronized void add(String value) {
+        long hash = hash64(value);
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        // 剩余位中首个1出现的位置，末尾补1防止全零
+        long remaining = (hash << PRECISION) | (1L << (PRECISION - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * 合并另一个估计器
+     */
+    public synchronized void merge(HyperLogLog other) {
+        byte[] snapshot;
+        synchronized (other) {
+            snapshot = other.registers.clone();
+        }
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            if (snapshot[i] > registers[i]) {
+                registers[i] = snapshot[i];
+            }
+        }
+    }
+
+    /**
+     * 估算基数
+     */
+    public synchronized long count() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+        // 小基数时使用线性计数修正
+        if (estimate <= 2.5 * REGISTER_COUNT && zeros > 0) {
+            estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * FNV-1a 64位哈希 + MurmurHash3 fmix64 混淆
+     */
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,311 @@
+package com.idropin.infrastructure.cache;
+
+import com.idropin.infrastructure.persistence.mapper.AccessLogMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 访问统计存储
+ * 每日PV使用 Redis 计数器，每日UV使用 Redis HyperLogLog；
+ * 历史UV由每日 sketch 合并到总 sketch 得到，读取时不再扫描访问日志表。
+ * Redis 不可用时，PV 由小时汇总表加最新分区中未汇总的部分计算，
+ * UV 使用本地内存 sketch 兜底（仅覆盖本实例启动以来的数据）
+ *
+ * @author Idrop.in Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VisitStatsStore {
+
+    private static final String PV_DAY_PREFIX = "stats:pv:";
+    private static final String PV_TOTAL_KEY = "stats:pv:total";
+    private static final String UV_DAY_PREFIX = "stats:uv:";
+    private static final String UV_TOTAL_KEY = "stats:uv:total";
+    private static final String SEEDED_KEY = "stats:seeded";
+    private static final String SEEDING_KEY = "stats:seeding";
+    private static final String SEED_CUTOFF_KEY = "stats:seed-cutoff";
+    private static final Duration SEEDING_LOCK_TTL = Duration.ofHours(1);
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final StringRedisTemplate redisTemplate;
+    private final AccessLogMapper accessLogMapper;
+
+    @Value("${access-log.stats.daily-retention-days:35}")
+    private int dailyRetentionDays;
+
+    private final Map<LocalDate, HyperLogLog> localDailyUv = new ConcurrentHashMap<>();
+    private final HyperLogLog localTotalUv = new HyperLogLog();
+
+    /**
+     * 记录某日的访问
+     *
+     * @param day        访问日期
+     * @param visitorIds 访客标识，每个元素对应一次PV
+     */
+    public void record(LocalDate day, Collection<String> visitorIds) {
+        if (visitorIds.isEmpty()) {
+            return;
+        }
+        recordLocal(day, visitorIds);
+        try {
+            String pvKey = PV_DAY_PREFIX + day;
+            String uvKey = UV_DAY_PREFIX + day;
+            Instant expireAt = dailyExpireAt(day);
+            String[] ids = visitorIds.toArray(new String[0]);
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = stringOperations(operations);
+                    ops.opsForValue().increment(pvKey, ids.length);
+                    ops.opsForValue().increment(PV_TOTAL_KEY, ids.length);
+                    ops.opsForHyperLogLog().add(uvKey, ids);
+                    ops.expireAt(pvKey, expireAt);
+                    ops.expireAt(uvKey, expireAt);
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Failed to record visit stats to Redis, keeping local counters only: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 回填历史UV：写入每日 sketch 并直接并入总 sketch，保留期之外的日期只计入总 sketch。
+     * HyperLogLog 写入是幂等的，回填失败后重跑不会重复计数；PV 由 {@link #completeSeeding} 一次性写入
+     *
+     * @throws DataAccessException Redis 写入失败，由调用方中止回填
+     */
+    public void recordHistorical(LocalDate day, Collection<String> visitorIds) {
+        if (visitorIds.isEmpty()) {
+            return;
+        }
+        recordLocal(day, visitorIds);
+        String uvKey = UV_DAY_PREFIX + day;
+        Instant expireAt = dailyExpireAt(day);
+        boolean keepDaily = expireAt.isAfter(Instant.now());
+        String[] ids = visitorIds.toArray(new String[0]);
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = stringOperations(operations);
+                ops.opsForHyperLogLog().add(UV_TOTAL_KEY, ids);
+                if (keepDaily) {
+                    ops.opsForHyperLogLog().add(uvKey, ids);
+                    ops.expireAt(uvKey, expireAt);
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 获取某日PV
+     */
+    public long getDailyPv(LocalDate day) {
+        try {
+            return parseLong(redisTemplate.opsForValue().get(PV_DAY_PREFIX + day));
+        } catch (Exception e) {
+            log.warn("Failed to read daily PV from Redis, using hourly rollups: {}", e.getMessage());
+            return countPvFromRollups(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        }
+    }
+
+    /**
+     * 获取某日UV（HyperLogLog 估算）
+     */
+    public long getDailyUv(LocalDate day) {
+        try {
+            Long size = redisTemplate.opsForHyperLogLog().size(UV_DAY_PREFIX + day);
+            return size != null ? size : 0L;
+        } catch (Exception e) {
+            log.warn("Failed to read daily UV from Redis, using local sketch: {}", e.getMessage());
+            HyperLogLog sketch = localDailyUv.get(day);
+            return sketch != null ? sketch.count() : 0L;
+        }
+    }
+
+    /**
+     * 获取历史总PV
+     */
+    public long getTotalPv() {
+        try {
+            return parseLong(redisTemplate.opsForValue().get(PV_TOTAL_KEY));
+        } catch (Exception e) {
+            log.warn("Failed to read total PV from Redis, using hourly rollups: {}", e.getMessage());
+            return countPvFromRollups(EPOCH, LocalDateTime.now().plusHours(1));
+        }
+    }
+
+    /**
+     * 获取历史总UV
+     * 总 sketch 只合并到昨天之前，读取时与今天、昨天的 sketch 一起做并集估算
+     */
+    public long getTotalUv() {
+        LocalDate today = LocalDate.now();
+        try {
+            Long size = redisTemplate.opsForHyperLogLog().size(
+                    UV_TOTAL_KEY, UV_DAY_PREFIX + today, UV_DAY_PREFIX + today.minusDays(1));
+            return size != null ? size : 0L;
+        } catch (Exception e) {
+            log.warn("Failed to read total UV from Redis, using local sketch: {}", e.getMessage());
+            return localTotalUv.count();
+        }
+    }
+
+    /**
+     * 抢占一次性历史回填的执行权：已完成回填或其他实例正在回填时返回 false。
+     * 执行锁带过期时间，持有锁的实例异常退出后由下次启动重试
+     *
+     * @return 是否由当前实例执行回填
+     */
+    public boolean tryStartSeeding() {
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(SEEDED_KEY))) {
+                return false;
+            }
+            return Boolean.TRUE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(SEEDING_KEY, LocalDateTime.now().toString(), SEEDING_LOCK_TTL));
+        } catch (Exception e) {
+            log.warn("Failed to check visit stats seed marker: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 确定历史回填的截止时间。截止时间只在首次登记时写入，所有实例和每次重试共用同一个值，
+     * 回填只覆盖最早开始实时计数的实例启动之前的日志，之后的日志不会被重复计入
+     *
+     * @param candidate 当前实例开始实时计数的时间
+     * @return 已登记的截止时间，尚未登记时登记并返回 candidate
+     */
+    public LocalDateTime resolveSeedCutoff(LocalDateTime candidate) {
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(SEEDED_KEY))) {
+            return candidate;
+        }
+        redisTemplate.opsForValue().setIfAbsent(SEED_CUTOFF_KEY, candidate.toString());
+        String stored = redisTemplate.opsForValue().get(SEED_CUTOFF_KEY);
+        return stored != null ? LocalDateTime.parse(stored) : candidate;
+    }
+
+    /**
+     * 回填成功：在同一事务中累加历史PV并写入完成标记，释放执行锁
+     *
+     * @param dailyPv 每日回填的PV
+     */
+    public void completeSeeding(Map<LocalDate, Long> dailyPv) {
+        long totalPv = dailyPv.values().stream().mapToLong(Long::longValue).sum();
+        Instant now = Instant.now();
+        redisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = stringOperations(operations);
+                ops.multi();
+                dailyPv.forEach((day, pv) -> {
+                    Instant expireAt = dailyExpireAt(day);
+                    if (expireAt.isAfter(now)) {
+                        String pvKey = PV_DAY_PREFIX + day;
+                        ops.opsForValue().increment(pvKey, pv);
+                        ops.expireAt(pvKey, expireAt);
+                    }
+                });
+                ops.opsForValue().increment(PV_TOTAL_KEY, totalPv);
+                ops.opsForValue().set(SEEDED_KEY, LocalDate.now().toString());
+                ops.delete(SEEDING_KEY);
+                ops.delete(SEED_CUTOFF_KEY);
+                return ops.exec();
+            }
+        });
+    }
+
+    /**
+     * 回填失败：释放执行锁，下次启动时重试
+     */
+    public void abortSeeding() {
+        try {
+            redisTemplate.delete(SEEDING_KEY);
+        } catch (Exception e) {
+            log.warn("Failed to release visit stats seed lock, it expires in {}: {}", SEEDING_LOCK_TTL, e.getMessage());
+        }
+    }
+
+    /**
+     * 将保留期内的每日 UV sketch 合并到总 sketch，并清理过期的本地数据
+     * HyperLogLog 合并是幂等的，错过的执行会在下次补上
+     */
+    @Scheduled(cron = "${access-log.stats.merge-cron:0 10 0 * * ?}")
+    public void mergeDailySketches() {
+        LocalDate today = LocalDate.now();
+        List<String> sourceKeys = new ArrayList<>();
+        sourceKeys.add(UV_TOTAL_KEY);
+        for (int i = 1; i <= dailyRetentionDays; i++) {
+            sourceKeys.add(UV_DAY_PREFIX + today.minusDays(i));
+        }
+        try {
+            redisTemplate.opsForHyperLogLog().union(UV_TOTAL_KEY, sourceKeys.toArray(new String[0]));
+            log.info("Merged daily UV sketches into total");
+        } catch (Exception e) {
+            log.warn("Failed to merge daily UV sketches: {}", e.getMessage());
+        }
+
+        LocalDate expiry = today.minusDays(dailyRetentionDays);
+        localDailyUv.keySet().removeIf(day -> day.isBefore(expiry));
+    }
+
+    /**
+     * 汇总表覆盖 [from, to) 中已汇总的小时，尚未汇总的部分从原始日志最新分区补齐
+     */
+    private long countPvFromRollups(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime latest = accessLogMapper.selectLatestRollupHour();
+        LocalDateTime rolledUntil = latest != null ? latest.plusHours(1) : from;
+        if (!rolledUntil.isBefore(to)) {
+            return accessLogMapper.sumRolledUpPv(from, to);
+        }
+        long pv = rolledUntil.isAfter(from) ? accessLogMapper.sumRolledUpPv(from, rolledUntil) : 0L;
+        return pv + accessLogMapper.countBetween(rolledUntil.isAfter(from) ? rolledUntil : from, to);
+    }
+
+    private void recordLocal(LocalDate day, Collection<String> visitorIds) {
+        visitorIds.forEach(localTotalUv::add);
+        // 保留期之外的回填数据只计入总量，避免为历史日期常驻内存 sketch
+        if (day.isBefore(LocalDate.now().minusDays(dailyRetentionDays))) {
+            return;
+        }
+        HyperLogLog daily = localDailyUv.computeIfAbsent(day, d -> new HyperLogLog());
+        visitorIds.forEach(daily::add);
+    }
+
+    /**
+     * 每日数据从其日期起保留 dailyRetentionDays 天，回填的历史日期不会因写入时间而延长保留
+     */
+    private Instant dailyExpireAt(LocalDate day) {
+        return day.plusDays(dailyRetentionDays + 1L).atStartOfDay(ZoneId.systemDefault()).toInstant();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RedisOperations<String, String> stringOperations(RedisOperations<?, ?> operations) {
+        return (RedisOperations<String, String>) operations;
+    }
+
+    private static long parseLong(String value) {
+        return value != null ? Long.parseLong(value) : 0L;
+    }
+}
@@ -0,0 +1,361 @@
+package com.idropin.infrastructure.classification;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 文件类型规则表
+ * 根据文件头魔数、扩展名和 MIME 类型判定文件所属的默认分类名称。
+ * 规则在构造时预编译：魔数签名按首字节分桶，桶内按特征字节数降序，扩展名和 MIME 使用哈希表，
+ * 匹配时不再遍历全部规则；规则表构造后不可变，可在多线程间共享。
+ * <p>
+ * 判定顺序：可靠的魔数签名优先；ZIP、OLE 等容器格式和过短的签名无法单独确定类型，
+ * 先参考扩展名和 MIME 类型，都没有结果时再使用签名；最后归入"其他"
+ *
+ * @author Idrop.in Team
+ */
+@Component
+public class FileTypeRules {
+
+    public static final String IMAGE = "图片";
+    public static final String DOCUMENT = "文档";
+    public static final String VIDEO = "视频";
+    public static final String AUDIO = "音频";
+    public static final String ARCHIVE = "压缩包";
+    public static final String OTHER = "其他";
+
+    /**
+     * 判定依据
+     */
+    public enum Source {
+        /** 文件头魔数 */
+        HEADER,
+        /** 扩展名 */
+        EXTENSION,
+        /** MIME 类型 */
+        MIME_TYPE,
+        /** 没有匹配的规则 */
+        DEFAULT
+    }
+
+    /**
+     * 判定结果
+     */
+    public record Match(String category, Source source) {
+    }
+
+    private static final Match DEFAULT_MATCH = new Match(OTHER, Source.DEFAULT);
+
+    /**
+     * 首段从偏移 0 开始的签名，按首字节分桶
+     */
+    private final Signature[][] signaturesByFirstByte = new Signature[256][];
+
+    /**
+     * 首段不在文件开头的签名（如 ftyp、ustar）
+     */
+    private final Signature[] offsetSignatures;
+
+    private final Map<String, String> categoriesByExtension = new HashMap<>();
+
+    private final Map<String, String> categoriesByMimeType = new HashMap<>();
+
+    /**
+     * MIME 前缀规则，{前缀, 分类名称}，按前缀长度降序
+     */
+    private final String[][] mimePrefixes;
+
+    /**
+     * 判定所需的文件头字节数，即所有签名的最大结束位置
+     */
+    private final int headerLength;
+
+    public FileTypeRules() {
+        List<Signature> signatures = defaultSignatures();
+        signatures.sort(Comparator.comparingInt(Signature::weight).reversed());
+
+        List<List<Signature>> buckets = new ArrayList<>(256);
+        for (int i = 0; i < 256; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        List<Signature> offsets = new ArrayList<>();
+        int end = 0;
+        for (Signature signature : signatures) {
+            Segment first = signature.segments()[0];
+            if (first.offset() == 0) {
+                buckets.get(first.bytes()[0] & 0xFF).add(signature);
+            } else {
+                offsets.add(signature);
+            }
+            end = Math.max(end, signature.end());
+        }
+        for (int i = 0; i < 256; i++) {
+            List<Signature> bucket = buckets.get(i);
+            signaturesByFirstByte[i] = bucket.isEmpty() ? null : bucket.toArray(new Signature[0]);
+        }
+        offsetSignatures = offsets.toArray(new Signature[0]);
+        headerLength = end;
+
+        registerExtensions(IMAGE, "jpg", "jpeg", "jpe", "png", "gif", "bmp", "webp", "tif", "tiff", "svg", "ico",
+                "heic", "heif", "avif", "psd", "raw");
+        registerExtensions(DOCUMENT, "pdf", "doc", "docx", "xls", "xlsx", "ppt", "pptx", "odt", "ods", "odp",
+                "rtf", "txt", "md", "csv", "json", "xml", "html", "htm", "epub", "wps", "et", "dps",
+                "pages", "numbers", "key");
+        registerExtensions(VIDEO, "mp4", "m4v", "mov", "avi", "mkv", "webm", "flv", "wmv", "mpg", "mpeg",
+                "3gp", "ogv");
+        registerExtensions(AUDIO, "mp3", "wav", "flac", "aac", "m4a", "ogg", "oga", "opus", "wma", "amr",
+                "aiff", "aif", "mid", "midi", "weba", "mka");
+        registerExtensions(ARCHIVE, "zip", "rar", "7z", "tar", "gz", "tgz", "bz2", "xz", "zst", "jar", "apk", "iso");
+
+        registerMimeTypes(DOCUMENT, "application/pdf", "application/msword", "application/vnd.ms-excel",
+                "application/vnd.ms-powerpoint", "application/rtf", "application/json", "application/xml",
+                "application/epub+zip", "application/kswps", "application/wps-office.wps");
+        registerMimeTypes(AUDIO, "application/ogg");
+        registerMimeTypes(ARCHIVE, "application/zip", "application/x-zip-compressed", "application/x-rar-compressed",
+                "application/vnd.rar", "application/x-7z-compressed", "application/x-tar", "application/gzip",
+                "application/x-gzip", "application/x-bzip2", "application/x-xz", "application/zstd",
+                "application/x-compressed", "application/x-archive", "application/java-archive");
+
+        mimePrefixes = new String[][]{
+                {"application/vnd.openxmlformats-officedocument.", DOCUMENT},
+                {"application/vnd.oasis.opendocument.", DOCUMENT},
+                {"image/", IMAGE},
+                {"video/", VIDEO},
+                {"audio/", AUDIO},
+                {"text/", DOCUMENT}
+        };
+    }
+
+    /**
+     * 判定所需的文件头字节数，读取更多内容不会改变结果
+     */
+    public int getHeaderLength() {
+        return headerLength;
+    }
+
+    /**
+     * 判定文件分类
+     *
+     * @param header   文件头内容，未读取时为 null
+     * @param length   header 中的有效字节数
+     * @param mimeType 上传时声明的 MIME 类型
+     * @param fileName 原始文件名
+     * @return 分类名称和判定依据，不会为 null
+     */
+    public Match classify(byte[] header, int length, String mimeType, String fileName) {
+        Signature signature = header != null ? matchSignature(header, length) : null;
+        if (signature != null && !signature.defersToExtension()) {
+            return signature.match();
+        }
+        String category = matchExtension(fileName);
+        if (category != null) {
+            return new Match(category, Source.EXTENSION);
+        }
+        category = matchMimeType(mimeType);
+        if (category != null) {
+            return new Match(category, Source.MIME_TYPE);
+        }
+        return signature != null ? signature.match() : DEFAULT_MATCH;
+    }
+
+    /**
+     * 仅根据文件头判定分类，没有匹配的签名时返回 null
+     */
+    public String matchHeader(byte[] header, int length) {
+        Signature signature = matchSignature(header, length);
+        return signature != null ? signature.category() : null;
+    }
+
+    /**
+     * 仅根据扩展名判定分类，没有匹配的规则时返回 null
+     */
+    public String matchExtension(String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0 || dot == fileName.length() - 1) {
+            return null;
+        }
+        return categoriesByExtension.get(fileName.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 仅根据 MIME 类型判定分类（忽略参数部分），没有匹配的规则时返回 null
+     */
+    public String matchMimeType(String mimeType) {
+        if (mimeType == null || mimeType.isEmpty()) {
+            return null;
+        }
+        int semicolon = mimeType.indexOf(';');
+        String normalized = (semicolon >= 0 ? mimeType.substring(0, semicolon) : mimeType)
+                .trim().toLowerCase(Locale.ROOT);
+        String category = categoriesByMimeType.get(normalized);
+        if (category != null) {
+            return category;
+        }
+        for (String[] prefix : mimePrefixes) {
+            if (normalized.startsWith(prefix[0])) {
+                return prefix[1];
+            }
+        }
+        return null;
+    }
+
+    private Signature matchSignature(byte[] header, int length) {
+        int available = Math.min(length, header.length);
+        if (available <= 0) {
+            return null;
+        }
+        Signature[] bucket = signaturesByFirstByte[header[0] & 0xFF];
+        if (bucket != null) {
+            for (Signature signature : bucket) {
+                if (signature.matches(header, available)) {
+                    return signature;
+                }
+            }
+        }
+        for (Signature signature : offsetSignatures) {
+            if (signature.matches(header, available)) {
+                return signature;
+            }
+        }
+        return null;
+    }
+
+    private void registerExtensions(String category, String... extensions) {
+        for (String extension : extensions) {
+            categoriesByExtension.put(extension, category);
+        }
+    }
+
+    private void registerMimeTypes(String category, String... mimeTypes) {
+        for (String mimeType : mimeTypes) {
+            categoriesByMimeType.put(mimeType, category);
+        }
+    }
+
+    private static List<Signature> defaultSignatures() {
+        List<Signature> signatures = new ArrayList<>();
+        // 图片
+        signatures.add(Signature.of(IMAGE, false, at(0, 0xFF, 0xD8, 0xFF)));
+        signatures.add(Signature.of(IMAGE, false, at(0, 0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A)));
+        signatures.add(Signature.of(IMAGE, false, at(0, "GIF87a")));
+        signatures.add(Signature.of(IMAGE, false, at(0, "GIF89a")));
+        signatures.add(Signature.of(IMAGE, false, at(0, "RIFF"), at(8, "WEBP")));
+        signatures.add(Signature.of(IMAGE, false, at(0, 0x49, 0x49, 0x2A, 0x00)));
+        signatures.add(Signature.of(IMAGE, false, at(0, 0x4D, 0x4D, 0x00, 0x2A)));
+        signatures.add(Signature.of(IMAGE, false, at(0, "8BPS")));
+        signatures.add(Signature.of(IMAGE, false, at(4, "ftyp"), at(8, "heic")));
+        signatures.add(Signature.of(IMAGE, false, at(4, "ftyp"), at(8, "heix")));
+        signatures.add(Signature.of(IMAGE, false, at(4, "ftyp"), at(8, "mif1")));
+        signatures.add(Signature.of(IMAGE, false, at(4, "ftyp"), at(8, "avif")));
+        signatures.add(Signature.of(IMAGE, true, at(0, "BM")));
+        signatures.add(Signature.of(IMAGE, true, at(0, 0x00, 0x00, 0x01, 0x00)));
+        // 文档（OLE 复合文档也可能是 msi 等其他格式）
+        signatures.add(Signature.of(DOCUMENT, false, at(0, "%PDF-")));
+        signatures.add(Signature.of(DOCUMENT, false, at(0, "{\\rtf")));
+        signatures.add(Signature.of(DOCUMENT, true, at(0, 0xD0, 0xCF, 0x11, 0xE0, 0xA1, 0xB1, 0x1A, 0xE1)));
+        // 音频
+        signatures.add(Signature.of(AUDIO, false, at(0, "ID3")));
+        signatures.add(Signature.of(AUDIO, false, at(0, "fLaC")));
+        signatures.add(Signature.of(AUDIO, false, at(0, "#!AMR")));
+        signatures.add(Signature.of(AUDIO, false, at(0, "RIFF"), at(8, "WAVE")));
+        signatures.add(Signature.of(AUDIO, false, at(0, "FORM"), at(8, "AIFF")));
+        signatures.add(Signature.of(AUDIO, false, at(4, "ftyp"), at(8, "M4A ")));
+        signatures.add(Signature.of(AUDIO, true, at(0, "OggS")));
+        signatures.add(Signature.of(AUDIO, true, at(0, 0xFF, 0xFB)));
+        signatures.add(Signature.of(AUDIO, true, at(0, 0xFF, 0xF3)));
+        signatures.add(Signature.of(AUDIO, true, at(0, 0xFF, 0xF2)));
+        // 视频（ftyp 未命中上面的品牌时按视频处理）
+        signatures.add(Signature.of(VIDEO, false, at(4, "ftyp")));
+        signatures.add(Signature.of(VIDEO, false, at(0, "RIFF"), at(8, "AVI ")));
+        signatures.add(Signature.of(VIDEO, false, at(0, "FLV", 0x01)));
+        signatures.add(Signature.of(VIDEO, false, at(0, 0x00, 0x00, 0x01, 0xBA)));
+        signatures.add(Signature.of(VIDEO, false, at(0, 0x00, 0x00, 0x01, 0xB3)));
+        signatures.add(Signature.of(VIDEO, true, at(0, 0x1A, 0x45, 0xDF, 0xA3)));
+        signatures.add(Signature.of(VIDEO, true, at(0, 0x30, 0x26, 0xB2, 0x75, 0x8E, 0x66, 0xCF, 0x11)));
+        // 压缩包（ZIP 也是 docx、xlsx、epub 等格式的容器）
+        signatures.add(Signature.of(ARCHIVE, true, at(0, 0x50, 0x4B, 0x03, 0x04)));
+        signatures.add(Signature.of(ARCHIVE, true, at(0, 0x50, 0x4B, 0x05, 0x06)));
+        signatures.add(Signature.of(ARCHIVE, false, at(0, "Rar!", 0x1A, 0x07)));
+        signatures.add(Signature.of(ARCHIVE, false, at(0, 0x37, 0x7A, 0xBC, 0xAF, 0x27, 0x1C)));
+        signatures.add(Signature.of(ARCHIVE, false, at(0, 0x1F, 0x8B)));
+        signatures.add(Signature.of(ARCHIVE, false, at(0, "BZh")));
+        signatures.add(Signature.of(ARCHIVE, false, at(0, 0xFD, '7', 'z', 'X', 'Z', 0x00)));
+        signatures.add(Signature.of(ARCHIVE, false, at(0, 0x28, 0xB5, 0x2F, 0xFD)));
+        signatures.add(Signature.of(ARCHIVE, false, at(257, "ustar")));
+        return signatures;
+    }
+
+    private static Segment at(int offset, int... bytes) {
+        byte[] pattern = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            pattern[i] = (byte) bytes[i];
+        }
+        return new Segment(offset, pattern);
+    }
+
+    private static Segment at(int offset, String ascii) {
+        return new Segment(offset, ascii.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Segment at(int offset, String ascii, int... trailing) {
+        byte[] head = ascii.getBytes(StandardCharsets.US_ASCII);
+        byte[] pattern = Arrays.copyOf(head, head.length + trailing.length);
+        for (int i = 0; i < trailing.length; i++) {
+            pattern[head.length + i] = (byte) trailing[i];
+        }
+        return new Segment(offset, pattern);
+    }
+
+    /**
+     * 签名中一段固定偏移的字节
+     */
+    private record Segment(int offset, byte[] bytes) {
+    }
+
+    /**
+     * 魔数签名，所有片段都匹配才算命中；weight 为特征字节总数，越大越具体
+     */
+    private record Signature(Match match, boolean defersToExtension, Segment[] segments, int end, int weight) {
+
+        private static Signature of(String category, boolean defersToExtension, Segment... segments) {
+            int end = 0;
+            int weight = 0;
+            for (Segment segment : segments) {
+                end = Math.max(end, segment.offset() + segment.bytes().length);
+                weight += segment.bytes().length;
+            }
+            return new Signature(new Match(category, Source.HEADER), defersToExtension, segments, end, weight);
+        }
+
+        private String category() {
+            return match.category();
+        }
+
+        private boolean matches(byte[] header, int length) {
+            if (end > length) {
+                return false;
+            }
+            for (Segment segment : segments) {
+                byte[] bytes = segment.bytes();
+                int offset = segment.offset();
+                for (int i = 0; i < bytes.length; i++) {
+                    if (header[offset + i] != bytes[i]) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.idropin.infrastructure.config;
+
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedJdbcTypes;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.regex.Pattern;
+
+/**
+ * ID 参数绑定处理器 - 在 SQL 中以 #{id,jdbcType=OTHER} 引用
+ * 以未指定类型绑定参数，由 PostgreSQL 按列类型推断（uuid 列按 uuid、varchar 列按文本），
+ * 不必在列上做 ::text 转换，比较可以走主键和外键索引；
+ * 无连字符的32位UUID会先规范为标准格式。
+ * 表之间的关联条件同样直接比较：同一建表脚本中 ID 列与引用它的列类型一致；
+ * 只有 task_submission.task_key（V11 建为 uuid）与 collection_task.id（init-database.sql 中为 varchar）
+ * 可能类型不同，这一处关联保留 ::text 转换
+ *
+ * @author Idrop.in Team
+ */
+@MappedJdbcTypes(JdbcType.OTHER)
+public class IdTypeHandler extends UuidTypeHandler {
+
+    private static final Pattern COMPACT_UUID = Pattern.compile("^[0-9a-fA-F]{32}$");
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, String parameter, JdbcType jdbcType) throws SQLException {
+        ps.setObject(i, canonicalize(parameter), Types.OTHER);
+    }
+
+    /**
+     * 将无连字符的UUID转换为 8-4-4-4-12 格式，其他值（如任务短码）原样返回
+     */
+    public static String canonicalize(String id) {
+        if (id == null || !COMPACT_UUID.matcher(id).matches()) {
+            return id;
+        }
+        String lower = id.toLowerCase();
+        return lower.substring(0, 8) + "-" + lower.substring(8, 12) + "-" + lower.substring(12, 16)
+                + "-" + lower.substring(16, 20) + "-" + lower.substring(20);
+    }
+}
@@ -0,0 +1,78 @@
+package com.idropin.infrastructure.export;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CSV 行写出器
+ * UTF-8 编码并写入BOM以便 Excel 正确识别，可选 gzip 压缩
+ *
+ * @author Idrop.in Team
+ */
+public class CsvRowWriter implements RowWriter {
+
+    private final GZIPOutputStream gzip;
+    private final Writer writer;
+
+    public CsvRowWriter(OutputStream out, boolean compress) throws IOException {
+        OutputStream target = new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                // 由调用方负责关闭输出流
+                flush();
+            }
+        };
+        this.gzip = compress ? new GZIPOutputStream(target, 8192) : null;
+        this.writer = new BufferedWriter(
+                new OutputStreamWriter(gzip != null ? gzip : target, StandardCharsets.UTF_8), 8192);
+        // 写入BOM以支持Excel正确识别UTF-8
+        writer.write('\uFEFF');
+    }
+
+    @Override
+    public void writeRow(List<String> cells) throws IOException {
+        for (int i = 0; i < cells.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCell(cells.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+        if (gzip != null) {
+            gzip.finish();
+        }
+        writer.close();
+    }
+
+    private void writeCell(String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,25 @@
+package com.idropin.infrastructure.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 表格行写出器
+ * 逐行写出到输出流，不在内存中保留已写出的行
+ *
+ * @author Idrop.in Team
+ */
+public interface RowWriter extends Closeable {
+
+    /**
+     * 写出一行
+     */
+    void writeRow(List<String> cells) throws IOException;
+
+    /**
+     * 写完结尾并刷新底层流（不关闭调用方传入的输出流）
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,168 @@
+package com.idropin.infrastructure.export;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * XLSX 行写出器
+ * 直接按 SpreadsheetML 格式生成单工作表的 xlsx：固定部件先写入压缩包，
+ * 工作表数据以内联字符串逐行写出，不建立共享字符串表，内存占用与行数无关
+ *
+ * @author Idrop.in Team
+ */
+public class XlsxRowWriter implements RowWriter {
+
+    /**
+     * Excel 单元格最多容纳的字符数
+     */
+    private static final int MAX_CELL_LENGTH = 32767;
+
+    /**
+     * Excel 单个工作表的最大行数
+     */
+    private static final int MAX_ROWS = 1_048_576;
+
+    private static final String CONTENT_TYPES = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">
+            <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>
+            <Default Extension="xml" ContentType="application/xml"/>
+            <Override PartName="/xl/workbook.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>
+            <Override PartName="/xl/worksheets/sheet1.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml"/>
+            </Types>""";
+
+    private static final String ROOT_RELS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="xl/workbook.xml"/>
+            </Relationships>""";
+
+    private static final String WORKBOOK_RELS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet" Target="worksheets/sheet1.xml"/>
+            </Relationships>""";
+
+    private static final String WORKBOOK = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" \
+            xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">
+            <sheets><sheet name="%s" sheetId="1" r:id="rId1"/></sheets>
+            </workbook>""";
+
+    private final ZipOutputStream zip;
+    private final Writer writer;
+    private int rows;
+
+    /**
+     * @param out       输出流（不会被关闭）
+     * @param sheetName 工作表名称
+     */
+    public XlsxRowWriter(OutputStream out, String sheetName) throws IOException {
+        this.zip = new ZipOutputStream(new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                // 由调用方负责关闭输出流
+                flush();
+            }
+        }, StandardCharsets.UTF_8);
+        this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 8192);
+
+        writeEntry("[Content_Types].xml", CONTENT_TYPES);
+        writeEntry("_rels/.rels", ROOT_RELS);
+        writeEntry("xl/workbook.xml", WORKBOOK.formatted(escape(sanitizeSheetName(sheetName))));
+        writeEntry("xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+    }
+
+    @Override
+    public void writeRow(List<String> cells) throws IOException {
+        if (rows >= MAX_ROWS) {
+            throw new IOException("XLSX worksheet row limit exceeded: " + MAX_ROWS);
+        }
+        rows++;
+        writer.write("<row>");
+        for (String cell : cells) {
+            if (cell == null || cell.isEmpty()) {
+                writer.write("<c/>");
+                continue;
+            }
+            String value = cell.length() > MAX_CELL_LENGTH ? cell.substring(0, MAX_CELL_LENGTH) : cell;
+            writer.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+            writer.write(escape(value));
+            writer.write("</t></is></c>");
+        }
+        writer.write("</row>");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+        zip.finish();
+        writer.close();
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    /**
+     * 转义 XML 特殊字符，并去掉 XML 1.0 不允许出现的控制字符
+     */
+    private static String escape(String value) {
+        StringBuilder sb = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement = switch (c) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                default -> c < 0x20 && c != '\t' && c != '\n' && c != '\r' ? "" : null;
+            };
+            if (replacement != null && sb == null) {
+                sb = new StringBuilder(value.length() + 16).append(value, 0, i);
+            }
+            if (sb == null) {
+                continue;
+            }
+            if (replacement != null) {
+                sb.append(replacement);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb != null ? sb.toString() : value;
+    }
+
+    /**
+     * 工作表名称最长31个字符，且不能包含 : \ / ? * [ ]
+     */
+    private static String sanitizeSheetName(String name) {
+        String cleaned = name == null ? "" : name.replaceAll("[:\\\\/?*\\[\\]]", "_").trim();
+        if (cleaned.isEmpty()) {
+            return "Sheet1";
+        }
+        return cleaned.length() > 31 ? cleaned.substring(0, 31) : cleaned;
+    }
+}
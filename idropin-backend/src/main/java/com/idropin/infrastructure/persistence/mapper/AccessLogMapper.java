@@ -2,9 +2,18 @@ package com.idropin.infrastructure.persistence.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.idropin.domain.entity.AccessLog;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 访问日志Mapper
@@ -15,44 +24,52 @@ import org.apache.ibatis.annotations.Select;
 public interface AccessLogMapper extends BaseMapper<AccessLog> {
 
     /**
-     * 统计今日PV（页面访问量）
-     */
-    @Select("SELECT COUNT(*) FROM sys_access_log WHERE DATE(created_at) = CURRENT_DATE")
-    Long countTodayPV();
-
-    /**
-     * 统计今日UV（独立访客数）- 基于session_id
+     * 流式读取指定时间之前的访问记录（日期 + 访客标识），用于统计回填
      */
-    @Select("SELECT COUNT(DISTINCT session_id) FROM sys_access_log WHERE DATE(created_at) = CURRENT_DATE")
-    Long countTodayUV();
+    @Select("SELECT created_at::date AS day, COALESCE(session_id, id) AS visitor " +
+            "FROM sys_access_log WHERE created_at < #{before}")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 1000)
+    @ResultType(Map.class)
+    void streamVisitsBefore(@Param("before") LocalDateTime before, ResultHandler<Map<String, Object>> handler);
 
     /**
-     * 统计历史总PV
+     * 将 [from, to) 内的原始日志汇总到小时表，已存在的小时会被重新计算覆盖
      */
-    @Select("SELECT COUNT(*) FROM sys_access_log")
-    Long countTotalPV();
+    @Insert("INSERT INTO sys_access_log_hourly (bucket_hour, pv_count, uv_count, login_pv_count, updated_at) " +
+            "SELECT date_trunc('hour', created_at), COUNT(*), COUNT(DISTINCT session_id), COUNT(user_id), CURRENT_TIMESTAMP " +
+            "FROM sys_access_log WHERE created_at >= #{from} AND created_at < #{to} " +
+            "GROUP BY date_trunc('hour', created_at) " +
+            "ON CONFLICT (bucket_hour) DO UPDATE SET pv_count = EXCLUDED.pv_count, uv_count = EXCLUDED.uv_count, " +
+            "login_pv_count = EXCLUDED.login_pv_count, updated_at = EXCLUDED.updated_at")
+    int rollupHourly(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
     /**
-     * 统计历史总UV - 基于session_id
+     * 查询最近一个已汇总的小时
      */
-    @Select("SELECT COUNT(DISTINCT session_id) FROM sys_access_log")
-    Long countTotalUV();
+    @Select("SELECT MAX(bucket_hour) FROM sys_access_log_hourly")
+    LocalDateTime selectLatestRollupHour();
 
     /**
-     * 统计昨日PV
+     * 汇总表中 [from, to) 的PV之和
      */
-    @Select("SELECT COUNT(*) FROM sys_access_log WHERE DATE(created_at) = CURRENT_DATE - INTERVAL '1 day'")
-    Long countYesterdayPV();
+    @Select("SELECT COALESCE(SUM(pv_count), 0) FROM sys_access_log_hourly " +
+            "WHERE bucket_hour >= #{from} AND bucket_hour < #{to}")
+    long sumRolledUpPv(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
     /**
-     * 统计昨日UV
+     * 原始日志中 [from, to) 的条数，用于补齐尚未汇总的最近时段（只命中最新分区）
      */
-    @Select("SELECT COUNT(DISTINCT session_id) FROM sys_access_log WHERE DATE(created_at) = CURRENT_DATE - INTERVAL '1 day'")
-    Long countYesterdayUV();
+    @Select("SELECT COUNT(*) FROM sys_access_log WHERE created_at >= #{from} AND created_at < #{to}")
+    long countBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
     /**
-     * 检查会话是否在指定时间内访问过
+     * 批量插入访问日志（多行INSERT）
      */
-    @Select("SELECT COUNT(*) > 0 FROM sys_access_log WHERE session_id = #{sessionId} AND created_at >= #{since}")
-    boolean hasRecentAccess(@Param("sessionId") String sessionId, @Param("since") java.time.LocalDateTime since);
+    @Insert("<script>" +
+            "INSERT INTO sys_access_log (id, user_id, ip_address, user_agent, request_path, request_method, referer, session_id, created_at) VALUES " +
+            "<foreach collection='logs' item='item' separator=','>" +
+            "(#{item.id}, #{item.userId}, #{item.ipAddress}, #{item.userAgent}, #{item.requestPath}, #{item.requestMethod}, #{item.referer}, #{item.sessionId}, #{item.createdAt})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("logs") List<AccessLog> logs);
 }
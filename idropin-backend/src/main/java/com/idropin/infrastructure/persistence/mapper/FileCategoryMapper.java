@@ -2,10 +2,14 @@ package com.idropin.infrastructure.persistence.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.idropin.domain.entity.FileCategory;
+import com.idropin.domain.vo.FileStatisticsVO;
+import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -22,15 +26,64 @@ public interface FileCategoryMapper extends BaseMapper<FileCategory> {
     @Select("SELECT * FROM file_category WHERE user_id = #{userId} ORDER BY sort_order, created_at")
     List<FileCategory> findByUserId(@Param("userId") String userId);
 
+    /**
+     * 查询全部分类的ID、名称和所属用户，用于构建分类注册表
+     */
+    @Select("SELECT id, name, user_id FROM file_category ORDER BY sort_order, created_at")
+    List<FileCategory> selectNameIndex();
+
     /**
      * 根据父分类ID查询子分类
      */
     @Select("SELECT * FROM file_category WHERE parent_id = #{parentId} AND user_id = #{userId} ORDER BY sort_order")
     List<FileCategory> findByParentId(@Param("parentId") String parentId, @Param("userId") String userId);
 
+    /**
+     * 一次汇总用户所有分类下的有效文件数和存储大小（没有文件的分类不返回）
+     */
+    @Select("SELECT c.id AS category_id, c.name AS category_name, " +
+            "COUNT(*) AS file_count, COALESCE(SUM(f.file_size), 0) AS storage_size " +
+            "FROM file_category c INNER JOIN file f ON f.category_id = c.id " +
+            "WHERE c.user_id = #{userId,jdbcType=OTHER} AND f.status = 'ACTIVE' AND f.deleted = false " +
+            "GROUP BY c.id, c.name")
+    List<FileStatisticsVO.CategoryStatistics> selectFileStatsByUserId(@Param("userId") String userId);
+
     /**
      * 查询顶级分类（无父分类）
      */
     @Select("SELECT * FROM file_category WHERE parent_id IS NULL AND user_id = #{userId} ORDER BY sort_order")
     List<FileCategory> findRootCategories(@Param("userId") String userId);
+
+    /**
+     * 递归查询分类及其全部子孙分类的ID（只包含该用户的分类）
+     */
+    @Select("WITH RECURSIVE subtree AS (" +
+            "SELECT id FROM file_category WHERE id = #{categoryId,jdbcType=OTHER} AND user_id = #{userId,jdbcType=OTHER} " +
+            "UNION " +
+            "SELECT c.id FROM file_category c INNER JOIN subtree s ON c.parent_id = s.id " +
+            "WHERE c.user_id = #{userId,jdbcType=OTHER}" +
+            ") SELECT id FROM subtree")
+    List<String> selectSubtreeIds(@Param("categoryId") String categoryId, @Param("userId") String userId);
+
+    /**
+     * 将子分类整体移到新的父分类下
+     *
+     * @return 移动的子分类数
+     */
+    @Update("UPDATE file_category SET parent_id = #{toParentId,jdbcType=OTHER} " +
+            "WHERE parent_id = #{fromParentId,jdbcType=OTHER} AND user_id = #{userId,jdbcType=OTHER}")
+    int reparentChildren(@Param("fromParentId") String fromParentId,
+                         @Param("toParentId") String toParentId,
+                         @Param("userId") String userId);
+
+    /**
+     * 批量删除用户的分类
+     *
+     * @return 删除的分类数
+     */
+    @Delete("<script>" +
+            "DELETE FROM file_category WHERE user_id = #{userId,jdbcType=OTHER} AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id,jdbcType=OTHER}</foreach>" +
+            "</script>")
+    int deleteByIds(@Param("ids") Collection<String> ids, @Param("userId") String userId);
 }
@@ -1,9 +1,12 @@
 package com.idropin.infrastructure.persistence.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.idropin.common.util.KeysetCursor;
 import com.idropin.domain.entity.File;
+import com.idropin.domain.vo.FileStatisticsVO;
 import org.apache.ibatis.annotations.*;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -16,21 +19,22 @@ public interface FileMapper extends BaseMapper<File> {
 
     /**
      * 覆盖 BaseMapper#selectById：file.id 为 uuid，但领域层使用 String 承载。
-     * PostgreSQL 对 uuid = varchar 不做隐式转换，所以这里显式用 ::text 比较。
+     * PostgreSQL 对 uuid = varchar 不做隐式转换，ID 参数统一以 jdbcType=OTHER 绑定（见 IdTypeHandler），
+     * 由数据库按列类型推断，比较可以走主键索引。
      */
-    @Select("SELECT * FROM file WHERE id::text = #{id} AND (deleted IS NULL OR deleted = false)")
+    @Select("SELECT * FROM file WHERE id = #{id,jdbcType=OTHER} AND deleted = false")
     File selectById(@Param("id") String id);
 
     /**
      * 根据上传者ID查询文件列表
      */
-    @Select("SELECT * FROM file WHERE uploader_id::text = #{uploaderId} AND status = 'ACTIVE' AND (deleted IS NULL OR deleted = false) ORDER BY created_at DESC")
+    @Select("SELECT * FROM file WHERE uploader_id = #{uploaderId,jdbcType=OTHER} AND status = 'ACTIVE' AND deleted = false ORDER BY created_at DESC")
     List<File> findByUploaderId(@Param("uploaderId") String uploaderId);
 
     /**
      * 根据分类ID查询文件列表
      */
-    @Select("SELECT * FROM file WHERE category_id::text = #{categoryId} AND status = 'ACTIVE' AND (deleted IS NULL OR deleted = false) ORDER BY created_at DESC")
+    @Select("SELECT * FROM file WHERE category_id = #{categoryId,jdbcType=OTHER} AND status = 'ACTIVE' AND deleted = false ORDER BY created_at DESC")
     List<File> findByCategoryId(@Param("categoryId") String categoryId);
 
     /**
@@ -42,51 +46,45 @@ public interface FileMapper extends BaseMapper<File> {
     /**
      * 统计用户文件数量
      */
-    @Select("SELECT COUNT(*) FROM file WHERE uploader_id::text = #{uploaderId} AND status = 'ACTIVE' AND (deleted IS NULL OR deleted = false)")
+    @Select("SELECT COUNT(*) FROM file WHERE uploader_id = #{uploaderId,jdbcType=OTHER} AND status = 'ACTIVE' AND deleted = false")
     long countByUploaderId(@Param("uploaderId") String uploaderId);
 
     /**
      * 统计用户文件总大小
      */
-    @Select("SELECT COALESCE(SUM(file_size), 0) FROM file WHERE uploader_id::text = #{uploaderId} AND status = 'ACTIVE' AND (deleted IS NULL OR deleted = false)")
+    @Select("SELECT COALESCE(SUM(file_size), 0) FROM file WHERE uploader_id = #{uploaderId,jdbcType=OTHER} AND status = 'ACTIVE' AND deleted = false")
     long sumFileSizeByUploaderId(@Param("uploaderId") String uploaderId);
 
     /**
      * 统计分类下的文件数量
      */
-    @Select("SELECT COUNT(*) FROM file WHERE category_id::text = #{categoryId} AND status = 'ACTIVE' AND (deleted IS NULL OR deleted = false)")
+    @Select("SELECT COUNT(*) FROM file WHERE category_id = #{categoryId,jdbcType=OTHER} AND status = 'ACTIVE' AND deleted = false")
     long countByCategoryId(@Param("categoryId") String categoryId);
 
     /**
      * 根据用户ID和日期范围统计文件数量
      */
-    @Select("SELECT COUNT(*) FROM file WHERE uploader_id::text = #{uploaderId} AND status = 'ACTIVE' AND (deleted IS NULL OR deleted = false) AND created_at >= #{startDate} AND created_at < #{endDate}")
+    @Select("SELECT COUNT(*) FROM file WHERE uploader_id = #{uploaderId,jdbcType=OTHER} AND status = 'ACTIVE' AND deleted = false AND created_at >= #{startDate} AND created_at < #{endDate}")
     long countByUploaderIdAndDateRange(@Param("uploaderId") String uploaderId, @Param("startDate") java.time.LocalDateTime startDate, @Param("endDate") java.time.LocalDateTime endDate);
 
     /**
      * 根据用户ID查询文件类型分布
      */
-    @Select("SELECT mime_type FROM file WHERE uploader_id::text = #{uploaderId} AND status = 'ACTIVE' AND (deleted IS NULL OR deleted = false)")
+    @Select("SELECT mime_type FROM file WHERE uploader_id = #{uploaderId,jdbcType=OTHER} AND status = 'ACTIVE' AND deleted = false")
     List<String> findMimeTypesByUploaderId(@Param("uploaderId") String uploaderId);
 
     /**
      * 根据用户ID和日期范围查询文件大小
      */
-    @Select("SELECT file_size FROM file WHERE uploader_id::text = #{uploaderId} AND status = 'ACTIVE' AND (deleted IS NULL OR deleted = false) AND created_at >= #{startDate} AND created_at < #{endDate}")
+    @Select("SELECT file_size FROM file WHERE uploader_id = #{uploaderId,jdbcType=OTHER} AND status = 'ACTIVE' AND deleted = false AND created_at >= #{startDate} AND created_at < #{endDate}")
     List<Long> findFileSizesByUploaderIdAndDateRange(@Param("uploaderId") String uploaderId, @Param("startDate") java.time.LocalDateTime startDate, @Param("endDate") java.time.LocalDateTime endDate);
 
-    /**
-     * 根据用户ID查询分类统计
-     */
-    @Select("SELECT category_id, file_size FROM file WHERE uploader_id::text = #{uploaderId} AND status = 'ACTIVE' AND (deleted IS NULL OR deleted = false) AND category_id IS NOT NULL")
-    List<File> findCategoryStatsByUploaderId(@Param("uploaderId") String uploaderId);
-
     /**
      * 分页查询用户文件
      */
     @Select("<script>" +
-            "SELECT * FROM file WHERE uploader_id::text = #{uploaderId} AND status = 'ACTIVE' AND (deleted IS NULL OR deleted = false) " +
-            "<if test='categoryId != null'>AND category_id::text = #{categoryId}</if> " +
+            "SELECT * FROM file WHERE uploader_id = #{uploaderId,jdbcType=OTHER} AND status = 'ACTIVE' AND deleted = false " +
+            "<if test='categoryId != null'>AND category_id = #{categoryId,jdbcType=OTHER}</if> " +
             "<if test='keyword != null and keyword != \"\"'>AND (name LIKE CONCAT('%', #{keyword}, '%') OR original_name LIKE CONCAT('%', #{keyword}, '%'))</if> " +
             "ORDER BY created_at DESC " +
             "LIMIT #{size} OFFSET #{offset}" +
@@ -97,12 +95,37 @@ public interface FileMapper extends BaseMapper<File> {
                                                @Param("size") int size, 
                                                @Param("offset") int offset);
 
+    /**
+     * 按 (created_at, id) 键集分页查询用户文件，cursor 为空时从第一页开始。
+     * 沿用 PostgreSQL 默认的空值位置（倒序时 NULL 在前、正序时在后），与 idx_file_active_uploader_created 的顺序一致；
+     * 游标时间为空时先翻完 NULL 行再继续
+     */
+    @Select("<script>" +
+            "SELECT * FROM file WHERE uploader_id = #{uploaderId,jdbcType=OTHER} AND status = 'ACTIVE' AND deleted = false " +
+            "<if test='categoryId != null'>AND category_id = #{categoryId,jdbcType=OTHER}</if> " +
+            "<if test='keyword != null and keyword != \"\"'>AND (name LIKE CONCAT('%', #{keyword}, '%') OR original_name LIKE CONCAT('%', #{keyword}, '%'))</if> " +
+            "<if test='cursor != null'><choose>" +
+            "<when test='ascending and cursor.time != null'>AND ((created_at, id) &gt; (#{cursor.time}, #{cursor.id,jdbcType=OTHER}) OR created_at IS NULL) </when>" +
+            "<when test='ascending'>AND created_at IS NULL AND id &gt; #{cursor.id,jdbcType=OTHER} </when>" +
+            "<when test='cursor.time != null'>AND (created_at, id) &lt; (#{cursor.time}, #{cursor.id,jdbcType=OTHER}) </when>" +
+            "<otherwise>AND ((created_at IS NULL AND id &lt; #{cursor.id,jdbcType=OTHER}) OR created_at IS NOT NULL) </otherwise>" +
+            "</choose></if>" +
+            "<choose><when test='ascending'>ORDER BY created_at, id </when><otherwise>ORDER BY created_at DESC, id DESC </otherwise></choose>" +
+            "LIMIT #{limit}" +
+            "</script>")
+    List<File> findByUploaderIdKeyset(@Param("uploaderId") String uploaderId,
+                                      @Param("categoryId") String categoryId,
+                                      @Param("keyword") String keyword,
+                                      @Param("ascending") boolean ascending,
+                                      @Param("cursor") KeysetCursor cursor,
+                                      @Param("limit") int limit);
+
     /**
      * 统计用户文件数量（带条件）
      */
     @Select("<script>" +
-            "SELECT COUNT(*) FROM file WHERE uploader_id::text = #{uploaderId} AND status = 'ACTIVE' AND (deleted IS NULL OR deleted = false) " +
-            "<if test='categoryId != null'>AND category_id::text = #{categoryId}</if> " +
+            "SELECT COUNT(*) FROM file WHERE uploader_id = #{uploaderId,jdbcType=OTHER} AND status = 'ACTIVE' AND deleted = false " +
+            "<if test='categoryId != null'>AND category_id = #{categoryId,jdbcType=OTHER}</if> " +
             "<if test='keyword != null and keyword != \"\"'>AND (name LIKE CONCAT('%', #{keyword}, '%') OR original_name LIKE CONCAT('%', #{keyword}, '%'))</if>" +
             "</script>")
     long countByUploaderIdWithCondition(@Param("uploaderId") String uploaderId, 
@@ -110,77 +133,102 @@ public interface FileMapper extends BaseMapper<File> {
                                         @Param("keyword") String keyword);
 
     /**
-     * 插入文件记录
+     * 插入文件记录并返回数据库中的ID
      */
-    @Insert("INSERT INTO file (id, name, original_name, file_size, mime_type, storage_path, storage_provider, uploader_id, status, created_at, updated_at) " +
-            "VALUES (#{id}::uuid, #{name}, #{originalName}, #{fileSize}, #{mimeType}, #{storagePath}, #{storageProvider}, #{uploaderId}::uuid, #{status}, #{createdAt}, #{updatedAt})")
-    int insertFile(File file);
+    @Select("INSERT INTO file (id, name, original_name, file_size, mime_type, storage_path, storage_provider, " +
+            "uploader_id, category_id, status, created_at, updated_at) " +
+            "VALUES (#{id,jdbcType=OTHER}, #{name}, #{originalName}, #{fileSize}, #{mimeType}, #{storagePath}, #{storageProvider}, " +
+            "#{uploaderId,jdbcType=OTHER}, #{categoryId,jdbcType=OTHER}, #{status}, #{createdAt}, #{updatedAt}) " +
+            "RETURNING id")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE, useCache = false)
+    String insertReturningId(File file);
 
     /**
-     * 根据存储路径查询最新插入的文件
+     * 查询已有文件记录的存储路径，用于判断对象是否为孤儿
      */
-    @Select("SELECT * FROM file WHERE storage_path = #{storagePath} ORDER BY created_at DESC LIMIT 1")
-    File findLatestByStoragePath(@Param("storagePath") String storagePath);
+    @Select("<script>" +
+            "SELECT storage_path FROM file WHERE storage_path IN " +
+            "<foreach collection='paths' item='path' open='(' separator=',' close=')'>#{path}</foreach>" +
+            "</script>")
+    List<String> selectExistingStoragePaths(@Param("paths") Collection<String> paths);
 
     /**
      * 查询用户任务提交文件的mimeType
      */
     @Select("SELECT f.mime_type FROM file f " +
-            "INNER JOIN file_submission fs ON f.id::text = fs.file_id::text " +
-            "INNER JOIN collection_task ct ON fs.task_id::text = ct.id::text " +
-            "WHERE ct.created_by = #{userId} AND f.status = 'ACTIVE' " +
-            "AND (f.deleted IS NULL OR f.deleted = false)")
+            "INNER JOIN file_submission fs ON f.id = fs.file_id " +
+            "INNER JOIN collection_task ct ON fs.task_id = ct.id " +
+            "WHERE ct.created_by = #{userId,jdbcType=OTHER} AND f.status = 'ACTIVE' " +
+            "AND f.deleted = false")
     List<String> findMimeTypesByTaskOwner(@Param("userId") String userId);
 
     /**
      * 统计用户任务提交的文件数量
      */
     @Select("SELECT COUNT(*) FROM file f " +
-            "INNER JOIN file_submission fs ON f.id::text = fs.file_id::text " +
-            "INNER JOIN collection_task ct ON fs.task_id::text = ct.id::text " +
-            "WHERE ct.created_by = #{userId} AND f.status = 'ACTIVE' " +
-            "AND (f.deleted IS NULL OR f.deleted = false)")
+            "INNER JOIN file_submission fs ON f.id = fs.file_id " +
+            "INNER JOIN collection_task ct ON fs.task_id = ct.id " +
+            "WHERE ct.created_by = #{userId,jdbcType=OTHER} AND f.status = 'ACTIVE' " +
+            "AND f.deleted = false")
     long countByTaskOwner(@Param("userId") String userId);
 
     /**
      * 统计用户任务提交的文件总大小
      */
     @Select("SELECT COALESCE(SUM(f.file_size), 0) FROM file f " +
-            "INNER JOIN file_submission fs ON f.id::text = fs.file_id::text " +
-            "INNER JOIN collection_task ct ON fs.task_id::text = ct.id::text " +
-            "WHERE ct.created_by = #{userId} AND f.status = 'ACTIVE' " +
-            "AND (f.deleted IS NULL OR f.deleted = false)")
+            "INNER JOIN file_submission fs ON f.id = fs.file_id " +
+            "INNER JOIN collection_task ct ON fs.task_id = ct.id " +
+            "WHERE ct.created_by = #{userId,jdbcType=OTHER} AND f.status = 'ACTIVE' " +
+            "AND f.deleted = false")
     long sumFileSizeByTaskOwner(@Param("userId") String userId);
 
     /**
-     * 查询用户任务提交文件（用于分类统计）
+     * 按分类汇总用户的文件数和存储大小：自己上传的文件与自己任务收到的文件合并计算，
+     * 单条 GROUP BY 并关联分类表取名称，按文件数降序
+     */
+    @Select("SELECT c.id AS category_id, c.name AS category_name, " +
+            "COUNT(*) AS file_count, COALESCE(SUM(s.file_size), 0) AS storage_size FROM (" +
+            "SELECT f.category_id, f.file_size FROM file f " +
+            "WHERE f.uploader_id = #{userId,jdbcType=OTHER} AND f.status = 'ACTIVE' AND f.deleted = false " +
+            "AND f.category_id IS NOT NULL " +
+            "UNION ALL " +
+            "SELECT f.category_id, f.file_size FROM file f " +
+            "INNER JOIN file_submission fs ON f.id = fs.file_id " +
+            "INNER JOIN collection_task ct ON fs.task_id = ct.id " +
+            "WHERE ct.created_by = #{userId,jdbcType=OTHER} AND f.status = 'ACTIVE' AND f.deleted = false " +
+            "AND f.category_id IS NOT NULL" +
+            ") s INNER JOIN file_category c ON c.id = s.category_id " +
+            "GROUP BY c.id, c.name ORDER BY file_count DESC")
+    List<FileStatisticsVO.CategoryStatistics> selectCategoryStatsByUser(@Param("userId") String userId);
+
+    /**
+     * 按分类汇总全站文件数和存储大小，按文件数降序
      */
-    @Select("SELECT f.category_id, f.file_size FROM file f " +
-            "INNER JOIN file_submission fs ON f.id::text = fs.file_id::text " +
-            "INNER JOIN collection_task ct ON fs.task_id::text = ct.id::text " +
-            "WHERE ct.created_by = #{userId} AND f.status = 'ACTIVE' " +
-            "AND (f.deleted IS NULL OR f.deleted = false) " +
-            "AND f.category_id IS NOT NULL")
-    List<File> findCategoryStatsByTaskOwner(@Param("userId") String userId);
+    @Select("SELECT c.id AS category_id, c.name AS category_name, " +
+            "COUNT(*) AS file_count, COALESCE(SUM(f.file_size), 0) AS storage_size " +
+            "FROM file f INNER JOIN file_category c ON c.id = f.category_id " +
+            "WHERE f.status = 'ACTIVE' AND f.deleted = false " +
+            "GROUP BY c.id, c.name ORDER BY file_count DESC")
+    List<FileStatisticsVO.CategoryStatistics> selectSystemCategoryStats();
 
     /**
      * 按日期范围���计用户任务提交的文件
      */
     @Select("SELECT f.file_size FROM file f " +
-            "INNER JOIN file_submission fs ON f.id::text = fs.file_id::text " +
-            "INNER JOIN collection_task ct ON fs.task_id::text = ct.id::text " +
-            "WHERE ct.created_by = #{userId} AND f.status = 'ACTIVE' " +
-            "AND (f.deleted IS NULL OR f.deleted = false) " +
+            "INNER JOIN file_submission fs ON f.id = fs.file_id " +
+            "INNER JOIN collection_task ct ON fs.task_id = ct.id " +
+            "WHERE ct.created_by = #{userId,jdbcType=OTHER} AND f.status = 'ACTIVE' " +
+            "AND f.deleted = false " +
             "AND f.created_at >= #{startDate} AND f.created_at < #{endDate}")
     List<Long> findFileSizesByTaskOwnerAndDateRange(@Param("userId") String userId, 
             @Param("startDate") java.time.LocalDateTime startDate, 
             @Param("endDate") java.time.LocalDateTime endDate);
 
-    @Select("SELECT * FROM file WHERE uploader_id::text = #{uploaderId} AND deleted = true ORDER BY deleted_at DESC")
+    @Select("SELECT * FROM file WHERE uploader_id = #{uploaderId,jdbcType=OTHER} AND deleted = true ORDER BY deleted_at DESC")
     List<File> findDeletedByUploaderId(@Param("uploaderId") String uploaderId);
 
     @Select("<script>" +
-            "SELECT * FROM file WHERE uploader_id::text = #{uploaderId} AND deleted = true " +
+            "SELECT * FROM file WHERE uploader_id = #{uploaderId,jdbcType=OTHER} AND deleted = true " +
             "ORDER BY deleted_at DESC " +
             "LIMIT #{size} OFFSET #{offset}" +
             "</script>")
@@ -188,15 +236,190 @@ public interface FileMapper extends BaseMapper<File> {
                                                       @Param("size") int size,
                                                       @Param("offset") int offset);
 
-    @Select("SELECT COUNT(*) FROM file WHERE uploader_id::text = #{uploaderId} AND deleted = true")
+    /**
+     * 按 (deleted_at, id) 键集分页查询回收站文件，cursor 为空时从第一页开始。
+     * 旧数据的 deleted_at 可能为空，按默认空值位置排在最前（与 idx_file_trash_uploader_deleted_at 的顺序一致），
+     * 游标时间为空时先翻完 NULL 行再继续
+     */
+    @Select("<script>" +
+            "SELECT * FROM file WHERE uploader_id = #{uploaderId,jdbcType=OTHER} AND deleted = true " +
+            "<if test='cursor != null'><choose>" +
+            "<when test='cursor.time != null'>AND (deleted_at, id) &lt; (#{cursor.time}, #{cursor.id,jdbcType=OTHER}) </when>" +
+            "<otherwise>AND ((deleted_at IS NULL AND id &lt; #{cursor.id,jdbcType=OTHER}) OR deleted_at IS NOT NULL) </otherwise>" +
+            "</choose></if>" +
+            "ORDER BY deleted_at DESC, id DESC " +
+            "LIMIT #{limit}" +
+            "</script>")
+    List<File> findDeletedByUploaderIdKeyset(@Param("uploaderId") String uploaderId,
+                                             @Param("cursor") KeysetCursor cursor,
+                                             @Param("limit") int limit);
+
+    @Select("SELECT COUNT(*) FROM file WHERE uploader_id = #{uploaderId,jdbcType=OTHER} AND deleted = true")
     long countDeletedByUploaderId(@Param("uploaderId") String uploaderId);
 
-    @Update("UPDATE file SET deleted = true, deleted_at = #{deletedAt}, updated_at = #{deletedAt} WHERE id::text = #{fileId}")
+    @Update("UPDATE file SET deleted = true, deleted_at = #{deletedAt}, updated_at = #{deletedAt} WHERE id = #{fileId,jdbcType=OTHER}")
     int softDeleteById(@Param("fileId") String fileId, @Param("deletedAt") java.time.LocalDateTime deletedAt);
 
-    @Update("UPDATE file SET deleted = false, deleted_at = NULL, updated_at = #{updatedAt} WHERE id::text = #{fileId}")
+    @Update("UPDATE file SET deleted = false, deleted_at = NULL, updated_at = #{updatedAt} WHERE id = #{fileId,jdbcType=OTHER}")
     int restoreById(@Param("fileId") String fileId, @Param("updatedAt") java.time.LocalDateTime updatedAt);
 
-    @Select("SELECT * FROM file WHERE uploader_id::text = #{uploaderId} AND deleted = true AND deleted_at < #{threshold}")
-    List<File> findExpiredDeletedFiles(@Param("uploaderId") String uploaderId, @Param("threshold") java.time.LocalDateTime threshold);
+    /**
+     * 批量移入回收站，只处理属于该用户且未删除的文件
+     *
+     * @return 实际移入回收站的文件ID
+     */
+    @Select("<script>" +
+            "UPDATE file SET deleted = true, deleted_at = #{now}, updated_at = #{now} " +
+            "WHERE uploader_id = #{uploaderId,jdbcType=OTHER} AND deleted = false AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id,jdbcType=OTHER}</foreach> " +
+            "RETURNING id" +
+            "</script>")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE, useCache = false)
+    List<String> trashByIds(@Param("ids") Collection<String> ids,
+                            @Param("uploaderId") String uploaderId,
+                            @Param("now") java.time.LocalDateTime now);
+
+    /**
+     * 批量从回收站恢复，只处理属于该用户且在回收站中的文件
+     *
+     * @return 实际恢复的文件ID
+     */
+    @Select("<script>" +
+            "UPDATE file SET deleted = false, deleted_at = NULL, updated_at = #{now} " +
+            "WHERE uploader_id = #{uploaderId,jdbcType=OTHER} AND deleted = true AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id,jdbcType=OTHER}</foreach> " +
+            "RETURNING id" +
+            "</script>")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE, useCache = false)
+    List<String> restoreByIds(@Param("ids") Collection<String> ids,
+                              @Param("uploaderId") String uploaderId,
+                              @Param("now") java.time.LocalDateTime now);
+
+    /**
+     * 批量删除文件记录，只处理属于该用户且删除标记等于 trashed 的文件
+     *
+     * @return 实际删除的文件（仅含 id 和 storage_path），用于事务提交后清理存储
+     */
+    @Select("<script>" +
+            "DELETE FROM file " +
+            "WHERE uploader_id = #{uploaderId,jdbcType=OTHER} AND deleted = #{trashed} AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id,jdbcType=OTHER}</foreach> " +
+            "RETURNING id, storage_path" +
+            "</script>")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE, useCache = false)
+    List<File> deleteByIdsReturning(@Param("ids") Collection<String> ids,
+                                    @Param("uploaderId") String uploaderId,
+                                    @Param("trashed") boolean trashed);
+
+    /**
+     * 将若干分类下的文件整体移到目标分类，targetCategoryId 为空时移出分类
+     *
+     * @return 移动的文件数
+     */
+    @Update("<script>" +
+            "UPDATE file SET category_id = #{targetCategoryId,jdbcType=OTHER}, updated_at = #{now} WHERE category_id IN " +
+            "<foreach collection='categoryIds' item='id' open='(' separator=',' close=')'>#{id,jdbcType=OTHER}</foreach>" +
+            "</script>")
+    int moveCategoryFiles(@Param("categoryIds") Collection<String> categoryIds,
+                          @Param("targetCategoryId") String targetCategoryId,
+                          @Param("now") java.time.LocalDateTime now);
+
+    /**
+     * 删除一批回收站中的文件记录：只处理 cutoff 及之前移入回收站的文件，uploaderId 为空时不限用户。
+     * 已被其他事务锁定的行直接跳过，多个实例可以并行清理
+     *
+     * @return 实际删除的文件（仅含 id、storage_path 和 uploader_id），用于事务提交后清理存储
+     */
+    @Select("<script>" +
+            "DELETE FROM file WHERE id IN (" +
+            "SELECT id FROM file WHERE deleted = true " +
+            "<choose>" +
+            "<when test='uploaderId != null'>AND uploader_id = #{uploaderId,jdbcType=OTHER} " +
+            "AND (deleted_at &lt;= #{cutoff} OR deleted_at IS NULL) </when>" +
+            "<otherwise>AND deleted_at &lt;= #{cutoff} </otherwise>" +
+            "</choose>" +
+            "ORDER BY deleted_at LIMIT #{limit} FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, storage_path, uploader_id" +
+            "</script>")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE, useCache = false)
+    List<File> purgeTrashBatch(@Param("uploaderId") String uploaderId,
+                               @Param("cutoff") java.time.LocalDateTime cutoff,
+                               @Param("limit") int limit);
+
+    /**
+     * 是否还有待清理的回收站文件，条件同 purgeTrashBatch；不跳过被锁定的行，
+     * 用于区分“已清理完”和“剩余的行正被其他事务删除”
+     */
+    @Select("<script>" +
+            "SELECT EXISTS (SELECT 1 FROM file WHERE deleted = true " +
+            "<choose>" +
+            "<when test='uploaderId != null'>AND uploader_id = #{uploaderId,jdbcType=OTHER} " +
+            "AND (deleted_at &lt;= #{cutoff} OR deleted_at IS NULL) </when>" +
+            "<otherwise>AND deleted_at &lt;= #{cutoff} </otherwise>" +
+            "</choose>" +
+            ")" +
+            "</script>")
+    @Options(useCache = false)
+    boolean existsTrashToPurge(@Param("uploaderId") String uploaderId,
+                               @Param("cutoff") java.time.LocalDateTime cutoff);
+
+    /**
+     * 按ID键集读取一批待分类的有效文件，unclassifiedOnly 为 true 时只读取尚未分类的文件
+     */
+    @Select("<script>" +
+            "SELECT id, original_name, mime_type, file_size, storage_path, category_id, uploader_id FROM file " +
+            "WHERE status = 'ACTIVE' AND deleted = false " +
+            "<if test='unclassifiedOnly'>AND classified_at IS NULL </if>" +
+            "<if test='afterId != null'>AND id &gt; #{afterId,jdbcType=OTHER} </if>" +
+            "ORDER BY id LIMIT #{limit}" +
+            "</script>")
+    List<File> selectClassificationBatch(@Param("unclassifiedOnly") boolean unclassifiedOnly,
+                                         @Param("afterId") String afterId,
+                                         @Param("limit") int limit);
+
+    /**
+     * 批量写回分类结果并标记为已分类。
+     * 只覆盖未分类或仍在系统默认分类中的文件，用户手动归入自己分类的文件保持不变；
+     * categoryId 为空时只标记已分类
+     */
+    @Update("<script>" +
+            "UPDATE file SET classified_at = #{now}" +
+            "<if test='categoryId != null'>, category_id = CASE WHEN category_id IS NULL " +
+            "OR category_id IN (SELECT id FROM file_category WHERE user_id IS NULL) " +
+            "THEN #{categoryId,jdbcType=OTHER} ELSE category_id END</if> " +
+            "WHERE id IN " +
+            "<foreach collection='fileIds' item='id' open='(' separator=',' close=')'>#{id,jdbcType=OTHER}</foreach>" +
+            "</script>")
+    int applyClassification(@Param("fileIds") Collection<String> fileIds,
+                            @Param("categoryId") String categoryId,
+                            @Param("now") java.time.LocalDateTime now);
+
+    /**
+     * 按ID批量查询文件，不过滤状态和软删除标记（由调用方判断）
+     */
+    @Select("<script>" +
+            "SELECT * FROM file WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id,jdbcType=OTHER}</foreach>" +
+            "</script>")
+    List<File> selectByIdsIncludingDeleted(@Param("ids") Collection<String> ids);
+
+    /**
+     * 按ID键集读取一批文件用于构建搜索索引。
+     * activeOnly 为 false 时同时返回已删除和非有效的文件，用于从索引中移除；
+     * uploaderId、updatedSince 为空时不限
+     */
+    @Select("<script>" +
+            "SELECT id, name, original_name, mime_type, file_size, category_id, tags, uploader_id, status, deleted, created_at " +
+            "FROM file WHERE 1 = 1 " +
+            "<if test='activeOnly'>AND status = 'ACTIVE' AND deleted = false </if>" +
+            "<if test='uploaderId != null'>AND uploader_id = #{uploaderId,jdbcType=OTHER} </if>" +
+            "<if test='updatedSince != null'>AND updated_at &gt;= #{updatedSince} </if>" +
+            "<if test='afterId != null'>AND id &gt; #{afterId,jdbcType=OTHER} </if>" +
+            "ORDER BY id LIMIT #{limit}" +
+            "</script>")
+    List<File> selectSearchIndexBatch(@Param("activeOnly") boolean activeOnly,
+                                      @Param("uploaderId") String uploaderId,
+                                      @Param("updatedSince") java.time.LocalDateTime updatedSince,
+                                      @Param("afterId") String afterId,
+                                      @Param("limit") int limit);
 }
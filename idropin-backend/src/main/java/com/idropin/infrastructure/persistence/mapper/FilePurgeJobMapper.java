@@ -0,0 +1,66 @@
+package com.idropin.infrastructure.persistence.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.idropin.domain.entity.FilePurgeJob;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 回收站清理任务Mapper
+ *
+ * @author Idrop.in Team
+ */
+@Mapper
+public interface FilePurgeJobMapper extends BaseMapper<FilePurgeJob> {
+
+    /**
+     * 查询用户未完成的清空回收站任务
+     */
+    @Select("SELECT * FROM file_purge_job WHERE user_id = #{userId} AND status IN ('PENDING', 'RUNNING') LIMIT 1")
+    FilePurgeJob selectActiveByUserId(@Param("userId") String userId);
+
+    /**
+     * 查询未完成的过期自动清理任务
+     */
+    @Select("SELECT * FROM file_purge_job WHERE job_type = 'AUTO_PURGE' AND status IN ('PENDING', 'RUNNING') LIMIT 1")
+    FilePurgeJob selectActiveAutoPurge();
+
+    /**
+     * 查询待执行的任务：尚未开始的，以及执行中但超过 staleBefore 未更新进度的（执行实例已退出）
+     */
+    @Select("SELECT * FROM file_purge_job WHERE status = 'PENDING' " +
+            "OR (status = 'RUNNING' AND updated_at < #{staleBefore}) ORDER BY created_at")
+    List<FilePurgeJob> selectResumable(@Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * 抢占任务执行权，条件同 selectResumable，多实例下只有一个能成功
+     *
+     * @return 1 表示抢占成功
+     */
+    @Update("UPDATE file_purge_job SET status = 'RUNNING', updated_at = #{now} " +
+            "WHERE id = #{id} AND (status = 'PENDING' OR (status = 'RUNNING' AND updated_at < #{staleBefore}))")
+    int claim(@Param("id") String id,
+              @Param("staleBefore") LocalDateTime staleBefore,
+              @Param("now") LocalDateTime now);
+
+    /**
+     * 累加进度，同时刷新 updated_at 作为执行心跳
+     */
+    @Update("UPDATE file_purge_job SET purged_count = purged_count + #{count}, updated_at = #{now} WHERE id = #{id}")
+    int addProgress(@Param("id") String id, @Param("count") long count, @Param("now") LocalDateTime now);
+
+    /**
+     * 结束任务
+     */
+    @Update("UPDATE file_purge_job SET status = #{status}, error_message = #{errorMessage}, " +
+            "updated_at = #{now}, finished_at = #{now} WHERE id = #{id}")
+    int finish(@Param("id") String id,
+               @Param("status") String status,
+               @Param("errorMessage") String errorMessage,
+               @Param("now") LocalDateTime now);
+}
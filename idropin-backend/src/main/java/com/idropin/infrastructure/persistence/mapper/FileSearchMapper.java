@@ -0,0 +1,34 @@
+package com.idropin.infrastructure.persistence.mapper;
+
+import com.idropin.domain.entity.File;
+import com.idropin.infrastructure.search.FileSearchQuery;
+import org.apache.ibatis.annotations.Mapper;
+
+import java.util.List;
+
+/**
+ * 文件全文搜索Mapper
+ * 关键字同时匹配 search_vector（分词前缀）和文件名三元组索引（子串），结果按相关度排序，
+ * 查询见 mapper/FileSearchMapper.xml
+ *
+ * @author Idrop.in Team
+ */
+@Mapper
+public interface FileSearchMapper {
+
+    /**
+     * 查询一页搜索结果
+     */
+    List<File> search(FileSearchQuery query);
+
+    /**
+     * 统计命中总数
+     */
+    long count(FileSearchQuery query);
+
+    /**
+     * 当前事务内的查询按实际参数生成计划。JDBC 驱动对重复执行的语句使用服务端预编译，
+     * 通用计划按平均选择度估计 uploader_id 和 ILIKE 条件，会放弃 GIN 索引而扫描该用户的全部文件
+     */
+    void useCustomPlans();
+}
@@ -1,12 +1,16 @@
 package com.idropin.infrastructure.persistence.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.idropin.common.util.KeysetCursor;
+import com.idropin.domain.dto.SubmissionQueryRequest;
 import com.idropin.domain.entity.FileSubmission;
+import com.idropin.domain.vo.FileSubmissionVO;
 import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 文件提交记录Mapper
@@ -20,19 +24,71 @@ public interface FileSubmissionMapper extends BaseMapper<FileSubmission> {
      * 根据任务ID和提交者姓名查询提交记录
      */
     List<FileSubmission> findByTaskIdAndSubmitterName(@Param("taskId") String taskId, @Param("submitterName") String submitterName);
+
+    /**
+     * 按 (submitted_at, id) 键集分页查询任务的提交记录
+     *
+     * @param exactName 提交者姓名是否精确匹配（否则模糊匹配）
+     * @param cursor    上一页游标，为null时从最新开始
+     * @param limit     最多返回条数
+     */
+    List<FileSubmissionVO> selectVOPage(@Param("taskId") String taskId,
+                                        @Param("query") SubmissionQueryRequest query,
+                                        @Param("exactName") boolean exactName,
+                                        @Param("cursor") KeysetCursor cursor,
+                                        @Param("limit") int limit);
+
+    /**
+     * 按 (submitted_at, id) 键集分页查询用户所有任务的提交记录（文件提交与信息提交合并）
+     *
+     * @param query  过滤条件（提交者姓名模糊匹配、提交时间范围、文件类型），指定文件类型时只返回文件提交
+     * @param cursor 上一页游标，为null时从最新开始
+     * @param limit  最多返回条数
+     */
+    List<FileSubmissionVO> selectUserFeed(@Param("userId") String userId,
+                                          @Param("query") SubmissionQueryRequest query,
+                                          @Param("cursor") KeysetCursor cursor,
+                                          @Param("limit") int limit);
+
+    /**
+     * 统计用户所有任务中符合过滤条件的提交数
+     */
+    long countUserFeed(@Param("userId") String userId, @Param("query") SubmissionQueryRequest query);
+
+    /**
+     * 任务统计：总提交数（total）与独立提交者数（unique_submitters）
+     */
+    Map<String, Object> selectTaskSummary(@Param("taskId") String taskId);
+
+    /**
+     * 任务统计：按MIME大类（type）统计提交数（count）
+     */
+    List<Map<String, Object>> selectTaskTypeDistribution(@Param("taskId") String taskId);
+
+    /**
+     * 任务统计：最近的提交记录（只含ID、提交者、提交时间和文件名）
+     */
+    List<FileSubmissionVO> selectRecentByTaskId(@Param("taskId") String taskId, @Param("limit") int limit);
+
+    /**
+     * 统计符合过滤条件的提交数
+     */
+    long countVOs(@Param("taskId") String taskId,
+                  @Param("query") SubmissionQueryRequest query,
+                  @Param("exactName") boolean exactName);
     
     /**
      * 根据String类型的ID查询记录（处理UUID类型转换）
      */
-    @Select("SELECT * FROM file_submission WHERE id::text = #{submissionId}::text")
+    @Select("SELECT * FROM file_submission WHERE id = #{submissionId,jdbcType=OTHER}")
     FileSubmission selectByIdString(@Param("submissionId") String submissionId);
     
     /**
      * 根据String类型的ID删除记录（处理UUID类型转换）
      */
-    @Delete("DELETE FROM file_submission WHERE id::text = #{submissionId}::text")
+    @Delete("DELETE FROM file_submission WHERE id = #{submissionId,jdbcType=OTHER}")
     int deleteByIdString(@Param("submissionId") String submissionId);
 
-    @Select("SELECT COUNT(*) FROM file_submission WHERE task_id::text = #{taskId}::text AND submitter_ip = #{submitterIp}")
+    @Select("SELECT COUNT(*) FROM file_submission WHERE task_id = #{taskId,jdbcType=OTHER} AND submitter_ip = #{submitterIp}")
     long countByTaskIdAndIp(@Param("taskId") String taskId, @Param("submitterIp") String submitterIp);
 }
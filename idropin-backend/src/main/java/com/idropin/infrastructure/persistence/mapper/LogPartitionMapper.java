@@ -0,0 +1,41 @@
+package com.idropin.infrastructure.persistence.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 日志分区维护Mapper
+ *
+ * @author Idrop.in Team
+ */
+@Mapper
+public interface LogPartitionMapper {
+
+    /**
+     * 确保指定月份的分区存在
+     *
+     * @return 分区表名
+     */
+    @Select("SELECT ensure_monthly_partition(#{parentTable}, #{monthStart})")
+    String ensureMonthlyPartition(@Param("parentTable") String parentTable, @Param("monthStart") LocalDate monthStart);
+
+    /**
+     * 列出父表下的所有分区
+     */
+    @Select("SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = #{parentTable} ORDER BY c.relname")
+    List<String> listPartitions(@Param("parentTable") String parentTable);
+
+    /**
+     * 删除分区（分区名由调用方校验）
+     */
+    @Update("DROP TABLE IF EXISTS ${partitionName}")
+    void dropPartition(@Param("partitionName") String partitionName);
+}
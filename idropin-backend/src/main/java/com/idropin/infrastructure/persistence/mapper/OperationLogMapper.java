@@ -5,8 +5,13 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.idropin.domain.entity.OperationLog;
 import com.idropin.domain.vo.OperationLogVO;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 操作日志Mapper
@@ -17,12 +22,40 @@ import org.apache.ibatis.annotations.Param;
 public interface OperationLogMapper extends BaseMapper<OperationLog> {
     
     /**
-     * 分页查询操作日志
+     * 分页查询操作日志（只查询 since 之后的分区）
      */
-    IPage<OperationLogVO> selectLogPage(Page<OperationLogVO> page);
+    IPage<OperationLogVO> selectLogPage(Page<OperationLogVO> page, @Param("since") LocalDateTime since);
     
     /**
-     * 获取日志数量
+     * 批量插入操作日志（多行INSERT），重放预写日志时已存在的记录会被跳过
+     */
+    @Insert("<script>" +
+            "INSERT INTO sys_operation_log (id, operator_id, operation_type, target_type, target_id, description, ip_address, created_at) VALUES " +
+            "<foreach collection='logs' item='item' separator=','>" +
+            "(#{item.id}, #{item.operatorId}, #{item.operationType}, #{item.targetType}, #{item.targetId}, #{item.description}, #{item.ipAddress}, #{item.createdAt})" +
+            "</foreach>" +
+            " ON CONFLICT DO NOTHING" +
+            "</script>")
+    int insertBatch(@Param("logs") List<OperationLog> logs);
+    
+    /**
+     * 将 [from, to) 内的原始日志汇总到小时表，已存在的小时会被重新计算覆盖
+     */
+    @Insert("INSERT INTO sys_operation_log_hourly (bucket_hour, log_count, updated_at) " +
+            "SELECT date_trunc('hour', created_at), COUNT(*), CURRENT_TIMESTAMP " +
+            "FROM sys_operation_log WHERE created_at >= #{from} AND created_at < #{to} " +
+            "GROUP BY date_trunc('hour', created_at) " +
+            "ON CONFLICT (bucket_hour) DO UPDATE SET log_count = EXCLUDED.log_count, updated_at = EXCLUDED.updated_at")
+    int rollupHourly(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * 查询最近一个已汇总的小时
+     */
+    @Select("SELECT MAX(bucket_hour) FROM sys_operation_log_hourly")
+    LocalDateTime selectLatestRollupHour();
+
+    /**
+     * 获取日志总数（小时汇总加尚未汇总的最近时段）
      */
     Long countLogs();
     
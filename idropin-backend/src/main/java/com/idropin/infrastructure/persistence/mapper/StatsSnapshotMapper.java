@@ -0,0 +1,37 @@
+package com.idropin.infrastructure.persistence.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.idropin.domain.entity.StatsSnapshot;
+import com.idropin.domain.vo.OverviewStatsVO;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 统计快照Mapper
+ *
+ * @author Idrop.in Team
+ */
+@Mapper
+public interface StatsSnapshotMapper extends BaseMapper<StatsSnapshot> {
+
+    /**
+     * 单条CTE查询统计平台概况（每张表只扫描一次）
+     * 不含PV/UV和昨日数据
+     */
+    OverviewStatsVO selectOverviewCounts();
+
+    /**
+     * 根据日期查询快照
+     */
+    StatsSnapshot selectByDate(@Param("snapshotDate") LocalDate snapshotDate);
+
+    /**
+     * 计算并写入指定日期的快照（已存在则忽略）
+     */
+    int insertSnapshot(@Param("snapshotDate") LocalDate snapshotDate,
+                       @Param("start") LocalDateTime start,
+                       @Param("end") LocalDateTime end);
+}
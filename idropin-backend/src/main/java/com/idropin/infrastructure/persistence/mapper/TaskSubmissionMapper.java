@@ -1,12 +1,19 @@
 package com.idropin.infrastructure.persistence.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.idropin.common.util.KeysetCursor;
+import com.idropin.domain.dto.SubmissionQueryRequest;
 import com.idropin.domain.entity.TaskSubmission;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 任务提交记录Mapper
@@ -37,4 +44,45 @@ public interface TaskSubmissionMapper extends BaseMapper<TaskSubmission> {
      */
     @Select("SELECT * FROM task_submission WHERE task_key = #{taskKey,jdbcType=VARCHAR} ORDER BY created_at DESC")
     List<TaskSubmission> findAllByTaskKey(@Param("taskKey") String taskKey);
+
+    /**
+     * 流式读取任务的全部提交记录（包括已撤回的），用于导出
+     */
+    @Select("SELECT * FROM task_submission WHERE task_key = #{taskKey,jdbcType=VARCHAR} ORDER BY created_at DESC")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 500)
+    @ResultType(TaskSubmission.class)
+    void streamByTaskKey(@Param("taskKey") String taskKey, ResultHandler<TaskSubmission> handler);
+
+    /**
+     * 按 (submitted_at, id) 键集分页查询提交记录
+     *
+     * @param exactName  提交者姓名是否精确匹配（否则模糊匹配）
+     * @param activeOnly 是否只查询未撤回的记录
+     * @param cursor     上一页游标，为null时从最新开始
+     * @param limit      最多返回条数
+     */
+    List<TaskSubmission> selectKeysetPage(@Param("taskKey") String taskKey,
+                                          @Param("query") SubmissionQueryRequest query,
+                                          @Param("exactName") boolean exactName,
+                                          @Param("activeOnly") boolean activeOnly,
+                                          @Param("cursor") KeysetCursor cursor,
+                                          @Param("limit") int limit);
+
+    /**
+     * 任务统计：总提交数（total）与独立提交者数（unique_submitters）
+     */
+    Map<String, Object> selectTaskSummary(@Param("taskKey") String taskKey);
+
+    /**
+     * 任务统计：最近的提交记录（只含ID、文件名、提交者和提交时间）
+     */
+    List<TaskSubmission> selectRecentByTaskKey(@Param("taskKey") String taskKey, @Param("limit") int limit);
+
+    /**
+     * 统计符合过滤条件的提交数
+     */
+    long countKeysetPage(@Param("taskKey") String taskKey,
+                         @Param("query") SubmissionQueryRequest query,
+                         @Param("exactName") boolean exactName,
+                         @Param("activeOnly") boolean activeOnly);
 }
@@ -29,10 +29,10 @@ public interface UserMapper extends BaseMapper<User> {
     /**
      * 根据ID查找用户（规范化UUID格式）
      *
-     * @param id 用户ID（无连字符格式）
+     * @param id 用户ID（标准或无连字符格式，由 IdTypeHandler 规范化）
      * @return 用户实体
      */
-    @Select("SELECT * FROM sys_user WHERE REPLACE(CAST(id AS VARCHAR), '-', '') = #{id}")
+    @Select("SELECT * FROM sys_user WHERE id = #{id,jdbcType=OTHER}")
     User findById(@Param("id") String id);
 
     /**
@@ -76,66 +76,6 @@ public interface UserMapper extends BaseMapper<User> {
      */
     IPage<AdminUserVO> selectAdminUserPage(Page<AdminUserVO> page, @Param("keyword") String keyword, @Param("status") String status);
     
-    /**
-     * 统计用户总数
-     */
-    @Select("SELECT COUNT(*) FROM sys_user")
-    Long countUsers();
-    
-    /**
-     * 统计活跃用户数
-     */
-    @Select("SELECT COUNT(*) FROM sys_user WHERE status = 'ACTIVE'")
-    Long countActiveUsers();
-    
-    /**
-     * 统计昨日新增用户数
-     */
-    @Select("SELECT COUNT(*) FROM sys_user WHERE created_at >= CURRENT_DATE - INTERVAL '1 day' AND created_at < CURRENT_DATE")
-    Long countUsersYesterday();
-    
-    /**
-     * 统计文件总数
-     */
-    @Select("SELECT COUNT(*) FROM file")
-    Long countFiles();
-    
-    /**
-     * 统计昨日新增文件数
-     */
-    @Select("SELECT COUNT(*) FROM file WHERE created_at >= CURRENT_DATE - INTERVAL '1 day' AND created_at < CURRENT_DATE")
-    Long countFilesYesterday();
-    
-    /**
-     * 统计文件总大小
-     */
-    @Select("SELECT COALESCE(SUM(file_size), 0) FROM file")
-    Long sumFileSize();
-    
-    /**
-     * 统计归档文件数
-     */
-    @Select("SELECT COUNT(*) FROM file WHERE status = 'ARCHIVED'")
-    Long countArchivedFiles();
-    
-    /**
-     * 统计归档文件大小
-     */
-    @Select("SELECT COALESCE(SUM(file_size), 0) FROM file WHERE status = 'ARCHIVED'")
-    Long sumArchivedFileSize();
-    
-    /**
-     * 统计无效文件数
-     */
-    @Select("SELECT COUNT(*) FROM file WHERE status = 'INVALID'")
-    Long countInvalidFiles();
-    
-    /**
-     * 统计无效文件大小
-     */
-    @Select("SELECT COALESCE(SUM(file_size), 0) FROM file WHERE status = 'INVALID'")
-    Long sumInvalidFileSize();
-    
     /**
      * 更新用户头像
      */
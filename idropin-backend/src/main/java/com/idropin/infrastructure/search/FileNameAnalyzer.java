@@ -0,0 +1,50 @@
+package com.idropin.infrastructure.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.cjk.CJKBigramFilter;
+import org.apache.lucene.analysis.cjk.CJKWidthFilter;
+import org.apache.lucene.analysis.pattern.PatternReplaceCharFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+
+import java.io.Reader;
+import java.util.regex.Pattern;
+
+/**
+ * 文件名分词器
+ * 标点（. _ - 等）先替换为空格，"report_2024-final.pdf" 拆成 report / 2024 / final / pdf；
+ * 全角字符归一化为半角并转小写；中日韩文字按相邻两字切分（二元组）。
+ * 建索引时同时输出单字，查询时只输出二元组（单字查询仍输出单字），
+ * 因此任意长度的中文片段都能匹配，且要求片段中的二元组全部命中
+ *
+ * @author Idrop.in Team
+ */
+public class FileNameAnalyzer extends Analyzer {
+
+    private static final Pattern PUNCTUATION = Pattern.compile("[\\p{Punct}\\p{IsPunctuation}]+");
+
+    private final boolean outputUnigrams;
+
+    /**
+     * @param outputUnigrams 是否同时输出中文单字，建索引时为 true，查询时为 false
+     */
+    public FileNameAnalyzer(boolean outputUnigrams) {
+        this.outputUnigrams = outputUnigrams;
+    }
+
+    @Override
+    protected Reader initReader(String fieldName, Reader reader) {
+        return new PatternReplaceCharFilter(PUNCTUATION, " ", reader);
+    }
+
+    @Override
+    protected TokenStreamComponents createComponents(String fieldName) {
+        StandardTokenizer tokenizer = new StandardTokenizer();
+        TokenStream stream = new CJKWidthFilter(tokenizer);
+        stream = new LowerCaseFilter(stream);
+        stream = new CJKBigramFilter(stream, CJKBigramFilter.HAN | CJKBigramFilter.HIRAGANA
+                | CJKBigramFilter.KATAKANA | CJKBigramFilter.HANGUL, outputUnigrams);
+        return new TokenStreamComponents(tokenizer, stream);
+    }
+}
@@ -0,0 +1,23 @@
+package com.idropin.infrastructure.search;
+
+import com.idropin.domain.dto.SearchRequest;
+
+/**
+ * 文件搜索引擎
+ * SearchService 通过该接口查询文件，具体实现由 search.engine 配置选择：
+ * postgres（tsvector + pg_trgm，默认）、lucene（内嵌本地索引，支持模糊匹配和分面）
+ * 或 like（逐行 LIKE 匹配，适用于未执行搜索索引迁移的库）
+ *
+ * @author Idrop.in Team
+ */
+public interface FileSearchEngine {
+
+    /**
+     * 在用户的有效文件中搜索
+     *
+     * @param request 搜索条件（关键字、过滤条件、排序与分页）
+     * @param userId  用户ID
+     * @return 当前页文件与命中总数
+     */
+    FileSearchHits search(SearchRequest request, String userId);
+}
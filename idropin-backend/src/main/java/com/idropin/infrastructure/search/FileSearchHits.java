@@ -0,0 +1,41 @@
+package com.idropin.infrastructure.search;
+
+import com.idropin.domain.entity.File;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 文件搜索结果页
+ *
+ * @author Idrop.in Team
+ */
+@Getter
+public class FileSearchHits {
+
+    /**
+     * 命中总数
+     */
+    private final long total;
+
+    /**
+     * 当前页文件，按请求的排序方式排列
+     */
+    private final List<File> files;
+
+    /**
+     * 命中文件的分面统计：维度 -> (值 -> 文件数)，引擎不支持分面时为 null
+     */
+    private final Map<String, Map<String, Long>> facets;
+
+    public FileSearchHits(long total, List<File> files) {
+        this(total, files, null);
+    }
+
+    public FileSearchHits(long total, List<File> files, Map<String, Map<String, Long>> facets) {
+        this.total = total;
+        this.files = files;
+        this.facets = facets;
+    }
+}
@@ -0,0 +1,69 @@
+package com.idropin.infrastructure.search;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 全文搜索查询参数，由 PostgresFileSearchEngine 从搜索请求构造，供 FileSearchMapper 使用
+ *
+ * @author Idrop.in Team
+ */
+@Getter
+@Builder
+public class FileSearchQuery {
+
+    public static final String SORT_RELEVANCE = "RELEVANCE";
+    public static final String SORT_CREATED_AT = "CREATED_AT";
+    public static final String SORT_FILE_SIZE = "FILE_SIZE";
+    public static final String SORT_NAME = "NAME";
+
+    private final String userId;
+
+    /**
+     * 原始关键字，用于相似度排序
+     */
+    private final String keyword;
+
+    /**
+     * to_tsquery 表达式（各词前缀匹配，AND 连接），关键字没有可分词内容时为空
+     */
+    private final String tsQuery;
+
+    /**
+     * ILIKE 子串匹配模式，已转义通配符
+     */
+    private final String likePattern;
+
+    private final String mimeType;
+
+    private final String categoryId;
+
+    /**
+     * 必须全部包含的标签
+     */
+    private final String[] tags;
+
+    private final Long minFileSize;
+
+    private final Long maxFileSize;
+
+    private final LocalDateTime startDate;
+
+    private final LocalDateTime endDate;
+
+    /**
+     * 排序方式，取 SORT_* 常量
+     */
+    private final String sort;
+
+    /**
+     * 排序方向，ASC 或 DESC
+     */
+    private final String direction;
+
+    private final long offset;
+
+    private final int limit;
+}
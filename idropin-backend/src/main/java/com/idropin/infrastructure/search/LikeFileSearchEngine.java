@@ -0,0 +1,104 @@
+package com.idropin.infrastructure.search;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.idropin.domain.dto.SearchRequest;
+import com.idropin.domain.entity.File;
+import com.idropin.infrastructure.persistence.mapper.FileMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+
+/**
+ * LIKE 搜索引擎
+ * 关键字以 LIKE '%kw%' 匹配文件名，需要逐行扫描该用户的文件；不依赖搜索索引迁移，作为兼容方案保留
+ *
+ * @author Idrop.in Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "search.engine", havingValue = "like")
+public class LikeFileSearchEngine implements FileSearchEngine {
+
+    private final FileMapper fileMapper;
+
+    @Override
+    public FileSearchHits search(SearchRequest request, String userId) {
+        LambdaQueryWrapper<File> wrapper = new LambdaQueryWrapper<>();
+        wrapper.apply("uploader_id = {0,jdbcType=OTHER}", userId)
+                .eq(File::getStatus, "ACTIVE");
+
+        if (StringUtils.hasText(request.getKeyword())) {
+            String keyword = request.getKeyword().trim();
+            wrapper.and(w -> w
+                    .like(File::getName, keyword)
+                    .or()
+                    .like(File::getOriginalName, keyword));
+        }
+
+        if (StringUtils.hasText(request.getMimeType())) {
+            wrapper.eq(File::getMimeType, request.getMimeType());
+        }
+
+        if (StringUtils.hasText(request.getCategoryId())) {
+            wrapper.apply("category_id = {0,jdbcType=OTHER}", request.getCategoryId());
+        }
+
+        if (request.getTags() != null && !request.getTags().isEmpty()) {
+            for (String tag : request.getTags()) {
+                wrapper.apply("array_to_string(tags, ',') LIKE CONCAT('%', {0}, '%')", tag);
+            }
+        }
+
+        if (request.getMinFileSize() != null) {
+            wrapper.ge(File::getFileSize, request.getMinFileSize());
+        }
+        if (request.getMaxFileSize() != null) {
+            wrapper.le(File::getFileSize, request.getMaxFileSize());
+        }
+
+        if (StringUtils.hasText(request.getStartDate())) {
+            try {
+                wrapper.ge(File::getCreatedAt, LocalDateTime.parse(request.getStartDate()));
+            } catch (Exception e) {
+                log.warn("Invalid start date format: {}", request.getStartDate());
+            }
+        }
+        if (StringUtils.hasText(request.getEndDate())) {
+            try {
+                wrapper.le(File::getCreatedAt, LocalDateTime.parse(request.getEndDate()));
+            } catch (Exception e) {
+                log.warn("Invalid end date format: {}", request.getEndDate());
+            }
+        }
+
+        int page = request.getPage() != null ? request.getPage() : 0;
+        int size = request.getSize() != null ? request.getSize() : 20;
+        Page<File> pageObj = new Page<>(page, size);
+
+        String sortBy = StringUtils.hasText(request.getSortBy()) ? request.getSortBy() : "createdAt";
+        boolean isAsc = !"desc".equalsIgnoreCase(request.getSortOrder());
+
+        switch (sortBy) {
+            case "fileSize":
+                wrapper.orderBy(true, isAsc, File::getFileSize);
+                break;
+            case "name":
+                wrapper.orderBy(true, isAsc, File::getName);
+                break;
+            case "createdAt":
+            default:
+                wrapper.orderBy(true, isAsc, File::getCreatedAt);
+                break;
+        }
+
+        IPage<File> filePage = fileMapper.selectPage(pageObj, wrapper);
+        return new FileSearchHits(filePage.getTotal(), filePage.getRecords());
+    }
+}
@@ -0,0 +1,411 @@
+package com.idropin.infrastructure.search;
+
+import com.idropin.domain.entity.File;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.Facets;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 内嵌 Lucene 文件索引
+ * 索引保存在本地磁盘（search.lucene.path），只收录有效且未删除的文件；文档只存储文件ID，
+ * 命中后由调用方回表读取最新数据。写入通过 IndexWriter 增量更新，搜索使用近实时 searcher，
+ * refresh 后可见；commit 时在提交数据中记录已同步到的时间，重启后据此补齐未提交的变更。
+ * 全量重建期间暂停 refresh 和 commit，搜索继续使用重建前的 searcher，重建提交后一次性切换；
+ * 重建失败时回滚到上次提交
+ *
+ * @author Idrop.in Team
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "lucene")
+public class LuceneFileIndex {
+
+    static final String FIELD_ID = "id";
+    static final String FIELD_UPLOADER_ID = "uploaderId";
+    static final String FIELD_NAME = "name";
+    static final String FIELD_ORIGINAL_NAME = "originalName";
+    static final String FIELD_TAG_TEXT = "tagText";
+    static final String FIELD_TAG = "tag";
+    static final String FIELD_MIME_TYPE = "mimeType";
+    static final String FIELD_CATEGORY_ID = "categoryId";
+    static final String FIELD_FILE_SIZE = "fileSize";
+    static final String FIELD_CREATED_AT = "createdAt";
+    static final String FIELD_NAME_SORT = "nameSort";
+
+    /**
+     * 分面维度
+     */
+    public static final String FACET_CATEGORY = "category";
+    public static final String FACET_MIME_TYPE = "mimeType";
+    public static final String FACET_TAG = "tag";
+
+    private static final String COMMIT_SYNCED_AT = "syncedAt";
+
+    /**
+     * 排序用的文件名最多保留的字符数
+     */
+    private static final int NAME_SORT_LENGTH = 128;
+
+    @Value("${search.lucene.path:./data/search-index}")
+    private String indexPath;
+
+    @Value("${search.lucene.ram-buffer-mb:32}")
+    private double ramBufferMb;
+
+    @Value("${search.lucene.facet-size:10}")
+    private int facetSize;
+
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+
+    private Directory directory;
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+    private boolean created;
+
+    /**
+     * 是否正在全量重建
+     */
+    private volatile boolean rebuilding;
+
+    /**
+     * 与当前 searcher 的 reader 对应的分面状态，reader 刷新后重建
+     */
+    private volatile FacetState facetState;
+
+    @PostConstruct
+    public void open() throws IOException {
+        facetsConfig.setMultiValued(FACET_TAG, true);
+
+        Path path = Path.of(indexPath);
+        Files.createDirectories(path);
+        directory = FSDirectory.open(path);
+        created = !DirectoryReader.indexExists(directory);
+        openWriter();
+        log.info("Opened file search index at {} ({} documents{})",
+                path.toAbsolutePath(), writer.getDocStats().numDocs, created ? ", newly created" : "");
+    }
+
+    private void openWriter() throws IOException {
+        IndexWriterConfig config = new IndexWriterConfig(new FileNameAnalyzer(true));
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        config.setRAMBufferSizeMB(ramBufferMb);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    public void close() {
+        try {
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        } catch (IOException e) {
+            log.error("Failed to close file search index", e);
+        }
+    }
+
+    /**
+     * 本次启动时索引是否不存在（新建），需要从数据库全量重建
+     */
+    public boolean isCreated() {
+        return created;
+    }
+
+    /**
+     * 上次提交时记录的同步时间，没有记录时返回 null
+     */
+    public LocalDateTime getSyncedAt() {
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> entry : commitData) {
+            if (COMMIT_SYNCED_AT.equals(entry.getKey())) {
+                return LocalDateTime.parse(entry.getValue());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 写入或替换文件文档
+     */
+    public void upsert(File file) {
+        try {
+            writer.updateDocument(new Term(FIELD_ID, file.getId()), facetsConfig.build(toDocument(file)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 删除文件文档
+     */
+    public void delete(Collection<String> fileIds) {
+        if (fileIds.isEmpty()) {
+            return;
+        }
+        try {
+            writer.deleteDocuments(fileIds.stream().map(id -> new Term(FIELD_ID, id)).toArray(Term[]::new));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 开始全量重建：清空索引并暂停 refresh 和 commit，搜索仍使用当前 searcher
+     */
+    public void beginRebuild() {
+        rebuilding = true;
+        try {
+            writer.deleteAll();
+        } catch (IOException e) {
+            abortRebuild();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 提交重建结果，之后的搜索切换到新索引
+     */
+    public void finishRebuild(LocalDateTime syncedAt) {
+        writeCommit(syncedAt);
+        rebuilding = false;
+        refresh();
+    }
+
+    /**
+     * 放弃重建：丢弃上次提交之后的全部写入，恢复到上次提交的索引
+     */
+    public void abortRebuild() {
+        try {
+            SearcherManager previous = searcherManager;
+            writer.rollback();
+            openWriter();
+            previous.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    /**
+     * 使已写入的变更对搜索可见；全量重建期间不刷新，避免暴露不完整的索引
+     */
+    public void refresh() {
+        if (rebuilding) {
+            return;
+        }
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.warn("Failed to refresh file search index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 提交变更并记录同步时间：该时间之前提交的数据库变更都已写入索引；全量重建期间不提交
+     */
+    public void commit(LocalDateTime syncedAt) {
+        if (rebuilding) {
+            log.debug("Skipping file search index commit during rebuild");
+            return;
+        }
+        writeCommit(syncedAt);
+    }
+
+    private void writeCommit(LocalDateTime syncedAt) {
+        try {
+            writer.setLiveCommitData(Map.of(COMMIT_SYNCED_AT, syncedAt.toString()).entrySet());
+            writer.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 搜索并统计分面
+     *
+     * @param offset 跳过的命中数
+     * @param limit  返回的最大命中数
+     */
+    public Hits search(Query query, Sort sort, int offset, int limit) {
+        IndexSearcher searcher;
+        try {
+            searcher = searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            FacetsCollector facetsCollector = new FacetsCollector();
+            TopDocs topDocs = FacetsCollector.search(searcher, query, offset + limit, sort, facetsCollector);
+            List<String> ids = new ArrayList<>(limit);
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            for (int i = offset; i < scoreDocs.length; i++) {
+                ids.add(searcher.storedFields().document(scoreDocs[i].doc).get(FIELD_ID));
+            }
+            return new Hits(topDocs.totalHits.value, ids, countFacets(searcher.getIndexReader(), facetsCollector));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            try {
+                searcherManager.release(searcher);
+            } catch (IOException e) {
+                log.warn("Failed to release index searcher: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Map<String, Map<String, Long>> countFacets(IndexReader reader, FacetsCollector collector)
+            throws IOException {
+        SortedSetDocValuesReaderState state = facetState(reader);
+        if (state == null) {
+            return Collections.emptyMap();
+        }
+        Facets facets = new SortedSetDocValuesFacetCounts(state, collector);
+        Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+        for (String dim : List.of(FACET_CATEGORY, FACET_MIME_TYPE, FACET_TAG)) {
+            FacetResult facetResult;
+            try {
+                facetResult = facets.getTopChildren(facetSize, dim);
+            } catch (IllegalArgumentException e) {
+                // 索引中还没有该维度的值
+                continue;
+            }
+            if (facetResult == null) {
+                continue;
+            }
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (LabelAndValue labelAndValue : facetResult.labelValues) {
+                counts.put(labelAndValue.label, labelAndValue.value.longValue());
+            }
+            result.put(dim, counts);
+        }
+        return result;
+    }
+
+    private SortedSetDocValuesReaderState facetState(IndexReader reader) throws IOException {
+        FacetState current = facetState;
+        if (current != null && current.reader == reader) {
+            return current.state;
+        }
+        SortedSetDocValuesReaderState state;
+        try {
+            state = new DefaultSortedSetDocValuesReaderState(reader, facetsConfig);
+        } catch (IllegalArgumentException e) {
+            // 索引中还没有任何分面字段
+            state = null;
+        }
+        facetState = new FacetState(reader, state);
+        return state;
+    }
+
+    private static Document toDocument(File file) {
+        Document doc = new Document();
+        doc.add(new StringField(FIELD_ID, file.getId(), Field.Store.YES));
+        if (file.getUploaderId() != null) {
+            doc.add(new StringField(FIELD_UPLOADER_ID, file.getUploaderId(), Field.Store.NO));
+        }
+        if (file.getName() != null) {
+            doc.add(new TextField(FIELD_NAME, file.getName(), Field.Store.NO));
+            String sortKey = file.getName().toLowerCase(Locale.ROOT);
+            if (sortKey.length() > NAME_SORT_LENGTH) {
+                sortKey = sortKey.substring(0, NAME_SORT_LENGTH);
+            }
+            doc.add(new SortedDocValuesField(FIELD_NAME_SORT, new BytesRef(sortKey)));
+        }
+        if (file.getOriginalName() != null) {
+            doc.add(new TextField(FIELD_ORIGINAL_NAME, file.getOriginalName(), Field.Store.NO));
+        }
+        if (file.getTags() != null) {
+            for (String tag : file.getTags()) {
+                if (tag == null || tag.isBlank()) {
+                    continue;
+                }
+                doc.add(new StringField(FIELD_TAG, tag, Field.Store.NO));
+                doc.add(new TextField(FIELD_TAG_TEXT, tag, Field.Store.NO));
+                doc.add(new SortedSetDocValuesFacetField(FACET_TAG, tag));
+            }
+        }
+        if (file.getMimeType() != null && !file.getMimeType().isEmpty()) {
+            doc.add(new StringField(FIELD_MIME_TYPE, file.getMimeType(), Field.Store.NO));
+            doc.add(new SortedSetDocValuesFacetField(FACET_MIME_TYPE, file.getMimeType()));
+        }
+        if (file.getCategoryId() != null && !file.getCategoryId().isEmpty()) {
+            doc.add(new StringField(FIELD_CATEGORY_ID, file.getCategoryId(), Field.Store.NO));
+            doc.add(new SortedSetDocValuesFacetField(FACET_CATEGORY, file.getCategoryId()));
+        }
+        long fileSize = file.getFileSize() != null ? file.getFileSize() : 0L;
+        doc.add(new LongPoint(FIELD_FILE_SIZE, fileSize));
+        doc.add(new NumericDocValuesField(FIELD_FILE_SIZE, fileSize));
+        long createdAt = file.getCreatedAt() != null ? toEpochMillis(file.getCreatedAt()) : 0L;
+        doc.add(new LongPoint(FIELD_CREATED_AT, createdAt));
+        doc.add(new NumericDocValuesField(FIELD_CREATED_AT, createdAt));
+        return doc;
+    }
+
+    static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 一页命中结果
+     *
+     * @param total   命中总数
+     * @param fileIds 当前页文件ID，按排序顺序
+     * @param facets  维度 -> (值 -> 文件数)
+     */
+    public record Hits(long total, List<String> fileIds, Map<String, Map<String, Long>> facets) {
+    }
+
+    private record FacetState(IndexReader reader, SortedSetDocValuesReaderState state) {
+    }
+}
@@ -0,0 +1,251 @@
+package com.idropin.infrastructure.search;
+
+import com.idropin.common.exception.BusinessException;
+import com.idropin.domain.dto.SearchRequest;
+import com.idropin.domain.entity.File;
+import com.idropin.infrastructure.persistence.mapper.FileMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.DisjunctionMaxQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Lucene 搜索引擎
+ * 关键字用与索引相同的文件名分词器拆词，每个词都必须命中原始文件名、存储文件名或标签之一：
+ * 字母数字词同时做精确、前缀和模糊（编辑距离 1~2）匹配，中文按二元组精确匹配。
+ * 过滤条件作为不计分的 filter 子句；命中的文件ID回表读取，已不存在的文件从索引中清理
+ *
+ * @author Idrop.in Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "search.engine", havingValue = "lucene")
+public class LuceneFileSearchEngine implements FileSearchEngine {
+
+    /**
+     * 参与匹配的最大词数
+     */
+    private static final int MAX_TERMS = 16;
+
+    /**
+     * 原始文件名、存储文件名、标签的权重
+     */
+    private static final float ORIGINAL_NAME_BOOST = 2.0f;
+    private static final float NAME_BOOST = 1.0f;
+    private static final float TAG_BOOST = 0.5f;
+
+    private final LuceneFileIndex index;
+    private final LuceneIndexSynchronizer synchronizer;
+    private final FileMapper fileMapper;
+
+    private final Analyzer queryAnalyzer = new FileNameAnalyzer(false);
+
+    @Value("${search.lucene.max-result-window:10000}")
+    private int maxResultWindow;
+
+    @Override
+    public FileSearchHits search(SearchRequest request, String userId) {
+        int page = request.getPage() != null ? request.getPage() : 0;
+        int size = request.getSize() != null && request.getSize() > 0 ? request.getSize() : 20;
+        // 与原分页行为一致：页码 0 和 1 都是第一页
+        long offset = (long) Math.max(page - 1, 0) * size;
+        if (offset + size > maxResultWindow) {
+            throw new BusinessException(400, "搜索结果最多翻到第 " + maxResultWindow + " 条，请缩小搜索范围");
+        }
+
+        String keyword = StringUtils.hasText(request.getKeyword()) ? request.getKeyword().trim() : null;
+        LuceneFileIndex.Hits hits = index.search(buildQuery(request, keyword, userId),
+                buildSort(request, keyword != null), (int) offset, size);
+        return new FileSearchHits(hits.total(), hydrate(hits.fileIds()), hits.facets());
+    }
+
+    private Query buildQuery(SearchRequest request, String keyword, String userId) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        builder.add(new TermQuery(new Term(LuceneFileIndex.FIELD_UPLOADER_ID, userId)), BooleanClause.Occur.FILTER);
+
+        if (keyword != null) {
+            builder.add(keywordQuery(keyword), BooleanClause.Occur.MUST);
+        }
+        if (StringUtils.hasText(request.getMimeType())) {
+            builder.add(new TermQuery(new Term(LuceneFileIndex.FIELD_MIME_TYPE, request.getMimeType())),
+                    BooleanClause.Occur.FILTER);
+        }
+        if (StringUtils.hasText(request.getCategoryId())) {
+            builder.add(new TermQuery(new Term(LuceneFileIndex.FIELD_CATEGORY_ID, request.getCategoryId())),
+                    BooleanClause.Occur.FILTER);
+        }
+        if (request.getTags() != null) {
+            for (String tag : request.getTags()) {
+                if (StringUtils.hasText(tag)) {
+                    builder.add(new TermQuery(new Term(LuceneFileIndex.FIELD_TAG, tag.trim())),
+                            BooleanClause.Occur.FILTER);
+                }
+            }
+        }
+        if (request.getMinFileSize() != null || request.getMaxFileSize() != null) {
+            builder.add(LongPoint.newRangeQuery(LuceneFileIndex.FIELD_FILE_SIZE,
+                    request.getMinFileSize() != null ? request.getMinFileSize() : Long.MIN_VALUE,
+                    request.getMaxFileSize() != null ? request.getMaxFileSize() : Long.MAX_VALUE),
+                    BooleanClause.Occur.FILTER);
+        }
+        LocalDateTime start = parseDate(request.getStartDate());
+        LocalDateTime end = parseDate(request.getEndDate());
+        if (start != null || end != null) {
+            builder.add(LongPoint.newRangeQuery(LuceneFileIndex.FIELD_CREATED_AT,
+                    start != null ? LuceneFileIndex.toEpochMillis(start) : Long.MIN_VALUE,
+                    end != null ? LuceneFileIndex.toEpochMillis(end) : Long.MAX_VALUE),
+                    BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 每个词都必须命中（AND），词在三个字段中取最高分
+     */
+    private Query keywordQuery(String keyword) {
+        List<String> terms = analyze(keyword);
+        if (terms.isEmpty()) {
+            return new MatchNoDocsQuery("keyword has no searchable terms");
+        }
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (String term : terms) {
+            List<Query> perField = List.of(
+                    new BoostQuery(termQuery(LuceneFileIndex.FIELD_ORIGINAL_NAME, term), ORIGINAL_NAME_BOOST),
+                    new BoostQuery(termQuery(LuceneFileIndex.FIELD_NAME, term), NAME_BOOST),
+                    new BoostQuery(termQuery(LuceneFileIndex.FIELD_TAG_TEXT, term), TAG_BOOST));
+            builder.add(new DisjunctionMaxQuery(perField, 0.1f), BooleanClause.Occur.MUST);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 单个词在一个字段上的匹配：中文二元组只做精确匹配，字母数字词再加前缀和模糊匹配，精确命中得分最高
+     */
+    private static Query termQuery(String field, String term) {
+        Term exact = new Term(field, term);
+        if (isCjk(term)) {
+            return new TermQuery(exact);
+        }
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        builder.add(new BoostQuery(new TermQuery(exact), 4.0f), BooleanClause.Occur.SHOULD);
+        builder.add(new BoostQuery(new PrefixQuery(exact), 2.0f), BooleanClause.Occur.SHOULD);
+        int length = term.codePointCount(0, term.length());
+        if (length >= 4) {
+            int maxEdits = length >= 8 ? 2 : 1;
+            builder.add(new FuzzyQuery(exact, maxEdits, 1), BooleanClause.Occur.SHOULD);
+        }
+        return builder.build();
+    }
+
+    private List<String> analyze(String keyword) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = queryAnalyzer.tokenStream(LuceneFileIndex.FIELD_NAME, keyword)) {
+            CharTermAttribute termAttribute = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken() && terms.size() < MAX_TERMS) {
+                String term = termAttribute.toString();
+                if (!terms.contains(term)) {
+                    terms.add(term);
+                }
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private static boolean isCjk(String term) {
+        return term.codePoints().anyMatch(codePoint -> {
+            Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+            return script == Character.UnicodeScript.HAN || script == Character.UnicodeScript.HIRAGANA
+                    || script == Character.UnicodeScript.KATAKANA || script == Character.UnicodeScript.HANGUL;
+        });
+    }
+
+    /**
+     * 未指定排序字段且有关键字时按相关度排序，同分按上传时间倒序
+     */
+    private static Sort buildSort(SearchRequest request, boolean hasKeyword) {
+        String sortBy = request.getSortBy();
+        boolean reverse = "desc".equalsIgnoreCase(request.getSortOrder());
+        if (!StringUtils.hasText(sortBy) || "relevance".equals(sortBy)) {
+            if (hasKeyword) {
+                return new Sort(SortField.FIELD_SCORE,
+                        new SortField(LuceneFileIndex.FIELD_CREATED_AT, SortField.Type.LONG, true));
+            }
+            sortBy = "createdAt";
+        }
+        return switch (sortBy) {
+            case "fileSize" -> new Sort(new SortField(LuceneFileIndex.FIELD_FILE_SIZE, SortField.Type.LONG, reverse));
+            case "name" -> new Sort(new SortField(LuceneFileIndex.FIELD_NAME_SORT, SortField.Type.STRING, reverse));
+            default -> new Sort(new SortField(LuceneFileIndex.FIELD_CREATED_AT, SortField.Type.LONG, reverse));
+        };
+    }
+
+    /**
+     * 按命中顺序回表读取文件；已删除或不再有效的文件跳过，并交给同步线程从索引中清理
+     */
+    private List<File> hydrate(List<String> fileIds) {
+        if (fileIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, File> filesById = fileMapper.selectByIdsIncludingDeleted(fileIds).stream()
+                .collect(Collectors.toMap(File::getId, Function.identity(), (a, b) -> a));
+        List<File> files = new ArrayList<>(fileIds.size());
+        List<String> stale = new ArrayList<>();
+        for (String fileId : fileIds) {
+            File file = filesById.get(fileId);
+            if (file != null && "ACTIVE".equals(file.getStatus()) && !Boolean.TRUE.equals(file.getDeleted())) {
+                files.add(file);
+            } else {
+                stale.add(fileId);
+            }
+        }
+        if (!stale.isEmpty()) {
+            log.debug("Search index returned {} stale files, scheduling cleanup", stale.size());
+            synchronizer.reindexAsync(stale);
+        }
+        return files;
+    }
+
+    private static LocalDateTime parseDate(String value) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (Exception e) {
+            log.warn("Invalid date format: {}", value);
+            return null;
+        }
+    }
+}
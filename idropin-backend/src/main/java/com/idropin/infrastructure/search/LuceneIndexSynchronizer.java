@@ -0,0 +1,250 @@
+package com.idropin.infrastructure.search;
+
+import com.idropin.domain.entity.File;
+import com.idropin.domain.event.CategoryEvent;
+import com.idropin.domain.event.FileEvent;
+import com.idropin.infrastructure.persistence.mapper.FileMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lucene 文件索引同步
+ * 文件上传、重命名、修改标签、移动、移入回收站、恢复和删除的事件在事务提交后进入单线程队列，
+ * 按文件ID回表读取最新数据后写入或移除文档；分类合并/删除等批量移动按用户补齐最近更新的文件。
+ * 启动时索引不存在则从数据库全量重建，否则补齐上次提交之后更新的文件；
+ * 重建在同一队列中执行，完成提交前搜索继续使用重建前的索引
+ *
+ * @author Idrop.in Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "search.engine", havingValue = "lucene")
+public class LuceneIndexSynchronizer {
+
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * 记录同步时间时回退的时长：事务提交与事件入队之间存在间隔，回退后重启时多补齐一段，保证不漏
+     */
+    private static final long SYNC_MARGIN_MINUTES = 1;
+
+    private final LuceneFileIndex index;
+    private final FileMapper fileMapper;
+
+    @Value("${search.lucene.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void startExecutor() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stopExecutor() {
+        // 先处理完已入队的变更，再提交一次
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+            index.commit(LocalDateTime.now().minusMinutes(SYNC_MARGIN_MINUTES));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Failed to commit file search index on shutdown", e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        LocalDateTime syncedAt = index.getSyncedAt();
+        if (index.isCreated() || rebuildOnStartup || syncedAt == null) {
+            submit(this::rebuild);
+        } else {
+            submit(() -> catchUp(null, syncedAt));
+        }
+    }
+
+    /**
+     * 事务提交后按文件ID同步
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFileEvent(FileEvent event) {
+        if (event.getFileIds().isEmpty()) {
+            return;
+        }
+        List<String> fileIds = event.getFileIds();
+        if (event.getType() == FileEvent.Type.DELETED) {
+            submit(() -> {
+                index.delete(fileIds);
+                index.refresh();
+            });
+        } else {
+            submit(() -> reindex(fileIds));
+        }
+    }
+
+    /**
+     * 分类删除/合并会批量移动文件而不发布文件事件，补齐该用户最近更新的文件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryEvent(CategoryEvent event) {
+        if (event.getUserId() == null) {
+            return;
+        }
+        LocalDateTime since = LocalDateTime.now().minusMinutes(SYNC_MARGIN_MINUTES);
+        submit(() -> catchUp(event.getUserId(), since));
+    }
+
+    /**
+     * 回表重新索引指定文件，搜索命中已不存在的文件时也由此清理
+     */
+    public void reindexAsync(Collection<String> fileIds) {
+        if (!fileIds.isEmpty()) {
+            List<String> ids = List.copyOf(fileIds);
+            submit(() -> reindex(ids));
+        }
+    }
+
+    /**
+     * 使新写入的文档对搜索可见
+     */
+    @Scheduled(fixedDelayString = "${search.lucene.refresh-interval-ms:1000}")
+    public void refresh() {
+        index.refresh();
+    }
+
+    /**
+     * 定期提交，记录已同步到的时间；在同步线程中执行，此前入队的变更都已写入
+     */
+    @Scheduled(fixedDelayString = "${search.lucene.commit-interval-ms:30000}")
+    public void commit() {
+        LocalDateTime syncedAt = LocalDateTime.now().minusMinutes(SYNC_MARGIN_MINUTES);
+        submit(() -> index.commit(syncedAt));
+    }
+
+    private void submit(Runnable task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    log.error("File search index sync task failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("File search indexer is shut down, change will be picked up on next startup");
+        }
+    }
+
+    private void reindex(List<String> fileIds) {
+        List<File> files = fileMapper.selectByIdsIncludingDeleted(fileIds);
+        Set<String> removed = new HashSet<>(fileIds);
+        for (File file : files) {
+            if (isSearchable(file)) {
+                index.upsert(file);
+                removed.remove(file.getId());
+            }
+        }
+        index.delete(removed);
+        index.refresh();
+    }
+
+    /**
+     * 从数据库全量重建索引；中断或失败时回滚，保留上次提交的索引
+     */
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        LocalDateTime syncedAt = LocalDateTime.now().minusMinutes(SYNC_MARGIN_MINUTES);
+        index.beginRebuild();
+        long count = 0;
+        try {
+            String afterId = null;
+            while (true) {
+                if (Thread.currentThread().isInterrupted()) {
+                    log.warn("File search index rebuild interrupted after {} files, rolling back", count);
+                    index.abortRebuild();
+                    return;
+                }
+                List<File> batch = fileMapper.selectSearchIndexBatch(true, null, null, afterId, BATCH_SIZE);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                batch.forEach(index::upsert);
+                count += batch.size();
+                afterId = batch.get(batch.size() - 1).getId();
+                if (batch.size() < BATCH_SIZE) {
+                    break;
+                }
+            }
+            index.finishRebuild(syncedAt);
+        } catch (RuntimeException e) {
+            index.abortRebuild();
+            throw e;
+        }
+        log.info("Rebuilt file search index with {} files in {} ms", count, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * 补齐 since 之后更新的文件，userId 为空时不限用户；已删除或不再有效的文件从索引中移除
+     */
+    private void catchUp(String userId, LocalDateTime since) {
+        long count = 0;
+        String afterId = null;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<File> batch = fileMapper.selectSearchIndexBatch(false, userId, since, afterId, BATCH_SIZE);
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<String> removed = new ArrayList<>();
+            for (File file : batch) {
+                if (isSearchable(file)) {
+                    index.upsert(file);
+                } else {
+                    removed.add(file.getId());
+                }
+            }
+            index.delete(removed);
+            count += batch.size();
+            afterId = batch.get(batch.size() - 1).getId();
+            if (batch.size() < BATCH_SIZE) {
+                break;
+            }
+        }
+        index.refresh();
+        if (userId == null) {
+            log.info("Synced {} files updated since {} into file search index", count, since);
+        }
+    }
+
+    private static boolean isSearchable(File file) {
+        return "ACTIVE".equals(file.getStatus()) && !Boolean.TRUE.equals(file.getDeleted());
+    }
+}
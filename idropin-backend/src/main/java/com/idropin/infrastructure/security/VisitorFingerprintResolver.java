@@ -0,0 +1,61 @@
+package com.idropin.infrastructure.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+
+/**
+ * 访客指纹解析器
+ * 以 HMAC(密钥, 日期 + IP + UA) 作为匿名访客标识，用于PV/UV去重，
+ * 不创建服务端会话也不下发Cookie；日期参与计算，同一访客的标识每天轮换
+ *
+ * @author Idrop.in Team
+ */
+@Component
+public class VisitorFingerprintResolver {
+
+  private static final String ALGORITHM = "HmacSHA256";
+
+  /**
+   * 截取的摘要字节数（16字节 = 32位十六进制）
+   */
+  private static final int FINGERPRINT_BYTES = 16;
+
+  /**
+   * Mac 实例非线程安全，按线程复用以避免每次请求重新初始化
+   */
+  private final ThreadLocal<Mac> macs;
+
+  public VisitorFingerprintResolver(@Value("${access-log.visitor-secret:${jwt.secret}}") String secret) {
+    SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    this.macs = ThreadLocal.withInitial(() -> {
+      try {
+        Mac mac = Mac.getInstance(ALGORITHM);
+        mac.init(key);
+        return mac;
+      } catch (GeneralSecurityException e) {
+        throw new IllegalStateException("HmacSHA256 is not available", e);
+      }
+    });
+  }
+
+  /**
+   * 计算访客指纹
+   *
+   * @param ip        客户端IP
+   * @param userAgent User-Agent，可为空
+   * @param day       所属日期（作为每日盐值）
+   * @return 32位十六进制指纹
+   */
+  public String resolve(String ip, String userAgent, LocalDate day) {
+    String material = day + "|" + (ip != null ? ip : "") + "|" + (userAgent != null ? userAgent : "");
+    byte[] digest = macs.get().doFinal(material.getBytes(StandardCharsets.UTF_8));
+    return HexFormat.of().formatHex(digest, 0, FINGERPRINT_BYTES);
+  }
+}
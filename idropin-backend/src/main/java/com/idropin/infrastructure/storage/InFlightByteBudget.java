@@ -0,0 +1,90 @@
+package com.idropin.infrastructure.storage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 按键限制进行中的字节数
+ * 每个键（用户）同时进行中的字节数不超过上限，超出的申请按先后顺序排队，
+ * 释放后依次放行；单个申请超过上限时，等该键没有进行中的字节再放行，避免永远等待。
+ * 申请以 CompletableFuture 返回，排队期间不占用线程
+ *
+ * @author Idrop.in Team
+ */
+public class InFlightByteBudget {
+
+    private final long limitBytes;
+
+    /**
+     * 键 -> 进行中字节数和排队的申请，全部空闲后移除
+     */
+    private final Map<String, Account> accounts = new HashMap<>();
+
+    public InFlightByteBudget(long limitBytes) {
+        this.limitBytes = limitBytes;
+    }
+
+    /**
+     * 申请额度，返回的 future 在额度可用时完成
+     */
+    public CompletableFuture<Void> acquire(String key, long bytes) {
+        long size = Math.max(bytes, 0L);
+        synchronized (accounts) {
+            Account account = accounts.computeIfAbsent(key, k -> new Account());
+            if (account.waiters.isEmpty() && account.fits(size)) {
+                account.inFlight += size;
+                return CompletableFuture.completedFuture(null);
+            }
+            Waiter waiter = new Waiter(size);
+            account.waiters.addLast(waiter);
+            return waiter.future;
+        }
+    }
+
+    /**
+     * 归还额度，并按顺序放行排队中可以容纳的申请
+     */
+    public void release(String key, long bytes) {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (accounts) {
+            Account account = accounts.get(key);
+            if (account == null) {
+                return;
+            }
+            account.inFlight = Math.max(0L, account.inFlight - Math.max(bytes, 0L));
+            while (!account.waiters.isEmpty() && account.fits(account.waiters.peekFirst().bytes)) {
+                Waiter waiter = account.waiters.pollFirst();
+                account.inFlight += waiter.bytes;
+                granted.add(waiter);
+            }
+            if (account.inFlight == 0 && account.waiters.isEmpty()) {
+                accounts.remove(key);
+            }
+        }
+        // 在锁外完成，后续阶段可能同步执行
+        granted.forEach(waiter -> waiter.future.complete(null));
+    }
+
+    private final class Account {
+        private long inFlight;
+        private final Deque<Waiter> waiters = new ArrayDeque<>();
+
+        private boolean fits(long bytes) {
+            return inFlight == 0 || inFlight + bytes <= limitBytes;
+        }
+    }
+
+    private static final class Waiter {
+        private final long bytes;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private Waiter(long bytes) {
+            this.bytes = bytes;
+        }
+    }
+}
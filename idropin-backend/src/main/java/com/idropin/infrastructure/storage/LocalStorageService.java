@@ -1,12 +1,15 @@
 package com.idropin.infrastructure.storage;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.*;
 import java.util.List;
 
@@ -56,6 +59,22 @@ public class LocalStorageService implements StorageService {
         }
     }
 
+    @Override
+    public InputStream downloadFileRange(String path, long offset, long length) {
+        try {
+            SeekableByteChannel channel = Files.newByteChannel(Paths.get(basePath, path));
+            try {
+                channel.position(offset);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            return new BoundedInputStream(Channels.newInputStream(channel), length);
+        } catch (IOException e) {
+            throw new RuntimeException("文件读取失败: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public void deleteFile(String path) {
         try {
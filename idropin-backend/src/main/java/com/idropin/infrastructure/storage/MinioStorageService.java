@@ -92,6 +92,23 @@ public class MinioStorageService implements StorageService {
         }
     }
 
+    @Override
+    public InputStream downloadFileRange(String objectName, long offset, long length) {
+        try {
+            return minioClient.getObject(
+                    GetObjectArgs.builder()
+                            .bucket(minioConfig.getBucket())
+                            .object(objectName)
+                            .offset(offset)
+                            .length(length)
+                            .build()
+            );
+        } catch (Exception e) {
+            log.error("Failed to read file range from MinIO: {}", objectName, e);
+            throw new BusinessException("文件读取失败: " + e.getMessage());
+        }
+    }
+
     @Override
     public void deleteFile(String objectName) {
         try {
@@ -0,0 +1,257 @@
+package com.idropin.infrastructure.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.idropin.infrastructure.batch.WriteAheadJournal;
+import com.idropin.infrastructure.persistence.mapper.FileMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 上传中对象跟踪
+ * 对象先写入存储、再在短事务中插入文件记录，两步之间失败或进程退出都会留下孤儿对象。
+ * 写对象前将存储路径记入本地预写日志，记录提交或对象被清理后确认；
+ * 启动时检查上次未确认的路径，没有对应文件记录的对象直接删除。
+ * 未能删除的对象定期重试，超过保留时间后放弃；预写日志超过条数上限时只保留未确认的记录重写
+ *
+ * @author Idrop.in Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PendingUploadTracker {
+
+    private static final int REPLAY_BATCH_SIZE = 500;
+
+    private final StorageService storageService;
+    private final FileMapper fileMapper;
+    private final ObjectMapper objectMapper;
+
+    @Value("${file.upload.pending-journal-path:./data/pending-upload.journal}")
+    private String journalPath;
+
+    @Value("${file.upload.pending-journal-compact-entries:10000}")
+    private int compactEntries;
+
+    @Value("${file.upload.orphan-retention-hours:168}")
+    private long orphanRetentionHours;
+
+    /**
+     * 已记入预写日志但尚未确认的存储路径（路径 -> 登记时间），与 unresolved 共用此锁
+     */
+    private final Map<String, Long> pending = new LinkedHashMap<>();
+
+    /**
+     * 未能删除的孤儿对象（路径 -> 首次登记时间），定期重试，重写预写日志时保留
+     */
+    private final Map<String, Long> unresolved = new LinkedHashMap<>();
+
+    /**
+     * 预写日志当前的记录条数（含已确认的）
+     */
+    private int journalEntries;
+
+    private WriteAheadJournal<Entry> journal;
+
+    @PostConstruct
+    public void start() {
+        journal = new WriteAheadJournal<>(Path.of(journalPath), objectMapper, Entry.class);
+        try {
+            cleanupOrphans(journal.open());
+        } catch (IOException e) {
+            log.error("Failed to open pending upload journal {}, orphaned objects will not be tracked", journalPath, e);
+            journal = null;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * 写对象前登记存储路径
+     */
+    public void begin(String storagePath) {
+        if (journal == null) {
+            return;
+        }
+        synchronized (pending) {
+            Entry entry = new Entry(storagePath, System.currentTimeMillis());
+            pending.put(storagePath, entry.since());
+            journal.append(entry);
+            journalEntries++;
+            compactIfNeeded();
+        }
+    }
+
+    /**
+     * 文件记录已提交，对象不再需要跟踪
+     */
+    public void complete(String storagePath) {
+        if (journal == null) {
+            return;
+        }
+        synchronized (pending) {
+            if (pending.remove(storagePath) == null) {
+                return;
+            }
+            if (pending.isEmpty() && unresolved.isEmpty()) {
+                journal.truncate();
+                journalEntries = 0;
+            } else {
+                compactIfNeeded();
+            }
+        }
+    }
+
+    /**
+     * 文件记录未能提交，删除已写入的对象
+     */
+    public void discard(String storagePath) {
+        try {
+            storageService.deleteFile(storagePath);
+            log.info("Removed orphaned upload object: {}", storagePath);
+        } catch (Exception e) {
+            // 保留在预写日志中，稍后重试
+            log.error("Failed to remove orphaned upload object: {}", storagePath, e);
+            synchronized (pending) {
+                unresolved.put(storagePath, pending.getOrDefault(storagePath, System.currentTimeMillis()));
+            }
+        }
+        complete(storagePath);
+    }
+
+    /**
+     * 定期重试未能删除的孤儿对象，放弃超过保留时间的对象，并重写预写日志
+     */
+    @Scheduled(fixedDelayString = "${file.upload.orphan-retry-ms:600000}")
+    public void retryUnresolved() {
+        if (journal == null) {
+            return;
+        }
+        List<Entry> candidates;
+        synchronized (pending) {
+            if (unresolved.isEmpty()) {
+                return;
+            }
+            candidates = new ArrayList<>();
+            unresolved.forEach((path, since) -> candidates.add(new Entry(path, since)));
+        }
+        Set<String> resolved = resolve(candidates);
+        long expireBefore = System.currentTimeMillis() - Duration.ofHours(orphanRetentionHours).toMillis();
+        synchronized (pending) {
+            resolved.forEach(unresolved::remove);
+            unresolved.entrySet().removeIf(entry -> {
+                if (entry.getValue() >= expireBefore) {
+                    return false;
+                }
+                log.warn("Giving up on orphaned upload object {} after {} hours", entry.getKey(), orphanRetentionHours);
+                return true;
+            });
+            compact();
+        }
+    }
+
+    /**
+     * 清理上次未确认的对象；无法确认或删除失败的路径保留在预写日志中，稍后继续清理
+     */
+    private void cleanupOrphans(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Map<String, Entry> byPath = new LinkedHashMap<>();
+        entries.forEach(entry -> byPath.putIfAbsent(entry.path(), entry));
+        Set<String> resolved = resolve(byPath.values());
+        synchronized (pending) {
+            byPath.forEach((path, entry) -> {
+                if (!resolved.contains(path)) {
+                    unresolved.put(path, entry.since());
+                }
+            });
+            compact();
+        }
+        log.info("Checked {} pending uploads from journal, {} left unresolved",
+                byPath.size(), byPath.size() - resolved.size());
+    }
+
+    /**
+     * 对照文件记录处理登记过的对象，返回已处理的路径：有文件记录的保留对象，没有的删除对象；
+     * 无法确认或删除失败的路径不在返回结果中
+     */
+    private Set<String> resolve(Iterable<Entry> entries) {
+        List<String> paths = new ArrayList<>();
+        entries.forEach(entry -> paths.add(entry.path()));
+        Set<String> resolved = new HashSet<>();
+        for (int i = 0; i < paths.size(); i += REPLAY_BATCH_SIZE) {
+            List<String> chunk = paths.subList(i, Math.min(i + REPLAY_BATCH_SIZE, paths.size()));
+            Set<String> existing;
+            try {
+                existing = new HashSet<>(fileMapper.selectExistingStoragePaths(chunk));
+            } catch (Exception e) {
+                log.error("Failed to check pending uploads against file records, keeping journal", e);
+                continue;
+            }
+            for (String path : chunk) {
+                if (existing.contains(path)) {
+                    resolved.add(path);
+                    continue;
+                }
+                try {
+                    storageService.deleteFile(path);
+                    log.info("Removed orphaned upload object: {}", path);
+                    resolved.add(path);
+                } catch (Exception e) {
+                    log.warn("Failed to remove orphaned upload object {}: {}", path, e.getMessage());
+                }
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * 条数超过上限且大部分已确认时才重写，未确认记录很多时避免每次登记都重写
+     */
+    private void compactIfNeeded() {
+        if (journalEntries >= compactEntries && journalEntries >= 2 * (pending.size() + unresolved.size())) {
+            compact();
+        }
+    }
+
+    /**
+     * 只保留未确认和未能删除的记录重写预写日志，调用方需持有锁
+     */
+    private void compact() {
+        List<Entry> live = new ArrayList<>(pending.size() + unresolved.size());
+        pending.forEach((path, since) -> live.add(new Entry(path, since)));
+        unresolved.forEach((path, since) -> {
+            if (!pending.containsKey(path)) {
+                live.add(new Entry(path, since));
+            }
+        });
+        journal.rewrite(live);
+        journalEntries = live.size();
+    }
+
+    /**
+     * 预写日志记录：存储路径和首次登记时间（毫秒时间戳）
+     */
+    record Entry(String path, long since) {
+    }
+}
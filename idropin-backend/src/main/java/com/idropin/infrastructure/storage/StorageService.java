@@ -29,6 +29,16 @@ public interface StorageService {
      */
     InputStream downloadFile(String objectName);
 
+    /**
+     * 读取文件的一段内容
+     *
+     * @param objectName 对象名称
+     * @param offset     起始偏移
+     * @param length     最多读取的字节数
+     * @return 输入流
+     */
+    InputStream downloadFileRange(String objectName, long offset, long length);
+
     /**
      * 删除文件
      *
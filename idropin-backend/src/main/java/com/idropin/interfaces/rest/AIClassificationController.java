@@ -1,14 +1,17 @@
 package com.idropin.interfaces.rest;
 
 import com.idropin.application.service.AIClassificationService;
+import com.idropin.application.service.BatchClassificationService;
 import com.idropin.common.vo.Result;
 import com.idropin.domain.dto.AIClassificationRequest;
 import com.idropin.domain.vo.AIClassificationResult;
+import com.idropin.domain.vo.ClassificationRunStatus;
 import com.idropin.infrastructure.security.CustomUserDetails;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
@@ -26,6 +29,7 @@ import org.springframework.web.bind.annotation.*;
 public class AIClassificationController {
 
   private final AIClassificationService aiClassificationService;
+  private final BatchClassificationService batchClassificationService;
 
   @PostMapping("/classify")
   @Operation(summary = "AI分类文件")
@@ -53,6 +57,21 @@ public class AIClassificationController {
     return Result.success(null);
   }
 
+  @PostMapping("/classification-runs")
+  @Operation(summary = "启动后台批量分类", description = "scope: NEW 仅分类尚未分类的文件，ALL 重新分类全部文件")
+  @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+  public Result<ClassificationRunStatus> startClassificationRun(
+      @RequestParam(defaultValue = ClassificationRunStatus.SCOPE_NEW) String scope) {
+    return Result.success(batchClassificationService.start(scope));
+  }
+
+  @GetMapping("/classification-runs/current")
+  @Operation(summary = "查询批量分类状态与吞吐")
+  @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+  public Result<ClassificationRunStatus> getClassificationRunStatus() {
+    return Result.success(batchClassificationService.getStatus());
+  }
+
   private String getUserId(UserDetails userDetails) {
     if (userDetails instanceof CustomUserDetails) {
       return ((CustomUserDetails) userDetails).getUserId();
@@ -5,6 +5,7 @@ import com.idropin.common.vo.Result;
 import com.idropin.domain.dto.CategoryCreateRequest;
 import com.idropin.domain.dto.CategoryUpdateRequest;
 import com.idropin.domain.entity.FileCategory;
+import com.idropin.domain.vo.CategoryDeleteResult;
 import com.idropin.domain.vo.CategoryTreeVO;
 import com.idropin.domain.vo.CategoryVO;
 import com.idropin.infrastructure.security.CustomUserDetails;
@@ -87,13 +88,24 @@ public class CategoryController {
     }
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "删除分类")
-    public Result<Void> deleteCategory(
+    @Operation(summary = "删除分类", description = "分类下的文件移到目标分类（不指定则移出分类），recursive=true 时连同子分类一起删除")
+    public Result<CategoryDeleteResult> deleteCategory(
             @PathVariable String id,
+            @RequestParam(required = false) String targetCategoryId,
+            @RequestParam(defaultValue = "false") boolean recursive,
             @AuthenticationPrincipal UserDetails userDetails) {
         String userId = getUserId(userDetails);
-        categoryService.deleteCategory(id, userId);
-        return Result.success(null);
+        return Result.success(categoryService.deleteCategory(id, targetCategoryId, recursive, userId));
+    }
+
+    @PostMapping("/{id}/merge")
+    @Operation(summary = "合并分类", description = "文件和子分类移到目标分类后删除当前分类")
+    public Result<CategoryDeleteResult> mergeCategory(
+            @PathVariable String id,
+            @RequestParam String targetCategoryId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        String userId = getUserId(userDetails);
+        return Result.success(categoryService.mergeCategory(id, targetCategoryId, userId));
     }
 
     private String getUserId(UserDetails userDetails) {
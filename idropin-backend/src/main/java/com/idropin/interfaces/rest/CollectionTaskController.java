@@ -2,14 +2,19 @@ package com.idropin.interfaces.rest;
 
 import com.idropin.application.service.CollectionTaskService;
 import com.idropin.application.service.FileService;
+import com.idropin.application.service.SubmissionExportService;
 import com.idropin.common.exception.BusinessException;
 import com.idropin.common.vo.Result;
 import com.idropin.domain.dto.CreateTaskRequest;
+import com.idropin.domain.dto.SubmissionQueryRequest;
 import com.idropin.domain.dto.TaskMoreInfoRequest;
 import com.idropin.domain.entity.CollectionTask;
 import com.idropin.domain.entity.FileSubmission;
 import com.idropin.domain.entity.TaskMoreInfo;
 import com.idropin.domain.entity.TaskSubmission;
+import com.idropin.domain.event.SubmissionEvent;
+import com.idropin.domain.vo.CursorPageVO;
+import com.idropin.domain.vo.FileSubmissionVO;
 import com.idropin.domain.vo.TaskStatisticsVO;
 import com.idropin.infrastructure.persistence.mapper.TaskMoreInfoMapper;
 import com.idropin.infrastructure.security.CustomUserDetails;
@@ -19,6 +24,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
@@ -49,6 +55,8 @@ public class CollectionTaskController {
   private final com.idropin.infrastructure.persistence.mapper.TaskSubmissionMapper taskSubmissionMapper;
   private final com.idropin.infrastructure.persistence.mapper.FileSubmissionMapper fileSubmissionMapper;
   private final com.idropin.infrastructure.persistence.mapper.FileMapper fileMapper;
+  private final ApplicationEventPublisher eventPublisher;
+  private final SubmissionExportService submissionExportService;
 
   @PostMapping
   @Operation(summary = "创建收集任务")
@@ -281,6 +289,7 @@ public class CollectionTaskController {
     submission.setSubmitterIp(clientIp); // 记录IP地址
     
     taskSubmissionMapper.insert(submission);
+    eventPublisher.publishEvent(new SubmissionEvent(taskId));
     
     log.info("Info submission created successfully with ID: {}", submission.getId());
     
@@ -301,6 +310,16 @@ public class CollectionTaskController {
     return Result.success(submissions);
   }
 
+  @GetMapping("/{taskId}/submissions/page")
+  @Operation(summary = "游标分页获取任务的提交记录")
+  public Result<CursorPageVO<FileSubmissionVO>> getTaskSubmissionPage(
+      @PathVariable String taskId,
+      SubmissionQueryRequest query,
+      @AuthenticationPrincipal UserDetails userDetails) {
+    String userId = getUserId(userDetails);
+    return Result.success(taskService.getTaskSubmissionPage(taskId, userId, query));
+  }
+
   @GetMapping("/all-submissions")
   @Operation(summary = "获取用户所有任务的提交记录")
   public Result<List<com.idropin.domain.vo.FileSubmissionVO>> getAllUserTaskSubmissions(
@@ -310,6 +329,15 @@ public class CollectionTaskController {
     return Result.success(submissions);
   }
 
+  @GetMapping("/all-submissions/page")
+  @Operation(summary = "游标分页获取用户所有任务的提交记录")
+  public Result<CursorPageVO<FileSubmissionVO>> getAllUserSubmissionPage(
+      SubmissionQueryRequest query,
+      @AuthenticationPrincipal UserDetails userDetails) {
+    String userId = getUserId(userDetails);
+    return Result.success(taskService.getAllUserSubmissionPage(userId, query));
+  }
+
   @GetMapping("/{taskId}/statistics")
   @Operation(summary = "获取任务统计")
   public Result<TaskStatisticsVO> getTaskStatistics(
@@ -535,79 +563,36 @@ public class CollectionTaskController {
       return Result.error(4001, "任务不存在");
     }
 
+    boolean fileTask = "FILE".equals(task.getCollectionType());
     List<Map<String, Object>> submissionList = new java.util.ArrayList<>();
-    int totalCount = 0;
-
-    // 根据任务类型查询不同的表
-    if ("FILE".equals(task.getCollectionType())) {
-      // 文件收集任务：查询 file_submission 表
-      log.info("Querying file_submission table for FILE collection task");
-      
-      List<com.idropin.domain.entity.FileSubmission> fileSubmissions = 
-        fileSubmissionMapper.selectList(
-          new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<com.idropin.domain.entity.FileSubmission>()
-            .eq("task_id", taskId)
-            .eq("submitter_name", submitterName)
-            .orderByDesc("submitted_at")
-        );
-      
-      totalCount = fileSubmissions.size();
-      
-      for (com.idropin.domain.entity.FileSubmission sub : fileSubmissions) {
-        Map<String, Object> item = new HashMap<>();
-        item.put("id", sub.getId());
-        item.put("submitterName", sub.getSubmitterName());
-        item.put("submittedAt", sub.getSubmittedAt());
-        item.put("submitterIp", sub.getSubmitterIp());
-        item.put("status", 0); // file_submission 没有 status 字段，默认为已提交
-        
-        // 查询文件信息
-        if (sub.getFileId() != null) {
-          com.idropin.domain.entity.File file = fileMapper.selectById(sub.getFileId());
-          if (file != null) {
-            item.put("fileName", file.getOriginalName());
-            item.put("fileSize", file.getFileSize());
-          }
-        }
-        
-        submissionList.add(item);
-      }
-      
-      log.info("Found {} file submissions for submitterName: {}", totalCount, submitterName);
-      
-    } else {
-      // 信息收集任务：查询 task_submission 表
-      log.info("Querying task_submission table for INFO collection task");
-      
-      List<TaskSubmission> taskSubmissions = taskSubmissionMapper.findByTaskKeyAndSubmitterName(taskId, submitterName);
-      totalCount = taskSubmissions.size();
-      
-      for (TaskSubmission sub : taskSubmissions) {
-        Map<String, Object> item = new HashMap<>();
-        item.put("id", sub.getId());
-        item.put("submitterName", sub.getSubmitterName());
-        item.put("submitterEmail", sub.getSubmitterEmail());
-        item.put("submittedAt", sub.getSubmittedAt());
-        item.put("infoData", sub.getInfoData());
-        item.put("fileName", sub.getFileName());
-        item.put("fileSize", sub.getFileSize());
-        item.put("status", sub.getStatus());
-        item.put("submitterIp", sub.getSubmitterIp());
-        submissionList.add(item);
-      }
-      
-      log.info("Found {} task submissions for submitterName: {}", totalCount, submitterName);
+    for (FileSubmissionVO vo : taskService.getPublicSubmissions(task, submitterName)) {
+      submissionList.add(toSubmissionItem(vo, fileTask, false));
     }
+    log.info("Found {} submissions for submitterName: {}", submissionList.size(), submitterName);
 
     Map<String, Object> result = new HashMap<>();
     result.put("submissions", submissionList);
-    result.put("count", totalCount);
+    result.put("count", submissionList.size());
     result.put("taskTitle", task.getTitle());
     result.put("collectionType", task.getCollectionType());
 
     return Result.success(result);
   }
 
+  @GetMapping("/{taskId}/public-submissions/page")
+  @Operation(summary = "游标分页获取提交者本人的提交记录")
+  public Result<CursorPageVO<FileSubmissionVO>> getPublicSubmissionPage(
+      @PathVariable String taskId,
+      @RequestParam(value = "submitterName", required = true) String submitterName,
+      SubmissionQueryRequest query) {
+
+    CollectionTask task = taskService.getTaskPublic(taskId);
+    if (task == null) {
+      return Result.error(4001, "任务不存在");
+    }
+    return Result.success(taskService.getPublicSubmissionPage(task, submitterName, query));
+  }
+
   @GetMapping("/{taskId}/info-submissions")
   @Operation(summary = "获取任务的信息提交记录（管理员）")
   public Result<Map<String, Object>> getInfoSubmissions(
@@ -619,170 +604,89 @@ public class CollectionTaskController {
     // 验证用户有权限访问此任务
     CollectionTask task = taskService.getTask(taskId, userId);
 
+    boolean fileTask = "FILE".equals(task.getCollectionType());
     List<Map<String, Object>> submissionList = new java.util.ArrayList<>();
-    int totalCount = 0;
-
-    // 根据任务类型查询不同的表
-    if ("FILE".equals(task.getCollectionType())) {
-      // 文件收集任务：查询 file_submission 表
-      log.info("Querying file_submission table for FILE collection task (admin)");
-      
-      List<com.idropin.domain.entity.FileSubmission> fileSubmissions = 
-        fileSubmissionMapper.selectList(
-          new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<com.idropin.domain.entity.FileSubmission>()
-            .eq("task_id", taskId)
-            .orderByDesc("submitted_at")
-        );
-      
-      totalCount = fileSubmissions.size();
-      
-      for (com.idropin.domain.entity.FileSubmission sub : fileSubmissions) {
-        Map<String, Object> item = new HashMap<>();
-        item.put("id", sub.getId());
-        item.put("submitterName", sub.getSubmitterName());
-        item.put("submitterEmail", sub.getSubmitterEmail());
-        item.put("submittedAt", sub.getSubmittedAt());
-        item.put("submitterIp", sub.getSubmitterIp());
-        item.put("status", 0); // file_submission 没有 status 字段，默认为已提交
-        item.put("infoData", "{}"); // 文件收集任务没有infoData
-        item.put("createdAt", sub.getCreatedAt());
-        
-        // 查询文件信息
-        if (sub.getFileId() != null) {
-          item.put("fileId", sub.getFileId());
-          com.idropin.domain.entity.File file = fileMapper.selectById(sub.getFileId());
-          if (file != null) {
-            item.put("fileName", file.getOriginalName());
-            item.put("fileSize", file.getFileSize());
-          }
-        }
-        
-        submissionList.add(item);
-      }
-      
-      log.info("Found {} file submissions for admin view", totalCount);
-      
-    } else {
-      // 信息收集任务：查询 task_submission 表
-      log.info("Querying task_submission table for INFO collection task (admin)");
-      
-      List<TaskSubmission> taskSubmissions = taskSubmissionMapper.findAllByTaskKey(taskId);
-      totalCount = taskSubmissions.size();
-      
-      for (TaskSubmission sub : taskSubmissions) {
-        Map<String, Object> item = new HashMap<>();
-        item.put("id", sub.getId());
-        item.put("submitterName", sub.getSubmitterName());
-        item.put("submitterEmail", sub.getSubmitterEmail());
-        item.put("submittedAt", sub.getSubmittedAt());
-        item.put("infoData", sub.getInfoData());
-        item.put("fileName", sub.getFileName());
-        item.put("fileSize", sub.getFileSize());
-        item.put("status", sub.getStatus());
-        item.put("createdAt", sub.getCreatedAt());
-        item.put("submitterIp", sub.getSubmitterIp());
-        submissionList.add(item);
-      }
-      
-      log.info("Found {} task submissions for admin view", totalCount);
+    for (FileSubmissionVO vo : taskService.getTaskSubmissions(taskId, userId)) {
+      submissionList.add(toSubmissionItem(vo, fileTask, true));
     }
+    log.info("Found {} submissions for admin view", submissionList.size());
 
     Map<String, Object> result = new HashMap<>();
     result.put("submissions", submissionList);
-    result.put("count", totalCount);
+    result.put("count", submissionList.size());
     result.put("taskTitle", task.getTitle());
     result.put("collectionType", task.getCollectionType());
 
     return Result.success(result);
   }
 
+  /**
+   * 转换为旧接口的提交记录格式
+   *
+   * @param adminView 是否为任务创建者视图（包含邮箱、文件ID和创建时间）
+   */
+  private Map<String, Object> toSubmissionItem(FileSubmissionVO vo, boolean fileTask, boolean adminView) {
+    Map<String, Object> item = new HashMap<>();
+    item.put("id", vo.getId());
+    item.put("submitterName", vo.getSubmitterName());
+    if (adminView || !fileTask) {
+      item.put("submitterEmail", vo.getSubmitterEmail());
+    }
+    item.put("submittedAt", vo.getSubmittedAt());
+    item.put("submitterIp", vo.getSubmitterIp());
+    item.put("status", vo.getStatus());
+    item.put("fileName", vo.getFileName());
+    item.put("fileSize", vo.getFileSize());
+    if (fileTask) {
+      if (adminView) {
+        item.put("infoData", "{}"); // 文件收集任务没有infoData
+        item.put("fileId", vo.getFileId());
+      }
+    } else {
+      item.put("infoData", vo.getInfoData());
+    }
+    if (adminView) {
+      item.put("createdAt", vo.getCreatedAt());
+    }
+    return item;
+  }
+
   @GetMapping("/{taskId}/info-submissions/export")
-  @Operation(summary = "导出任务的信息提交记录（CSV格式）")
+  @Operation(summary = "导出任务的信息提交记录（CSV/XLSX格式）")
   public void exportInfoSubmissions(
       @PathVariable String taskId,
       @RequestParam(value = "format", defaultValue = "csv") String format,
+      @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
       @AuthenticationPrincipal UserDetails userDetails,
       jakarta.servlet.http.HttpServletResponse response) throws java.io.IOException {
 
     String userId = getUserId(userDetails);
 
+    boolean xlsx = "xlsx".equalsIgnoreCase(format);
+    if (!xlsx && !"csv".equalsIgnoreCase(format)) {
+      throw new BusinessException(400, "不支持的导出格式: " + format);
+    }
+    boolean compress = gzip && !xlsx;
+
     // 验证用户有权限访问此任务
     CollectionTask task = taskService.getTask(taskId, userId);
 
-    // 查询所有信息提交记录
-    List<TaskSubmission> submissions = taskSubmissionMapper.findAllByTaskKey(taskId);
-
     // 生成文件名：任务名称_提交记录_年-月-日
     String dateStr = java.time.LocalDate.now().toString(); // 格式：2026-02-02
-    String filename = task.getTitle() + "_提交记录_" + dateStr + ".csv";
-    response.setContentType("text/csv;charset=UTF-8");
+    String filename = task.getTitle() + "_提交记录_" + dateStr + (xlsx ? ".xlsx" : compress ? ".csv.gz" : ".csv");
+    if (xlsx) {
+      response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+    } else if (compress) {
+      response.setContentType("application/gzip");
+    } else {
+      response.setContentType("text/csv;charset=UTF-8");
+    }
     response.setHeader("Content-Disposition", "attachment; filename=\"" +
         java.net.URLEncoder.encode(filename, "UTF-8") + "\"");
-    response.setCharacterEncoding("UTF-8");
-
-    java.io.PrintWriter writer = response.getWriter();
-    
-    // 写入BOM以支持Excel正确识别UTF-8
-    writer.write('\uFEFF');
-
-    // 收集所有可能的字段名
-    java.util.Set<String> allFields = new java.util.LinkedHashSet<>();
-    allFields.add("提交者");
-    allFields.add("提交时间");
-    allFields.add("状态");
-
-    for (TaskSubmission sub : submissions) {
-      if (sub.getInfoData() != null && !sub.getInfoData().isEmpty()) {
-        try {
-          com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-          java.util.Map<String, String> infoMap = objectMapper.readValue(sub.getInfoData(),
-              new com.fasterxml.jackson.core.type.TypeReference<java.util.Map<String, String>>() {});
-          allFields.addAll(infoMap.keySet());
-        } catch (Exception e) {
-          log.warn("Failed to parse infoData: {}", e.getMessage());
-        }
-      }
-    }
-
-    // 写入表头
-    writer.println(String.join(",", allFields));
-
-    // 写入数据行
-    for (TaskSubmission sub : submissions) {
-      java.util.List<String> row = new java.util.ArrayList<>();
-      java.util.Map<String, String> infoMap = new java.util.HashMap<>();
-
-      if (sub.getInfoData() != null && !sub.getInfoData().isEmpty()) {
-        try {
-          com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-          infoMap = objectMapper.readValue(sub.getInfoData(),
-              new com.fasterxml.jackson.core.type.TypeReference<java.util.Map<String, String>>() {});
-        } catch (Exception e) {
-          log.warn("Failed to parse infoData: {}", e.getMessage());
-        }
-      }
-
-      for (String field : allFields) {
-        String value = "";
-        if ("提交者".equals(field)) {
-          value = sub.getSubmitterName() != null ? sub.getSubmitterName() : "";
-        } else if ("提交时间".equals(field)) {
-          value = sub.getSubmittedAt() != null ? sub.getSubmittedAt().toString() : "";
-        } else if ("状态".equals(field)) {
-          value = sub.getStatus() == 0 ? "已提交" : "已撤回";
-        } else {
-          value = infoMap.getOrDefault(field, "");
-        }
-        // 处理CSV特殊字符
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-          value = "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        row.add(value);
-      }
-      writer.println(String.join(",", row));
-    }
 
-    writer.flush();
+    // 逐行读取、逐行写出，内存占用与提交数无关
+    submissionExportService.exportInfoSubmissions(task, format, compress, response.getOutputStream());
+    response.flushBuffer();
   }
 
   @PostMapping("/{taskId}/info-submissions/{submissionId}/withdraw")
@@ -821,6 +725,7 @@ public class CollectionTaskController {
     submission.setStatus(1);
     submission.setUpdatedAt(LocalDateTime.now());
     taskSubmissionMapper.updateById(submission);
+    eventPublisher.publishEvent(new SubmissionEvent(taskId));
 
     log.info("Info submission withdrawn successfully: {}", submissionId);
 
@@ -864,6 +769,7 @@ public class CollectionTaskController {
       int deletedRows = fileSubmissionMapper.deleteByIdString(submissionId);
       
       if (deletedRows > 0) {
+        eventPublisher.publishEvent(new SubmissionEvent(taskId));
         log.info("File submission withdrawn successfully: {}", submissionId);
       } else {
         throw new BusinessException("撤回失败，请重试");
@@ -892,6 +798,7 @@ public class CollectionTaskController {
       taskSubmission.setStatus(1);
       taskSubmission.setUpdatedAt(LocalDateTime.now());
       taskSubmissionMapper.updateById(taskSubmission);
+      eventPublisher.publishEvent(new SubmissionEvent(taskId));
       
       log.info("Info submission withdrawn successfully: {}", submissionId);
     }
@@ -918,6 +825,7 @@ public class CollectionTaskController {
     }
 
     taskSubmissionMapper.deleteById(submissionId);
+    eventPublisher.publishEvent(new SubmissionEvent(taskId));
     log.info("Admin deleted submission: {}", submissionId);
     return Result.success(null);
   }
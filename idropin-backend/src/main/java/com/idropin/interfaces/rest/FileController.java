@@ -2,12 +2,15 @@ package com.idropin.interfaces.rest;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.idropin.application.service.FileService;
+import com.idropin.application.service.TrashPurgeService;
 import com.idropin.common.vo.Result;
 import com.idropin.domain.dto.FileQueryRequest;
 import com.idropin.domain.dto.FileUpdateRequest;
 import com.idropin.domain.entity.File;
+import com.idropin.domain.entity.FilePurgeJob;
 import com.idropin.domain.entity.TaskSubmission;
 import com.idropin.domain.entity.TaskMoreInfo;
+import com.idropin.domain.vo.CursorPageVO;
 import com.idropin.domain.vo.FileUploadResult;
 import com.idropin.domain.vo.FileVO;
 import com.idropin.infrastructure.persistence.mapper.TaskSubmissionMapper;
@@ -32,6 +35,8 @@ import java.io.OutputStream;
 import java.net.URLEncoder;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  * 文件控制器
@@ -46,6 +51,7 @@ import java.util.List;
 public class FileController {
 
     private final FileService fileService;
+    private final TrashPurgeService trashPurgeService;
     private final StorageService storageService;
     private final TaskSubmissionMapper taskSubmissionMapper;
     private final com.idropin.infrastructure.persistence.mapper.FileSubmissionMapper fileSubmissionMapper;
@@ -64,12 +70,12 @@ public class FileController {
 
     @PostMapping("/upload/batch")
     @Operation(summary = "多文件上传")
-    public Result<List<FileUploadResult>> uploadFiles(
+    public CompletableFuture<Result<List<FileUploadResult>>> uploadFiles(
             @RequestParam("files") List<MultipartFile> files,
             @AuthenticationPrincipal UserDetails userDetails) {
         String userId = getUserId(userDetails);
-        List<FileUploadResult> results = fileService.uploadFiles(files, userId);
-        return Result.success(results);
+        // 异步返回，等待存储写入期间不占用请求线程
+        return fileService.uploadFiles(files, userId).thenApply(Result::success);
     }
 
     @GetMapping("/{id}/download")
@@ -155,6 +161,15 @@ public class FileController {
         return Result.success(voPage);
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "游标分页获取文件列表")
+    public Result<CursorPageVO<FileVO>> getFilePage(
+            FileQueryRequest query,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        String userId = getUserId(userDetails);
+        return Result.success(toVOPage(fileService.getFilePage(query, userId)));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "获取文件详情")
     public Result<FileVO> getFile(
@@ -259,11 +274,19 @@ public class FileController {
     }
 
     @DeleteMapping("/trash/empty")
-    @Operation(summary = "清空回收站")
-    public Result<Void> emptyTrash(@AuthenticationPrincipal UserDetails userDetails) {
+    @Operation(summary = "清空回收站", description = "后台分批删除，返回清理任务，可通过任务ID查询进度")
+    public Result<FilePurgeJob> emptyTrash(@AuthenticationPrincipal UserDetails userDetails) {
         String userId = getUserId(userDetails);
-        fileService.emptyTrash(userId);
-        return Result.success(null);
+        return Result.success(trashPurgeService.submitEmptyTrash(userId));
+    }
+
+    @GetMapping("/trash/purge-jobs/{jobId}")
+    @Operation(summary = "查询回收站清理任务")
+    public Result<FilePurgeJob> getPurgeJob(
+            @PathVariable String jobId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        String userId = getUserId(userDetails);
+        return Result.success(trashPurgeService.getJob(jobId, userId));
     }
 
     @GetMapping("/trash")
@@ -283,6 +306,24 @@ public class FileController {
         return Result.success(voPage);
     }
 
+    @GetMapping("/trash/page")
+    @Operation(summary = "游标分页获取回收站文件列表")
+    public Result<CursorPageVO<FileVO>> getTrashFilePage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        String userId = getUserId(userDetails);
+        return Result.success(toVOPage(fileService.getTrashFilePage(cursor, size, includeTotal, userId)));
+    }
+
+    private CursorPageVO<FileVO> toVOPage(CursorPageVO<File> page) {
+        List<FileVO> items = page.getItems().stream()
+                .map(file -> FileVO.fromEntity(file, storageService.getFileUrl(file.getStoragePath())))
+                .collect(Collectors.toList());
+        return new CursorPageVO<>(items, page.getNextCursor(), page.isHasMore(), page.getTotal());
+    }
+
     @GetMapping("/trash/count")
     @Operation(summary = "获取回收站文件数量")
     public Result<Long> getTrashCount(@AuthenticationPrincipal UserDetails userDetails) {
@@ -0,0 +1,74 @@
+package com.idropin.interfaces.websocket;
+
+import com.idropin.domain.event.FileEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户统计推送调度器
+ * 监听文件事件，按用户合并（防抖）后推送到 /user/queue/statistics，
+ * 同一用户在一个防抖窗口内的多次变更只触发一次统计重算
+ *
+ * @author Idrop.in Team
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StatisticsPushDispatcher {
+
+  private final StatisticsWebSocketController statisticsWebSocketController;
+
+  @Value("${statistics.push.debounce-ms:2000}")
+  private long debounceMillis;
+
+  /**
+   * 等待推送的用户（用户ID -> 已调度的推送任务）
+   */
+  private final Map<String, ScheduledFuture<?>> pendingPushes = new ConcurrentHashMap<>();
+
+  private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+    Thread thread = new Thread(runnable, "statistics-push");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * 事务提交后接收文件事件；无事务时直接处理
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onFileEvent(FileEvent event) {
+    String userId = event.getUserId();
+    if (userId == null || userId.isEmpty()) {
+      return;
+    }
+    // 重命名和修改标签不影响统计数据
+    if (event.getType() == FileEvent.Type.UPDATED) {
+      return;
+    }
+    pendingPushes.computeIfAbsent(userId, id ->
+        scheduler.schedule(() -> push(id), debounceMillis, TimeUnit.MILLISECONDS));
+  }
+
+  private void push(String userId) {
+    // 先移除再计算，计算期间到达的事件会开启下一个窗口
+    pendingPushes.remove(userId);
+    statisticsWebSocketController.sendUserStatistics(userId);
+    log.debug("Pushed debounced statistics to user: {}", userId);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+  }
+}
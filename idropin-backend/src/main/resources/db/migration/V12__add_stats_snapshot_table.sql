@@ -0,0 +1,23 @@
+-- ========================================
+-- 每日统计快照表 - 概况统计中的"昨日"数据
+-- PostgreSQL 16
+-- ========================================
+
+CREATE TABLE IF NOT EXISTS sys_stats_snapshot (
+    snapshot_date DATE PRIMARY KEY,
+    new_user_count BIGINT NOT NULL DEFAULT 0,
+    new_file_count BIGINT NOT NULL DEFAULT 0,
+    new_log_count BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE sys_stats_snapshot IS '每日统计快照表，每天只计算一次，避免重复扫描';
+COMMENT ON COLUMN sys_stats_snapshot.snapshot_date IS '快照对应的日期';
+COMMENT ON COLUMN sys_stats_snapshot.new_user_count IS '当日新增用户数';
+COMMENT ON COLUMN sys_stats_snapshot.new_file_count IS '当日新增文件数';
+COMMENT ON COLUMN sys_stats_snapshot.new_log_count IS '当日新增操作日志数';
+
+-- 快照按 created_at 范围计算，确保范围查询可走索引
+CREATE INDEX IF NOT EXISTS idx_file_created_at ON file(created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_sys_user_created_at ON sys_user(created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_sys_operation_log_created ON sys_operation_log(created_at DESC);
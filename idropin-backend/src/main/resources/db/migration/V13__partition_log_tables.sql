@@ -0,0 +1,119 @@
+-- ========================================
+-- 访问日志 / 操作日志按月分区 + 访问日志小时汇总
+-- PostgreSQL 16
+-- ========================================
+
+-- 1) 按月创建分区的辅助函数，分区命名为 <父表>_pYYYYMM
+CREATE OR REPLACE FUNCTION ensure_monthly_partition(parent_table TEXT, month_start DATE)
+RETURNS TEXT AS $$
+DECLARE
+    from_date DATE := date_trunc('month', month_start)::date;
+    to_date DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::date;
+    partition_name TEXT := parent_table || '_p' || to_char(from_date, 'YYYYMM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, parent_table, from_date, to_date);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 2) 访问日志改为分区表（分区键必须包含在主键中）
+ALTER TABLE sys_access_log RENAME TO sys_access_log_legacy;
+
+CREATE TABLE sys_access_log (
+    id VARCHAR(36) NOT NULL DEFAULT gen_random_uuid()::text,
+    user_id VARCHAR(36) REFERENCES sys_user(id) ON DELETE SET NULL,
+    ip_address VARCHAR(50) NOT NULL,
+    user_agent TEXT,
+    request_path VARCHAR(500) NOT NULL,
+    request_method VARCHAR(10),
+    referer VARCHAR(500),
+    session_id VARCHAR(100),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+COMMENT ON TABLE sys_access_log IS '访问日志表 - 按月分区，过期分区整体删除';
+COMMENT ON COLUMN sys_access_log.user_id IS '用户ID，未登录为NULL';
+COMMENT ON COLUMN sys_access_log.session_id IS '访客标识，用于UV统计';
+
+-- 3) 操作日志改为分区表
+ALTER TABLE sys_operation_log RENAME TO sys_operation_log_legacy;
+
+CREATE TABLE sys_operation_log (
+    id VARCHAR(36) NOT NULL DEFAULT gen_random_uuid()::text,
+    operator_id VARCHAR(36) NOT NULL REFERENCES sys_user(id) ON DELETE CASCADE,
+    operation_type VARCHAR(50) NOT NULL,
+    target_type VARCHAR(50),
+    target_id VARCHAR(36),
+    description TEXT,
+    ip_address VARCHAR(50),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+COMMENT ON TABLE sys_operation_log IS '操作日志表 - 按月分区，过期分区整体删除';
+COMMENT ON COLUMN sys_operation_log.operation_type IS '操作类型';
+COMMENT ON COLUMN sys_operation_log.target_type IS '目标类型';
+
+-- 4) 为历史数据和未来3个月创建分区
+DO $$
+DECLARE
+    month_cursor DATE;
+    last_month DATE := (date_trunc('month', CURRENT_DATE) + INTERVAL '3 month')::date;
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(created_at), CURRENT_DATE))::date INTO month_cursor FROM sys_access_log_legacy;
+    WHILE month_cursor <= last_month LOOP
+        PERFORM ensure_monthly_partition('sys_access_log', month_cursor);
+        month_cursor := (month_cursor + INTERVAL '1 month')::date;
+    END LOOP;
+
+    SELECT date_trunc('month', COALESCE(MIN(created_at), CURRENT_DATE))::date INTO month_cursor FROM sys_operation_log_legacy;
+    WHILE month_cursor <= last_month LOOP
+        PERFORM ensure_monthly_partition('sys_operation_log', month_cursor);
+        month_cursor := (month_cursor + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+-- 5) 迁移历史数据
+INSERT INTO sys_access_log (id, user_id, ip_address, user_agent, request_path, request_method, referer, session_id, created_at)
+SELECT id, user_id, ip_address, user_agent, request_path, request_method, referer, session_id,
+       COALESCE(created_at, CURRENT_TIMESTAMP)
+FROM sys_access_log_legacy;
+
+INSERT INTO sys_operation_log (id, operator_id, operation_type, target_type, target_id, description, ip_address, created_at)
+SELECT id, operator_id, operation_type, target_type, target_id, description, ip_address,
+       COALESCE(created_at, CURRENT_TIMESTAMP)
+FROM sys_operation_log_legacy;
+
+-- 6) 分区表索引（自动应用到每个分区）
+CREATE INDEX IF NOT EXISTS idx_access_log_p_created_at ON sys_access_log(created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_access_log_p_user ON sys_access_log(user_id);
+CREATE INDEX IF NOT EXISTS idx_oplog_p_created_at ON sys_operation_log(created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_oplog_p_operator ON sys_operation_log(operator_id);
+CREATE INDEX IF NOT EXISTS idx_oplog_p_type ON sys_operation_log(operation_type);
+
+-- 7) 访问日志小时汇总表，长期保留，原始日志过期后统计仍可用
+CREATE TABLE IF NOT EXISTS sys_access_log_hourly (
+    bucket_hour TIMESTAMP PRIMARY KEY,
+    pv_count BIGINT NOT NULL DEFAULT 0,
+    uv_count BIGINT NOT NULL DEFAULT 0,
+    login_pv_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE sys_access_log_hourly IS '访问日志小时汇总表';
+COMMENT ON COLUMN sys_access_log_hourly.bucket_hour IS '小时起点';
+COMMENT ON COLUMN sys_access_log_hourly.uv_count IS '该小时内的独立访客数（不可跨小时相加）';
+COMMENT ON COLUMN sys_access_log_hourly.login_pv_count IS '登录用户的访问量';
+
+INSERT INTO sys_access_log_hourly (bucket_hour, pv_count, uv_count, login_pv_count)
+SELECT date_trunc('hour', created_at), COUNT(*), COUNT(DISTINCT session_id), COUNT(user_id)
+FROM sys_access_log
+WHERE created_at < date_trunc('hour', CURRENT_TIMESTAMP)
+GROUP BY date_trunc('hour', created_at)
+ON CONFLICT (bucket_hour) DO NOTHING;
+
+-- 8) 删除旧表（快照统计中的旧索引随之删除）
+DROP TABLE sys_access_log_legacy;
+DROP TABLE sys_operation_log_legacy;
@@ -0,0 +1,38 @@
+-- ========================================
+-- 文件软删除标记改为 NOT NULL + "有效文件" 部分索引
+-- PostgreSQL 16
+-- ========================================
+
+-- 1) 旧库可能缺少软删除字段
+ALTER TABLE file ADD COLUMN IF NOT EXISTS deleted BOOLEAN DEFAULT FALSE;
+ALTER TABLE file ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+
+-- 2) 规范化软删除标记，查询不再需要 deleted IS NULL OR deleted = false
+UPDATE file SET deleted = FALSE WHERE deleted IS NULL;
+ALTER TABLE file ALTER COLUMN deleted SET DEFAULT FALSE;
+ALTER TABLE file ALTER COLUMN deleted SET NOT NULL;
+
+COMMENT ON COLUMN file.deleted IS '软删除标记（回收站）';
+
+-- 3) 有效文件（status = 'ACTIVE' AND deleted = false）的部分索引，谓词与 FileMapper 中的查询保持一致
+-- 文件列表、数量和容量统计：按上传者，时间倒序；INCLUDE 列支持统计查询走仅索引扫描
+CREATE INDEX IF NOT EXISTS idx_file_active_uploader_created
+    ON file (uploader_id, created_at DESC)
+    INCLUDE (file_size, mime_type, category_id)
+    WHERE status = 'ACTIVE' AND deleted = false;
+
+-- 分类下的文件列表和数量
+CREATE INDEX IF NOT EXISTS idx_file_active_category_created
+    ON file (category_id, created_at DESC)
+    WHERE status = 'ACTIVE' AND deleted = false;
+
+-- 回收站列表和过期清理：按上传者，删除时间倒序
+CREATE INDEX IF NOT EXISTS idx_file_trash_uploader_deleted_at
+    ON file (uploader_id, deleted_at DESC)
+    WHERE deleted = true;
+
+-- 4) 被上述索引覆盖的旧索引
+DROP INDEX IF EXISTS idx_file_deleted;
+DROP INDEX IF EXISTS idx_file_status;
+
+ANALYZE file;
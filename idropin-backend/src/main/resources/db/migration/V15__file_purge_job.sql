@@ -0,0 +1,32 @@
+-- ========================================
+-- 回收站清理任务表 - 清空回收站 / 过期自动清理按批后台执行
+-- PostgreSQL 16
+-- ========================================
+
+CREATE TABLE IF NOT EXISTS file_purge_job (
+    id VARCHAR(36) PRIMARY KEY,
+    user_id VARCHAR(36),
+    job_type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    cutoff TIMESTAMP NOT NULL,
+    purged_count BIGINT NOT NULL DEFAULT 0,
+    error_message TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP
+);
+
+COMMENT ON TABLE file_purge_job IS '回收站清理任务表，每批删除后更新进度，中断后可继续执行';
+COMMENT ON COLUMN file_purge_job.user_id IS '清空回收站的用户ID，自动清理任务为NULL';
+COMMENT ON COLUMN file_purge_job.job_type IS '任务类型：EMPTY_TRASH / AUTO_PURGE';
+COMMENT ON COLUMN file_purge_job.status IS '任务状态：PENDING / RUNNING / COMPLETED / FAILED';
+COMMENT ON COLUMN file_purge_job.cutoff IS '只清理在此时间及之前移入回收站的文件';
+COMMENT ON COLUMN file_purge_job.purged_count IS '已删除的文件数';
+
+-- 同一用户同时只保留一个未完成的清空任务
+CREATE UNIQUE INDEX IF NOT EXISTS uk_file_purge_job_active_user
+    ON file_purge_job(user_id) WHERE status IN ('PENDING', 'RUNNING');
+CREATE INDEX IF NOT EXISTS idx_file_purge_job_status ON file_purge_job(status, updated_at);
+
+-- 自动清理按 deleted_at 跨用户扫描回收站
+CREATE INDEX IF NOT EXISTS idx_file_trash_deleted_at ON file(deleted_at) WHERE deleted = true;
@@ -0,0 +1,20 @@
+-- ========================================
+-- 系统默认分类 - 上传时按文件类型自动归类使用
+-- PostgreSQL 16
+-- ========================================
+
+-- 这六个ID一直被上传逻辑当作全站默认分类使用，统一改为系统分类（user_id 为空）
+INSERT INTO file_category (id, name, user_id, sort_order, created_at) VALUES
+    ('43d7428b-0468-4623-abe4-19f50e8db9a0', '文档', NULL, 1, CURRENT_TIMESTAMP),
+    ('72e62a74-a7e0-4737-8361-cd8384093cd0', '图片', NULL, 2, CURRENT_TIMESTAMP),
+    ('fb79c20d-d601-419b-8947-b1d1c55a6131', '视频', NULL, 3, CURRENT_TIMESTAMP),
+    ('d9e923c1-bc8e-4da1-b361-3f5628d67826', '音频', NULL, 4, CURRENT_TIMESTAMP),
+    ('133f9930-e9a6-4db7-bcd4-9c4daa6ce008', '压缩包', NULL, 5, CURRENT_TIMESTAMP),
+    ('de17a518-59ec-44ef-a6b6-495d99b0ba0c', '其他', NULL, 6, CURRENT_TIMESTAMP)
+ON CONFLICT (id) DO NOTHING;
+
+UPDATE file_category SET user_id = NULL
+WHERE id::text IN ('43d7428b-0468-4623-abe4-19f50e8db9a0', '72e62a74-a7e0-4737-8361-cd8384093cd0',
+                   'fb79c20d-d601-419b-8947-b1d1c55a6131', 'd9e923c1-bc8e-4da1-b361-3f5628d67826',
+                   '133f9930-e9a6-4db7-bcd4-9c4daa6ce008', 'de17a518-59ec-44ef-a6b6-495d99b0ba0c')
+  AND user_id IS NOT NULL;
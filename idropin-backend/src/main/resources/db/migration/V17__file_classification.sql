@@ -0,0 +1,13 @@
+-- ========================================
+-- 文件批量分类 - 记录按文件内容完成分类的时间
+-- PostgreSQL 16
+-- ========================================
+
+ALTER TABLE file ADD COLUMN IF NOT EXISTS classified_at TIMESTAMP;
+
+COMMENT ON COLUMN file.classified_at IS '后台按文件头/扩展名/MIME 规则完成分类的时间，为空表示待分类';
+
+-- 待分类的有效文件，按 ID 键集扫描；分类完成后行即离开索引，索引只包含新上传的文件
+CREATE INDEX IF NOT EXISTS idx_file_unclassified
+    ON file (id)
+    WHERE classified_at IS NULL AND status = 'ACTIVE' AND deleted = false;
@@ -0,0 +1,64 @@
+-- ========================================
+-- 日志默认分区 + 操作日志小时汇总
+-- PostgreSQL 16
+-- ========================================
+
+-- 1) 按月创建分区：默认分区中已有该月数据时，先迁出数据再挂载为分区
+CREATE OR REPLACE FUNCTION ensure_monthly_partition(parent_table TEXT, month_start DATE)
+RETURNS TEXT AS $$
+DECLARE
+    from_date DATE := date_trunc('month', month_start)::date;
+    to_date DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::date;
+    partition_name TEXT := parent_table || '_p' || to_char(from_date, 'YYYYMM');
+    default_name TEXT := parent_table || '_default';
+    has_rows BOOLEAN := FALSE;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+
+    IF to_regclass(default_name) IS NOT NULL THEN
+        -- 阻止并发写入落入默认分区，直到新分区挂载完成
+        EXECUTE format('LOCK TABLE %I IN EXCLUSIVE MODE', default_name);
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE created_at >= %L AND created_at < %L)',
+                       default_name, from_date, to_date) INTO has_rows;
+    END IF;
+
+    IF NOT has_rows THEN
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, parent_table, from_date, to_date);
+        RETURN partition_name;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                   partition_name, parent_table);
+    EXECUTE format('WITH moved AS (DELETE FROM %I WHERE created_at >= %L AND created_at < %L RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved',
+                   default_name, from_date, to_date, partition_name);
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   parent_table, partition_name, from_date, to_date);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 2) 默认分区：接收预建分区范围之外的写入（如时钟偏差或长时间未执行分区维护），避免插入失败
+CREATE TABLE IF NOT EXISTS sys_access_log_default PARTITION OF sys_access_log DEFAULT;
+CREATE TABLE IF NOT EXISTS sys_operation_log_default PARTITION OF sys_operation_log DEFAULT;
+
+-- 3) 操作日志小时汇总表，长期保留，原始日志分区过期删除后总数仍可用
+CREATE TABLE IF NOT EXISTS sys_operation_log_hourly (
+    bucket_hour TIMESTAMP PRIMARY KEY,
+    log_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE sys_operation_log_hourly IS '操作日志小时汇总表';
+COMMENT ON COLUMN sys_operation_log_hourly.bucket_hour IS '小时起点';
+COMMENT ON COLUMN sys_operation_log_hourly.log_count IS '该小时内的操作日志数';
+
+INSERT INTO sys_operation_log_hourly (bucket_hour, log_count)
+SELECT date_trunc('hour', created_at), COUNT(*)
+FROM sys_operation_log
+WHERE created_at < date_trunc('hour', CURRENT_TIMESTAMP)
+GROUP BY date_trunc('hour', created_at)
+ON CONFLICT (bucket_hour) DO NOTHING;
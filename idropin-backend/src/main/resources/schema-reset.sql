@@ -4,6 +4,9 @@
 -- Generated based on entity classes
 -- ============================================
 
+-- pg_trgm for file name substring search (see V18)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 -- Drop all tables in correct order (handle foreign keys)
 DROP TABLE IF EXISTS file_submission CASCADE;
 DROP TABLE IF EXISTS task_submission CASCADE;
@@ -21,6 +24,10 @@ DROP TABLE IF EXISTS sys_feedback_reply CASCADE;
 DROP TABLE IF EXISTS sys_feedback CASCADE;
 DROP TABLE IF EXISTS sys_message CASCADE;
 DROP TABLE IF EXISTS sys_route_config CASCADE;
+DROP TABLE IF EXISTS sys_stats_snapshot CASCADE;
+DROP TABLE IF EXISTS sys_access_log_hourly CASCADE;
+DROP TABLE IF EXISTS sys_operation_log_hourly CASCADE;
+DROP TABLE IF EXISTS file_purge_job CASCADE;
 DROP TABLE IF EXISTS sys_user CASCADE;
 
 -- ============================================
@@ -48,6 +55,7 @@ CREATE TABLE sys_user (
 CREATE INDEX idx_sys_user_username ON sys_user(username);
 CREATE INDEX idx_sys_user_email ON sys_user(email);
 CREATE INDEX idx_sys_user_status ON sys_user(status);
+CREATE INDEX idx_sys_user_created_at ON sys_user(created_at DESC);
 
 -- ============================================
 -- 2. file_category - 文件分类表
@@ -83,17 +91,62 @@ CREATE TABLE file (
     category_id VARCHAR(36),
     uploader_id VARCHAR(36),  -- NULL allowed for anonymous uploads
     status VARCHAR(20) DEFAULT 'ACTIVE',
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    deleted_at TIMESTAMP,
+    classified_at TIMESTAMP,
+    search_vector TSVECTOR,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
 CREATE INDEX idx_file_uploader ON file(uploader_id);
 CREATE INDEX idx_file_category ON file(category_id);
-CREATE INDEX idx_file_status ON file(status);
 CREATE INDEX idx_file_mime_type ON file(mime_type);
 CREATE INDEX idx_file_created_at ON file(created_at DESC);
 CREATE INDEX idx_file_tags ON file USING GIN(tags);
 CREATE INDEX idx_file_metadata ON file USING GIN(metadata);
+-- 有效文件（status = 'ACTIVE' AND deleted = false）的部分索引，与 V14 一致
+CREATE INDEX idx_file_active_uploader_created ON file(uploader_id, created_at DESC)
+    INCLUDE (file_size, mime_type, category_id) WHERE status = 'ACTIVE' AND deleted = false;
+CREATE INDEX idx_file_active_category_created ON file(category_id, created_at DESC)
+    WHERE status = 'ACTIVE' AND deleted = false;
+CREATE INDEX idx_file_trash_uploader_deleted_at ON file(uploader_id, deleted_at DESC)
+    WHERE deleted = true;
+-- 自动清理按 deleted_at 跨用户扫描回收站，与 V15 一致
+CREATE INDEX idx_file_trash_deleted_at ON file(deleted_at) WHERE deleted = true;
+-- 待分类的有效文件，与 V17 一致
+CREATE INDEX idx_file_unclassified ON file(id)
+    WHERE classified_at IS NULL AND status = 'ACTIVE' AND deleted = false;
+-- 文件搜索（search.engine = postgres）的分词与文件名三元组索引，与 V18 一致；
+-- 三元组索引要求数据库 LC_CTYPE 为 UTF-8 区域设置，否则中文字符不产生三元组
+CREATE INDEX idx_file_search_vector ON file USING GIN(search_vector)
+    WHERE status = 'ACTIVE' AND deleted = false;
+CREATE INDEX idx_file_name_trgm ON file USING GIN(name gin_trgm_ops)
+    WHERE status = 'ACTIVE' AND deleted = false;
+CREATE INDEX idx_file_original_name_trgm ON file USING GIN(original_name gin_trgm_ops)
+    WHERE status = 'ACTIVE' AND deleted = false;
+
+-- 文件名分词与维护触发器，与 V18 一致：标点替换为空格后用 'simple' 配置分词，
+-- 原始文件名（A）、存储文件名（B）、标签（C）
+CREATE OR REPLACE FUNCTION file_search_text(value TEXT)
+RETURNS TEXT AS $$
+    SELECT lower(regexp_replace(COALESCE(value, ''), '[[:punct:][:space:]]+', ' ', 'g'));
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION file_search_vector_update()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.search_vector :=
+        setweight(to_tsvector('simple', file_search_text(NEW.original_name)), 'A') ||
+        setweight(to_tsvector('simple', file_search_text(NEW.name)), 'B') ||
+        setweight(to_tsvector('simple', file_search_text(array_to_string(NEW.tags, ' '))), 'C');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_file_search_vector
+    BEFORE INSERT OR UPDATE OF name, original_name, tags ON file
+    FOR EACH ROW EXECUTE FUNCTION file_search_vector_update();
 
 -- ============================================
 -- 4. file_chunk - 文件分片表
@@ -253,23 +306,23 @@ CREATE INDEX idx_people_list_name ON people_list(people_name);
 CREATE INDEX idx_people_list_admin ON people_list(admin_username);
 
 -- ============================================
--- 11. sys_access_log - 访问日志表
+-- 11. sys_access_log - 访问日志表（按月分区）
 -- ============================================
 CREATE TABLE sys_access_log (
-    id VARCHAR(36) PRIMARY KEY,
-    user_id VARCHAR(36),
-    ip_address VARCHAR(45),
+    id VARCHAR(36) NOT NULL DEFAULT gen_random_uuid()::text,
+    user_id VARCHAR(36) REFERENCES sys_user(id) ON DELETE SET NULL,
+    ip_address VARCHAR(50) NOT NULL,
     user_agent TEXT,
-    request_path VARCHAR(500),
+    request_path VARCHAR(500) NOT NULL,
     request_method VARCHAR(10),
     referer VARCHAR(500),
     session_id VARCHAR(100),
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
 
-CREATE INDEX idx_access_log_user ON sys_access_log(user_id);
-CREATE INDEX idx_access_log_ip ON sys_access_log(ip_address);
-CREATE INDEX idx_access_log_created_at ON sys_access_log(created_at DESC);
+CREATE INDEX idx_access_log_p_created_at ON sys_access_log(created_at DESC);
+CREATE INDEX idx_access_log_p_user ON sys_access_log(user_id);
 
 -- ============================================
 -- 12. password_reset_token - 密码重置令牌表
@@ -333,23 +386,74 @@ CREATE INDEX idx_message_user ON sys_message(user_id);
 CREATE INDEX idx_message_read ON sys_message(is_read);
 
 -- ============================================
--- 16. sys_operation_log - 操作日志表
+-- 16. sys_operation_log - 操作日志表（按月分区）
 -- ============================================
 CREATE TABLE sys_operation_log (
-    id VARCHAR(36) PRIMARY KEY,
-    user_id VARCHAR(36),
-    operation VARCHAR(100),
-    method VARCHAR(10),
-    params TEXT,
-    ip VARCHAR(45),
-    status INTEGER,
-    error_msg TEXT,
-    duration BIGINT,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
-
-CREATE INDEX idx_operation_log_user ON sys_operation_log(user_id);
-CREATE INDEX idx_operation_log_created_at ON sys_operation_log(created_at DESC);
+    id VARCHAR(36) NOT NULL DEFAULT gen_random_uuid()::text,
+    operator_id VARCHAR(36) NOT NULL REFERENCES sys_user(id) ON DELETE CASCADE,
+    operation_type VARCHAR(50) NOT NULL,
+    target_type VARCHAR(50),
+    target_id VARCHAR(36),
+    description TEXT,
+    ip_address VARCHAR(50),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_oplog_p_created_at ON sys_operation_log(created_at DESC);
+CREATE INDEX idx_oplog_p_operator ON sys_operation_log(operator_id);
+CREATE INDEX idx_oplog_p_type ON sys_operation_log(operation_type);
+
+-- ============================================
+-- 日志分区：当月及未来3个月的分区加默认分区，与 V13、V19 一致，之后由日志维护任务按月预建
+-- ============================================
+CREATE OR REPLACE FUNCTION ensure_monthly_partition(parent_table TEXT, month_start DATE)
+RETURNS TEXT AS $$
+DECLARE
+    from_date DATE := date_trunc('month', month_start)::date;
+    to_date DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::date;
+    partition_name TEXT := parent_table || '_p' || to_char(from_date, 'YYYYMM');
+    default_name TEXT := parent_table || '_default';
+    has_rows BOOLEAN := FALSE;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+
+    IF to_regclass(default_name) IS NOT NULL THEN
+        -- 阻止并发写入落入默认分区，直到新分区挂载完成
+        EXECUTE format('LOCK TABLE %I IN EXCLUSIVE MODE', default_name);
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE created_at >= %L AND created_at < %L)',
+                       default_name, from_date, to_date) INTO has_rows;
+    END IF;
+
+    IF NOT has_rows THEN
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, parent_table, from_date, to_date);
+        RETURN partition_name;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                   partition_name, parent_table);
+    EXECUTE format('WITH moved AS (DELETE FROM %I WHERE created_at >= %L AND created_at < %L RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved',
+                   default_name, from_date, to_date, partition_name);
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   parent_table, partition_name, from_date, to_date);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+BEGIN
+    FOR i IN 0..3 LOOP
+        PERFORM ensure_monthly_partition('sys_access_log', (CURRENT_DATE + make_interval(months => i))::date);
+        PERFORM ensure_monthly_partition('sys_operation_log', (CURRENT_DATE + make_interval(months => i))::date);
+    END LOOP;
+END $$;
+
+CREATE TABLE sys_access_log_default PARTITION OF sys_access_log DEFAULT;
+CREATE TABLE sys_operation_log_default PARTITION OF sys_operation_log DEFAULT;
 
 -- ============================================
 -- 17. sys_route_config - 路由配置表
@@ -367,6 +471,70 @@ CREATE TABLE sys_route_config (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- ============================================
+-- 18. sys_stats_snapshot - 每日统计快照表
+-- ============================================
+CREATE TABLE sys_stats_snapshot (
+    snapshot_date DATE PRIMARY KEY,
+    new_user_count BIGINT NOT NULL DEFAULT 0,
+    new_file_count BIGINT NOT NULL DEFAULT 0,
+    new_log_count BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- ============================================
+-- 19. sys_access_log_hourly - 访问日志小时汇总表
+-- ============================================
+CREATE TABLE sys_access_log_hourly (
+    bucket_hour TIMESTAMP PRIMARY KEY,
+    pv_count BIGINT NOT NULL DEFAULT 0,
+    uv_count BIGINT NOT NULL DEFAULT 0,
+    login_pv_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- ============================================
+-- 20. sys_operation_log_hourly - 操作日志小时汇总表
+-- ============================================
+CREATE TABLE sys_operation_log_hourly (
+    bucket_hour TIMESTAMP PRIMARY KEY,
+    log_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- ============================================
+-- 21. file_purge_job - 回收站清理任务表
+-- ============================================
+CREATE TABLE file_purge_job (
+    id VARCHAR(36) PRIMARY KEY,
+    user_id VARCHAR(36),
+    job_type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    cutoff TIMESTAMP NOT NULL,
+    purged_count BIGINT NOT NULL DEFAULT 0,
+    error_message TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP
+);
+
+-- 同一用户同时只保留一个未完成的清空任务
+CREATE UNIQUE INDEX uk_file_purge_job_active_user
+    ON file_purge_job(user_id) WHERE status IN ('PENDING', 'RUNNING');
+CREATE INDEX idx_file_purge_job_status ON file_purge_job(status, updated_at);
+
+
+-- ============================================
+-- 系统默认分类（user_id 为空），ID 与 V16 迁移一致
+-- ============================================
+INSERT INTO file_category (id, name, icon, color, sort_order) VALUES
+('43d7428b-0468-4623-abe4-19f50e8db9a0', '文档', '📄', '#3b82f6', 1),
+('72e62a74-a7e0-4737-8361-cd8384093cd0', '图片', '🖼️', '#10b981', 2),
+('fb79c20d-d601-419b-8947-b1d1c55a6131', '视频', '🎬', '#f59e0b', 3),
+('d9e923c1-bc8e-4da1-b361-3f5628d67826', '音频', '🎵', '#8b5cf6', 4),
+('133f9930-e9a6-4db7-bcd4-9c4daa6ce008', '压缩包', '📦', '#f97316', 5),
+('de17a518-59ec-44ef-a6b6-495d99b0ba0c', '其他', '📁', '#6b7280', 6);
+
 -- ============================================
 -- Insert test user (password: 891124wyh)
 -- BCrypt hash of 891124wyh
@@ -3,6 +3,9 @@
 -- PostgreSQL 16
 -- ========================================
 
+-- 文件名模糊搜索使用 pg_trgm 三元组索引
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 -- 删除已存在的表
 DROP TABLE IF EXISTS file_submission CASCADE;
 DROP TABLE IF EXISTS file_share CASCADE;
@@ -11,6 +14,12 @@ DROP TABLE IF EXISTS file_category CASCADE;
 DROP TABLE IF EXISTS file CASCADE;
 DROP TABLE IF EXISTS file_chunk CASCADE;
 DROP TABLE IF EXISTS sys_user CASCADE;
+DROP TABLE IF EXISTS sys_stats_snapshot CASCADE;
+DROP TABLE IF EXISTS sys_operation_log CASCADE;
+DROP TABLE IF EXISTS sys_access_log CASCADE;
+DROP TABLE IF EXISTS sys_access_log_hourly CASCADE;
+DROP TABLE IF EXISTS sys_operation_log_hourly CASCADE;
+DROP TABLE IF EXISTS file_purge_job CASCADE;
 
 -- ========================================
 -- 1. 用户表 (sys_user)
@@ -36,6 +45,7 @@ CREATE TABLE file_category (
     id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
     name VARCHAR(100) NOT NULL,
     parent_id UUID REFERENCES file_category(id) ON DELETE SET NULL,
+    user_id UUID,
     icon VARCHAR(50),
     color VARCHAR(20),
     sort_order INTEGER DEFAULT 0,
@@ -60,13 +70,18 @@ CREATE TABLE file (
     category_id UUID REFERENCES file_category(id) ON DELETE SET NULL,
     uploader_id UUID NOT NULL REFERENCES sys_user(id) ON DELETE CASCADE,
     status VARCHAR(20) DEFAULT 'ACTIVE',
-    deleted BOOLEAN DEFAULT FALSE,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
     deleted_at TIMESTAMP,
+    classified_at TIMESTAMP,
+    search_vector TSVECTOR,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
 COMMENT ON TABLE file IS '文件表';
+COMMENT ON COLUMN file.deleted IS '软删除标记（回收站）';
+COMMENT ON COLUMN file.classified_at IS '后台按文件头/扩展名/MIME 规则完成分类的时间，为空表示待分类';
+COMMENT ON COLUMN file.search_vector IS '文件名与标签的分词结果，由触发器维护';
 
 -- ========================================
 -- 4. 文件分享表 (file_share)
@@ -203,6 +218,161 @@ CREATE TABLE sys_system_config (
 
 COMMENT ON TABLE sys_system_config IS '系统配置表';
 
+-- ========================================
+-- 11. 每日统计快照表 (sys_stats_snapshot)
+-- ========================================
+CREATE TABLE sys_stats_snapshot (
+    snapshot_date DATE PRIMARY KEY,
+    new_user_count BIGINT NOT NULL DEFAULT 0,
+    new_file_count BIGINT NOT NULL DEFAULT 0,
+    new_log_count BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE sys_stats_snapshot IS '每日统计快照表，每天只计算一次，避免重复扫描';
+
+-- ========================================
+-- 12. 操作日志表 (sys_operation_log，按月分区)
+-- ========================================
+CREATE TABLE sys_operation_log (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    operator_id UUID NOT NULL REFERENCES sys_user(id) ON DELETE CASCADE,
+    operation_type VARCHAR(50) NOT NULL,
+    target_type VARCHAR(50),
+    target_id UUID,
+    description TEXT,
+    ip_address VARCHAR(50),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_oplog_p_created_at ON sys_operation_log(created_at DESC);
+CREATE INDEX idx_oplog_p_operator ON sys_operation_log(operator_id);
+CREATE INDEX idx_oplog_p_type ON sys_operation_log(operation_type);
+
+COMMENT ON TABLE sys_operation_log IS '操作日志表 - 按月分区，过期分区整体删除';
+
+-- ========================================
+-- 13. 访问日志表 (sys_access_log，按月分区)
+-- ========================================
+CREATE TABLE sys_access_log (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    user_id UUID REFERENCES sys_user(id) ON DELETE SET NULL,
+    ip_address VARCHAR(50) NOT NULL,
+    user_agent TEXT,
+    request_path VARCHAR(500) NOT NULL,
+    request_method VARCHAR(10),
+    referer VARCHAR(500),
+    session_id VARCHAR(100),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_access_log_p_created_at ON sys_access_log(created_at DESC);
+CREATE INDEX idx_access_log_p_user ON sys_access_log(user_id);
+
+COMMENT ON TABLE sys_access_log IS '访问日志表 - 按月分区，过期分区整体删除';
+COMMENT ON COLUMN sys_access_log.session_id IS '访客标识，用于UV统计';
+
+-- ========================================
+-- 日志分区：当月及未来3个月的分区加默认分区，与 V13、V19 一致，之后由日志维护任务按月预建
+-- ========================================
+CREATE OR REPLACE FUNCTION ensure_monthly_partition(parent_table TEXT, month_start DATE)
+RETURNS TEXT AS $$
+DECLARE
+    from_date DATE := date_trunc('month', month_start)::date;
+    to_date DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::date;
+    partition_name TEXT := parent_table || '_p' || to_char(from_date, 'YYYYMM');
+    default_name TEXT := parent_table || '_default';
+    has_rows BOOLEAN := FALSE;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+
+    IF to_regclass(default_name) IS NOT NULL THEN
+        -- 阻止并发写入落入默认分区，直到新分区挂载完成
+        EXECUTE format('LOCK TABLE %I IN EXCLUSIVE MODE', default_name);
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE created_at >= %L AND created_at < %L)',
+                       default_name, from_date, to_date) INTO has_rows;
+    END IF;
+
+    IF NOT has_rows THEN
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, parent_table, from_date, to_date);
+        RETURN partition_name;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                   partition_name, parent_table);
+    EXECUTE format('WITH moved AS (DELETE FROM %I WHERE created_at >= %L AND created_at < %L RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved',
+                   default_name, from_date, to_date, partition_name);
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   parent_table, partition_name, from_date, to_date);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+BEGIN
+    FOR i IN 0..3 LOOP
+        PERFORM ensure_monthly_partition('sys_access_log', (CURRENT_DATE + make_interval(months => i))::date);
+        PERFORM ensure_monthly_partition('sys_operation_log', (CURRENT_DATE + make_interval(months => i))::date);
+    END LOOP;
+END $$;
+
+CREATE TABLE sys_access_log_default PARTITION OF sys_access_log DEFAULT;
+CREATE TABLE sys_operation_log_default PARTITION OF sys_operation_log DEFAULT;
+
+-- ========================================
+-- 14. 访问日志小时汇总表 (sys_access_log_hourly)
+-- ========================================
+CREATE TABLE sys_access_log_hourly (
+    bucket_hour TIMESTAMP PRIMARY KEY,
+    pv_count BIGINT NOT NULL DEFAULT 0,
+    uv_count BIGINT NOT NULL DEFAULT 0,
+    login_pv_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE sys_access_log_hourly IS '访问日志小时汇总表';
+
+-- ========================================
+-- 15. 操作日志小时汇总表 (sys_operation_log_hourly)
+-- ========================================
+CREATE TABLE sys_operation_log_hourly (
+    bucket_hour TIMESTAMP PRIMARY KEY,
+    log_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE sys_operation_log_hourly IS '操作日志小时汇总表';
+
+-- ========================================
+-- 16. 回收站清理任务表 (file_purge_job)
+-- ========================================
+-- 任务ID由应用生成（32位UUID字符串），与 V15 一致使用 VARCHAR
+CREATE TABLE file_purge_job (
+    id VARCHAR(36) PRIMARY KEY,
+    user_id VARCHAR(36),
+    job_type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    cutoff TIMESTAMP NOT NULL,
+    purged_count BIGINT NOT NULL DEFAULT 0,
+    error_message TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP
+);
+
+COMMENT ON TABLE file_purge_job IS '回收站清理任务表，每批删除后更新进度，中断后可继续执行';
+COMMENT ON COLUMN file_purge_job.user_id IS '清空回收站的用户ID，自动清理任务为NULL';
+COMMENT ON COLUMN file_purge_job.job_type IS '任务类型：EMPTY_TRASH / AUTO_PURGE';
+COMMENT ON COLUMN file_purge_job.status IS '任务状态：PENDING / RUNNING / COMPLETED / FAILED';
+COMMENT ON COLUMN file_purge_job.cutoff IS '只清理在此时间及之前移入回收站的文件';
+COMMENT ON COLUMN file_purge_job.purged_count IS '已删除的文件数';
+
 -- ========================================
 -- 索引创建
 -- ========================================
@@ -219,8 +389,24 @@ CREATE INDEX idx_file_category ON file(category_id);
 CREATE INDEX idx_file_tags ON file USING GIN(tags);
 CREATE INDEX idx_file_metadata ON file USING GIN(metadata);
 CREATE INDEX idx_file_created_at ON file(created_at DESC);
-CREATE INDEX idx_file_status ON file(status);
 CREATE INDEX idx_file_mime_type ON file(mime_type);
+-- 有效文件（status = 'ACTIVE' AND deleted = false）的部分索引，与 V14 一致
+CREATE INDEX idx_file_active_uploader_created ON file(uploader_id, created_at DESC)
+    INCLUDE (file_size, mime_type, category_id) WHERE status = 'ACTIVE' AND deleted = false;
+CREATE INDEX idx_file_active_category_created ON file(category_id, created_at DESC)
+    WHERE status = 'ACTIVE' AND deleted = false;
+CREATE INDEX idx_file_trash_uploader_deleted_at ON file(uploader_id, deleted_at DESC)
+    WHERE deleted = true;
+-- 自动清理按 deleted_at 跨用户扫描回收站，与 V15 一致
+CREATE INDEX idx_file_trash_deleted_at ON file(deleted_at) WHERE deleted = true;
+-- 待分类的有效文件，与 V17 一致
+CREATE INDEX idx_file_unclassified ON file(id)
+    WHERE classified_at IS NULL AND status = 'ACTIVE' AND deleted = false;
+
+-- 回收站清理任务表索引（同一用户同时只保留一个未完成的清空任务）
+CREATE UNIQUE INDEX uk_file_purge_job_active_user
+    ON file_purge_job(user_id) WHERE status IN ('PENDING', 'RUNNING');
+CREATE INDEX idx_file_purge_job_status ON file_purge_job(status, updated_at);
 
 -- 文件分类表索引
 CREATE INDEX idx_file_category_parent ON file_category(parent_id);
@@ -268,22 +454,49 @@ CREATE INDEX idx_system_config_type ON sys_system_config(config_type);
 -- ========================================
 -- 全文搜索索引
 -- ========================================
--- 注意：中文全文搜索需要额外配置，这里暂时不创建
--- CREATE INDEX idx_file_search ON file
--- USING GIN(to_tsvector('chinese', name || ' ' || COALESCE(metadata->>'description', '')));
+-- 文件搜索（search.engine = postgres）的分词与文件名三元组索引，与 V18 一致；
+-- 三元组索引要求数据库 LC_CTYPE 为 UTF-8 区域设置，否则中文字符不产生三元组
+CREATE INDEX idx_file_search_vector ON file USING GIN(search_vector)
+    WHERE status = 'ACTIVE' AND deleted = false;
+CREATE INDEX idx_file_name_trgm ON file USING GIN(name gin_trgm_ops)
+    WHERE status = 'ACTIVE' AND deleted = false;
+CREATE INDEX idx_file_original_name_trgm ON file USING GIN(original_name gin_trgm_ops)
+    WHERE status = 'ACTIVE' AND deleted = false;
+
+-- 文件名分词与维护触发器，与 V18 一致：标点替换为空格后用 'simple' 配置分词，
+-- 原始文件名（A）、存储文件名（B）、标签（C）
+CREATE OR REPLACE FUNCTION file_search_text(value TEXT)
+RETURNS TEXT AS $$
+    SELECT lower(regexp_replace(COALESCE(value, ''), '[[:punct:][:space:]]+', ' ', 'g'));
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION file_search_vector_update()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.search_vector :=
+        setweight(to_tsvector('simple', file_search_text(NEW.original_name)), 'A') ||
+        setweight(to_tsvector('simple', file_search_text(NEW.name)), 'B') ||
+        setweight(to_tsvector('simple', file_search_text(array_to_string(NEW.tags, ' '))), 'C');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_file_search_vector
+    BEFORE INSERT OR UPDATE OF name, original_name, tags ON file
+    FOR EACH ROW EXECUTE FUNCTION file_search_vector_update();
 
 -- ========================================
 -- 插入测试数据
 -- ========================================
 
--- 插入默认文件分类
+-- 插入系统默认分类（user_id 为空），ID 与 V16 迁移一致，上传时按文件类型归入这些分类
 INSERT INTO file_category (id, name, icon, color, sort_order) VALUES
-(gen_random_uuid(), '文档', '📄', '#3b82f6', 1),
-(gen_random_uuid(), '图片', '🖼️', '#10b981', 2),
-(gen_random_uuid(), '视频', '🎬', '#f59e0b', 3),
-(gen_random_uuid(), '音频', '🎵', '#8b5cf6', 4),
-(gen_random_uuid(), '压缩包', '📦', '#f97316', 5),
-(gen_random_uuid(), '其他', '📁', '#6b7280', 6);
+('43d7428b-0468-4623-abe4-19f50e8db9a0', '文档', '📄', '#3b82f6', 1),
+('72e62a74-a7e0-4737-8361-cd8384093cd0', '图片', '🖼️', '#10b981', 2),
+('fb79c20d-d601-419b-8947-b1d1c55a6131', '视频', '🎬', '#f59e0b', 3),
+('d9e923c1-bc8e-4da1-b361-3f5628d67826', '音频', '🎵', '#8b5cf6', 4),
+('133f9930-e9a6-4db7-bcd4-9c4daa6ce008', '压缩包', '📦', '#f97316', 5),
+('de17a518-59ec-44ef-a6b6-495d99b0ba0c', '其他', '📁', '#6b7280', 6);
 
 -- 插入默认路由配置
 INSERT INTO sys_route_config (id, route_path, route_name, is_enabled, redirect_message) VALUES
@@ -0,0 +1,102 @@
+package com.idropin.application.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.idropin.infrastructure.persistence.mapper.OperationLogMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 操作日志预写日志确认与重试测试
+ *
+ * @author Idrop.in Team
+ */
+class OperationLogServiceImplTest {
+
+    @TempDir
+    Path dir;
+
+    private Path journalPath;
+    private OperationLogMapper operationLogMapper;
+    private OperationLogServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        journalPath = dir.resolve("operation-log.journal");
+        operationLogMapper = mock(OperationLogMapper.class);
+        service = new OperationLogServiceImpl(operationLogMapper, new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(service, "bufferCapacity", 100);
+        ReflectionTestUtils.setField(service, "batchSize", 10);
+        ReflectionTestUtils.setField(service, "flushIntervalMillis", 20L);
+        ReflectionTestUtils.setField(service, "journalPath", journalPath.toString());
+        ReflectionTestUtils.setField(service, "durableTypes", Set.of("RESET_PASSWORD"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    void failedDurableWriteIsRetriedBeforeJournalIsTruncated() throws IOException, InterruptedException {
+        when(operationLogMapper.insertBatch(anyList()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(1);
+        service.start();
+
+        service.log("u1", "RESET_PASSWORD", "USER", "u1", "reset", "127.0.0.1");
+        verify(operationLogMapper, timeout(2000)).insertBatch(anyList());
+        assertEquals(1, journalLines().size());
+
+        service.retryFailedJournaled();
+        verify(operationLogMapper, timeout(2000).times(2)).insertBatch(anyList());
+        awaitEmptyJournal();
+    }
+
+    @Test
+    void nonDurableLogsDoNotConfirmJournaledEntries() throws IOException {
+        when(operationLogMapper.insertBatch(anyList()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(1);
+        service.start();
+
+        service.log("u1", "RESET_PASSWORD", "USER", "u1", "reset", "127.0.0.1");
+        verify(operationLogMapper, timeout(2000)).insertBatch(anyList());
+        service.log("u1", "UPLOAD_FILE", "FILE", "f1", "upload", "127.0.0.1");
+        verify(operationLogMapper, timeout(2000).times(2)).insertBatch(anyList());
+
+        // 普通日志写库成功不能抵消仍未写入的安全相关日志
+        assertEquals(1, journalLines().size());
+    }
+
+    private void awaitEmptyJournal() throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!journalLines().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(journalLines().isEmpty());
+    }
+
+    private List<String> journalLines() throws IOException {
+        return Files.readAllLines(journalPath, StandardCharsets.UTF_8).stream()
+                .filter(line -> !line.isBlank())
+                .toList();
+    }
+}
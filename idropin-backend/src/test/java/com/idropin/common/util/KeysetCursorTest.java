@@ -0,0 +1,66 @@
+package com.idropin.common.util;
+
+import com.idropin.common.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 键集分页游标编解码测试
+ *
+ * @author Idrop.in Team
+ */
+class KeysetCursorTest {
+
+    private static final String ID = "3f2b8c1e-7d4a-4e2b-9a61-0c5d8e7f1a23";
+
+    @Test
+    void roundTripsTimeAndId() {
+        LocalDateTime time = LocalDateTime.of(2024, 3, 1, 12, 30, 45, 123_456_000);
+
+        KeysetCursor decoded = KeysetCursor.decode(new KeysetCursor(time, ID).encode());
+
+        assertEquals(time, decoded.getTime());
+        assertEquals(ID, decoded.getId());
+    }
+
+    @Test
+    void roundTripsNullTime() {
+        KeysetCursor decoded = KeysetCursor.decode(new KeysetCursor(null, ID).encode());
+
+        assertNull(decoded.getTime());
+        assertEquals(ID, decoded.getId());
+    }
+
+    @Test
+    void acceptsLegacyNullTimeEncoding() {
+        KeysetCursor decoded = KeysetCursor.decode(encodeRaw("null|" + ID));
+
+        assertNull(decoded.getTime());
+        assertEquals(ID, decoded.getId());
+    }
+
+    @Test
+    void emptyCursorMeansFirstPage() {
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(""));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(BusinessException.class, () -> KeysetCursor.decode("not base64!"));
+        assertThrows(BusinessException.class, () -> KeysetCursor.decode(encodeRaw("2024-03-01T12:30:45")));
+        assertThrows(BusinessException.class, () -> KeysetCursor.decode(encodeRaw("yesterday|" + ID)));
+        assertThrows(BusinessException.class, () -> KeysetCursor.decode(encodeRaw("2024-03-01T12:30:45|")));
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
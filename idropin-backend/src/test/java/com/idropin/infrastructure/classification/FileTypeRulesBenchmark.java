@@ -0,0 +1,84 @@
+package com.idropin.infrastructure.classification;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文件类型判定基准测试
+ * 覆盖首字节分桶命中、偏移签名（ftyp）、容器格式回退到扩展名以及没有任何签名命中的情况。
+ * 运行方式：mvn test-compile 后执行本类的 main 方法
+ *
+ * @author Idrop.in Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileTypeRulesBenchmark {
+
+    @Param({"png", "mp4", "docx", "unknown"})
+    private String sample;
+
+    private final FileTypeRules rules = new FileTypeRules();
+
+    private byte[] header;
+    private String fileName;
+
+    @Setup
+    public void setUp() {
+        header = new byte[rules.getHeaderLength()];
+        switch (sample) {
+            case "png" -> {
+                put(0, 0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A);
+                fileName = "photo.png";
+            }
+            case "mp4" -> {
+                put(4, 'f', 't', 'y', 'p', 'i', 's', 'o', 'm');
+                fileName = "clip.mp4";
+            }
+            case "docx" -> {
+                put(0, 0x50, 0x4B, 0x03, 0x04);
+                fileName = "report.docx";
+            }
+            default -> {
+                byte[] text = "plain text without magic".getBytes(StandardCharsets.US_ASCII);
+                System.arraycopy(text, 0, header, 0, text.length);
+                fileName = "notes";
+            }
+        }
+    }
+
+    @Benchmark
+    public FileTypeRules.Match classify() {
+        return rules.classify(header, header.length, null, fileName);
+    }
+
+    private void put(int offset, int... bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            header[offset + i] = (byte) bytes[i];
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FileTypeRulesBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,149 @@
+package com.idropin.infrastructure.classification;
+
+import com.idropin.infrastructure.classification.FileTypeRules.Match;
+import com.idropin.infrastructure.classification.FileTypeRules.Source;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.Size;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 文件类型规则表测试
+ *
+ * @author Idrop.in Team
+ */
+class FileTypeRulesTest {
+
+    private static final byte[] ZIP = bytes(0x50, 0x4B, 0x03, 0x04, 0x14, 0x00, 0x06, 0x00);
+    private static final byte[] OLE = bytes(0xD0, 0xCF, 0x11, 0xE0, 0xA1, 0xB1, 0x1A, 0xE1);
+    private static final byte[] PNG = bytes(0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A);
+
+    private final FileTypeRules rules = new FileTypeRules();
+
+    @Test
+    void headerLengthCoversFurthestSignature() {
+        // tar 的 ustar 标记位于偏移 257
+        assertEquals(262, rules.getHeaderLength());
+    }
+
+    @Test
+    void longerSignatureWinsWithinSameFirstByteBucket() {
+        assertEquals(FileTypeRules.IMAGE, rules.matchHeader(riff("WEBP"), 12));
+        assertEquals(FileTypeRules.AUDIO, rules.matchHeader(riff("WAVE"), 12));
+        assertEquals(FileTypeRules.VIDEO, rules.matchHeader(riff("AVI "), 12));
+        assertNull(rules.matchHeader(riff("XXXX"), 12));
+
+        assertEquals(FileTypeRules.IMAGE, rules.matchHeader(bytes(0xFF, 0xD8, 0xFF, 0xE0), 4));
+        assertEquals(FileTypeRules.AUDIO, rules.matchHeader(bytes(0xFF, 0xFB, 0x90, 0x00), 4));
+
+        assertEquals(FileTypeRules.VIDEO, rules.matchHeader(bytes(0x00, 0x00, 0x01, 0xBA), 4));
+        assertEquals(FileTypeRules.IMAGE, rules.matchHeader(bytes(0x00, 0x00, 0x01, 0x00), 4));
+    }
+
+    @Test
+    void ftypBrandSelectsCategoryAndBareFtypIsVideo() {
+        assertEquals(new Match(FileTypeRules.IMAGE, Source.HEADER), rules.classify(ftyp("heic"), 12, null, "a.mp4"));
+        assertEquals(new Match(FileTypeRules.IMAGE, Source.HEADER), rules.classify(ftyp("avif"), 12, null, null));
+        assertEquals(new Match(FileTypeRules.AUDIO, Source.HEADER), rules.classify(ftyp("M4A "), 12, null, null));
+        assertEquals(new Match(FileTypeRules.VIDEO, Source.HEADER), rules.classify(ftyp("isom"), 12, null, null));
+        // 品牌被截断时只剩 ftyp，按视频处理
+        assertEquals(new Match(FileTypeRules.VIDEO, Source.HEADER), rules.classify(ftyp("heic"), 8, null, null));
+    }
+
+    @Test
+    void tarIsDetectedAtOffset() {
+        byte[] header = new byte[rules.getHeaderLength()];
+        System.arraycopy(ascii("ustar"), 0, header, 257, 5);
+
+        assertEquals(new Match(FileTypeRules.ARCHIVE, Source.HEADER), rules.classify(header, header.length, null, "x"));
+        assertNull(rules.matchHeader(header, 261));
+    }
+
+    @Test
+    void containerSignaturesDeferToExtensionAndMimeType() {
+        assertEquals(new Match(FileTypeRules.DOCUMENT, Source.EXTENSION),
+                rules.classify(ZIP, ZIP.length, "application/zip", "report.docx"));
+        assertEquals(new Match(FileTypeRules.ARCHIVE, Source.EXTENSION),
+                rules.classify(ZIP, ZIP.length, null, "bundle.jar"));
+        assertEquals(new Match(FileTypeRules.DOCUMENT, Source.MIME_TYPE),
+                rules.classify(ZIP, ZIP.length,
+                        "application/vnd.openxmlformats-officedocument.wordprocessingml.document", "report"));
+        assertEquals(new Match(FileTypeRules.ARCHIVE, Source.HEADER), rules.classify(ZIP, ZIP.length, null, "upload"));
+
+        assertEquals(new Match(FileTypeRules.DOCUMENT, Source.EXTENSION), rules.classify(OLE, OLE.length, null, "q3.xls"));
+        assertEquals(new Match(FileTypeRules.DOCUMENT, Source.HEADER), rules.classify(OLE, OLE.length, null, "setup.msi"));
+    }
+
+    @Test
+    void reliableSignatureOverridesExtension() {
+        byte[] pdf = ascii("%PDF-1.7");
+
+        assertEquals(new Match(FileTypeRules.DOCUMENT, Source.HEADER), rules.classify(pdf, pdf.length, "image/jpeg", "scan.jpg"));
+        assertEquals(new Match(FileTypeRules.IMAGE, Source.HEADER), rules.classify(PNG, PNG.length, null, "photo.zip"));
+    }
+
+    @Test
+    void shortOrEmptyHeadersFallBackToNameAndMimeType() {
+        assertEquals(new Match(FileTypeRules.AUDIO, Source.EXTENSION), rules.classify(null, 0, null, "song.MP3"));
+        assertEquals(new Match(FileTypeRules.AUDIO, Source.EXTENSION), rules.classify(new byte[0], 0, null, "song.mp3"));
+        // 有效长度不足以覆盖 PNG 签名
+        assertEquals(new Match(FileTypeRules.DOCUMENT, Source.EXTENSION), rules.classify(PNG, 4, null, "notes.txt"));
+        assertEquals(new Match(FileTypeRules.VIDEO, Source.MIME_TYPE), rules.classify(PNG, 0, "video/mp4; codecs=avc1", "clip"));
+        assertEquals(new Match(FileTypeRules.OTHER, Source.DEFAULT), rules.classify(bytes(0x89), 1, null, "file."));
+        // 声明的长度超过数组长度时按数组长度处理
+        assertEquals(FileTypeRules.IMAGE, rules.matchHeader(PNG, 1024));
+    }
+
+    @Property
+    void classifyNeverFailsOnArbitraryInput(@ForAll @Size(max = 300) byte[] header,
+                                            @ForAll @IntRange(min = -1, max = 400) int length) {
+        Match match = rules.classify(header, length, null, null);
+
+        assertNotNull(match);
+        assertNotNull(match.category());
+    }
+
+    @Property
+    void bytesBeyondLengthAreIgnored(@ForAll @Size(max = 300) byte[] header,
+                                     @ForAll @IntRange(max = 300) int length) {
+        int effective = Math.min(length, header.length);
+        byte[] truncated = Arrays.copyOf(header, effective);
+
+        assertEquals(rules.matchHeader(truncated, effective), rules.matchHeader(header, length));
+    }
+
+    private static byte[] riff(String form) {
+        byte[] header = new byte[12];
+        System.arraycopy(ascii("RIFF"), 0, header, 0, 4);
+        System.arraycopy(ascii(form), 0, header, 8, 4);
+        return header;
+    }
+
+    private static byte[] ftyp(String brand) {
+        byte[] header = new byte[12];
+        header[3] = 0x20;
+        System.arraycopy(ascii("ftyp"), 0, header, 4, 4);
+        System.arraycopy(ascii(brand), 0, header, 8, 4);
+        return header;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,190 @@
+package com.idropin.infrastructure.persistence.mapper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 任务提交记录查询基准测试
+ * 对比逐条按 ID 查询文件（N+1）与 selectVOPage 的 LEFT JOIN 单查询，覆盖 100 / 1k / 10k 条提交。
+ * 数据写入临时 schema，结束后删除；只在指定数据库时运行：
+ * mvn test -Dtest=FileSubmissionQueryBenchmark -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5432/idropin
+ * -Dbenchmark.jdbc-user=... -Dbenchmark.jdbc-password=...
+ *
+ * @author Idrop.in Team
+ */
+@EnabledIfSystemProperty(named = "benchmark.jdbc-url", matches = ".+")
+class FileSubmissionQueryBenchmark {
+
+    private static final int[] SUBMISSION_COUNTS = {100, 1_000, 10_000};
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final String SCHEMA = "bench_file_submission";
+
+    private static final String SELECT_SUBMISSIONS =
+            "SELECT id, task_id, file_id, submitter_id, submitter_name, submitter_email, submitted_at, submitter_ip " +
+            "FROM file_submission WHERE task_id = ? ORDER BY submitted_at DESC";
+
+    private static final String SELECT_FILE_BY_ID =
+            "SELECT id, name, original_name, file_size, mime_type, storage_path, uploader_id, status, deleted, " +
+            "created_at, updated_at FROM file WHERE id = ? AND deleted = false";
+
+    /**
+     * 与 FileSubmissionMapper.selectVOPage 首页查询一致，LIMIT 覆盖整个任务
+     */
+    private static final String SELECT_JOINED =
+            "SELECT s.id, s.task_id, s.file_id, s.submitter_id, s.submitter_name, s.submitter_email, " +
+            "s.submitted_at, s.submitter_ip, s.created_at, " +
+            "f.original_name AS file_name, f.file_size, f.mime_type, f.storage_path " +
+            "FROM file_submission s LEFT JOIN file f ON f.id = s.file_id AND f.deleted = false " +
+            "WHERE s.task_id = ? ORDER BY s.submitted_at DESC NULLS LAST, s.id DESC LIMIT ?";
+
+    @Test
+    void compareNPlusOneWithJoin() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(System.getProperty("benchmark.jdbc-url"),
+                System.getProperty("benchmark.jdbc-user"), System.getProperty("benchmark.jdbc-password"))) {
+            createSchema(connection);
+            try {
+                System.out.printf("%-12s %-10s %8s %12s%n", "submissions", "strategy", "queries", "median(ms)");
+                for (int count : SUBMISSION_COUNTS) {
+                    String taskId = seed(connection, count);
+
+                    Measurement nPlusOne = measure(() -> loadNPlusOne(connection, taskId));
+                    Measurement joined = measure(() -> loadJoined(connection, taskId, count));
+                    System.out.printf("%-12d %-10s %8d %12.2f%n", count, "N+1", nPlusOne.queries(), nPlusOne.medianMillis());
+                    System.out.printf("%-12d %-10s %8d %12.2f%n", count, "JOIN", joined.queries(), joined.medianMillis());
+
+                    assertEquals(count + 1, nPlusOne.queries());
+                    assertEquals(1, joined.queries());
+                }
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+                }
+            }
+        }
+    }
+
+    private static void createSchema(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+            statement.execute("SET search_path TO " + SCHEMA);
+            statement.execute("CREATE TABLE file (id VARCHAR(36) PRIMARY KEY, name VARCHAR(255) NOT NULL, " +
+                    "original_name VARCHAR(255) NOT NULL, file_size BIGINT NOT NULL, mime_type VARCHAR(100) NOT NULL, " +
+                    "storage_path VARCHAR(500) NOT NULL, uploader_id VARCHAR(36), status VARCHAR(20) DEFAULT 'ACTIVE', " +
+                    "deleted BOOLEAN NOT NULL DEFAULT FALSE, created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            statement.execute("CREATE TABLE file_submission (id VARCHAR(36) PRIMARY KEY, task_id VARCHAR(36) NOT NULL, " +
+                    "file_id VARCHAR(36) NOT NULL, submitter_id VARCHAR(36), submitter_name VARCHAR(100), " +
+                    "submitter_email VARCHAR(100), submitted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "submitter_ip VARCHAR(45), created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            statement.execute("CREATE INDEX idx_file_submission_task ON file_submission(task_id)");
+        }
+    }
+
+    /**
+     * 为一个任务写入 count 条提交及对应文件，返回任务ID
+     */
+    private static String seed(Connection connection, int count) throws SQLException {
+        String taskId = "task-" + count;
+        try (PreparedStatement files = connection.prepareStatement(
+                "INSERT INTO file (id, name, original_name, file_size, mime_type, storage_path, uploader_id) " +
+                "SELECT ? || '-f' || g, 'stored-' || g || '.pdf', 'report-' || g || '.pdf', 1024 * g, " +
+                "'application/pdf', 'u/' || ? || '/' || g || '.pdf', 'u1' FROM generate_series(1, ?) g");
+             PreparedStatement submissions = connection.prepareStatement(
+                "INSERT INTO file_submission (id, task_id, file_id, submitter_name, submitted_at) " +
+                "SELECT ? || '-s' || g, ?, ? || '-f' || g, 'student-' || g, " +
+                "TIMESTAMP '2026-01-01' + g * INTERVAL '1 minute' FROM generate_series(1, ?) g");
+             Statement statement = connection.createStatement()) {
+            files.setString(1, taskId);
+            files.setString(2, taskId);
+            files.setInt(3, count);
+            files.executeUpdate();
+            submissions.setString(1, taskId);
+            submissions.setString(2, taskId);
+            submissions.setString(3, taskId);
+            submissions.setInt(4, count);
+            submissions.executeUpdate();
+            statement.execute("ANALYZE file");
+            statement.execute("ANALYZE file_submission");
+        }
+        return taskId;
+    }
+
+    /**
+     * 原实现：查出提交记录后逐条 selectById 文件
+     */
+    private static int loadNPlusOne(Connection connection, String taskId) throws SQLException {
+        int queries = 1;
+        List<String> fileIds = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_SUBMISSIONS)) {
+            statement.setString(1, taskId);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    fileIds.add(rs.getString("file_id"));
+                }
+            }
+        }
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_FILE_BY_ID)) {
+            for (String fileId : fileIds) {
+                statement.setString(1, fileId);
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                }
+                queries++;
+            }
+        }
+        return queries;
+    }
+
+    private static int loadJoined(Connection connection, String taskId, int count) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_JOINED)) {
+            statement.setString(1, taskId);
+            statement.setInt(2, count + 1);
+            try (ResultSet rs = statement.executeQuery()) {
+                int rows = 0;
+                while (rs.next()) {
+                    rows++;
+                }
+                assertEquals(count, rows);
+            }
+        }
+        return 1;
+    }
+
+    private static Measurement measure(Workload workload) throws SQLException {
+        int queries = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            queries = workload.run();
+        }
+        long[] nanos = new long[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            queries = workload.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return new Measurement(queries, nanos[MEASURED_ROUNDS / 2] / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    @FunctionalInterface
+    private interface Workload {
+        int run() throws SQLException;
+    }
+
+    private record Measurement(int queries, double medianMillis) {
+    }
+}
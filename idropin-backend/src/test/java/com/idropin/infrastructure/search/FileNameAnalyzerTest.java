@@ -0,0 +1,60 @@
+package com.idropin.infrastructure.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 文件名分词器测试
+ *
+ * @author Idrop.in Team
+ */
+class FileNameAnalyzerTest {
+
+    private final Analyzer indexAnalyzer = new FileNameAnalyzer(true);
+    private final Analyzer queryAnalyzer = new FileNameAnalyzer(false);
+
+    @Test
+    void splitsFileNameOnPunctuation() throws IOException {
+        assertEquals(List.of("report", "2024", "final", "pdf"), tokens(indexAnalyzer, "report_2024-final.pdf"));
+        assertEquals(List.of("report", "2024", "final", "pdf"), tokens(queryAnalyzer, "report_2024-final.pdf"));
+    }
+
+    @Test
+    void normalizesFullWidthAndCase() throws IOException {
+        assertEquals(List.of("report", "2024", "final", "pdf"), tokens(indexAnalyzer, "ＲＥＰＯＲＴ＿２０２４－Ｆｉｎａｌ.PDF"));
+    }
+
+    @Test
+    void indexesCjkUnigramsAndBigrams() throws IOException {
+        assertEquals(List.of("年", "年度", "度", "度报", "报", "报告", "告", "终", "终版", "版", "docx"),
+                tokens(indexAnalyzer, "年度报告（终版）.docx"));
+    }
+
+    @Test
+    void queriesCjkWithBigramsOnly() throws IOException {
+        assertEquals(List.of("年度", "度报", "报告", "终版", "docx"), tokens(queryAnalyzer, "年度报告（终版）.docx"));
+        // 单字查询仍输出单字，可以匹配索引中的单字
+        assertEquals(List.of("报"), tokens(queryAnalyzer, "报"));
+    }
+
+    private static List<String> tokens(Analyzer analyzer, String text) throws IOException {
+        List<String> tokens = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(LuceneFileIndex.FIELD_NAME, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            stream.end();
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,234 @@
+package com.idropin.infrastructure.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.postgresql.PGConnection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PostgreSQL 文件搜索基准测试
+ * 在 100 万条文件上执行与 FileSearchMapper.xml 一致的计数和相关度排序查询，对比三种情况：
+ * 按实际参数规划（PostgresFileSearchEngine 的做法）、预编译语句的通用计划、只有 uploader 部分索引，并输出索引计划。
+ * 一半文件属于同一个用户，其余分散在 1000 个用户中；表结构和索引直接执行 V14 的索引与 V18 迁移脚本。
+ * 数据写入临时 schema，结束后删除；只在指定数据库时运行（写入和回填约需两分钟）：
+ * mvn test -Dtest=PostgresFileSearchBenchmark -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5432/idropin
+ * -Dbenchmark.jdbc-user=... -Dbenchmark.jdbc-password=...
+ *
+ * @author Idrop.in Team
+ */
+@EnabledIfSystemProperty(named = "benchmark.jdbc-url", matches = ".+")
+class PostgresFileSearchBenchmark {
+
+    private static final int FILE_COUNT = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP_ROUNDS = 1;
+    private static final int MEASURED_ROUNDS = 3;
+    private static final String SCHEMA = "bench_file_search";
+    private static final String HEAVY_USER = "u-heavy";
+    private static final String TYPICAL_USER = "u-43";
+
+    /**
+     * 常见词前缀、词中间的子串、中文子串、罕见词
+     */
+    private static final List<Case> CASES = List.of(
+            new Case("prefix", "report"),
+            new Case("substring", "port"),
+            new Case("cjk", "合同"),
+            new Case("rare", "quarterly"));
+
+    private static final String CONDITIONS =
+            "WHERE uploader_id = ? AND status = 'ACTIVE' AND deleted = false " +
+            "AND (search_vector @@ to_tsquery('simple', ?) OR name ILIKE ? OR original_name ILIKE ?)";
+
+    private static final String COUNT = "SELECT COUNT(*) FROM file " + CONDITIONS;
+
+    private static final String SEARCH =
+            "SELECT id, name, original_name, file_size, mime_type, storage_path, category_id, tags, " +
+            "uploader_id, status, created_at, updated_at FROM file " + CONDITIONS + " ORDER BY " +
+            "COALESCE(ts_rank(search_vector, to_tsquery('simple', ?)), 0) + " +
+            "GREATEST(similarity(original_name, ?), similarity(name, ?)) DESC, created_at DESC, id " +
+            "LIMIT " + PAGE_SIZE + " OFFSET 0";
+
+    @Test
+    void compareSearchWithAndWithoutIndexes() throws SQLException, IOException {
+        try (Connection connection = DriverManager.getConnection(System.getProperty("benchmark.jdbc-url"),
+                System.getProperty("benchmark.jdbc-user"), System.getProperty("benchmark.jdbc-password"))) {
+            createSchema(connection);
+            try {
+                seed(connection);
+                // 首次执行即使用服务端预编译语句，与连接池中反复执行同一查询后的状态一致
+                connection.unwrap(PGConnection.class).setPrepareThreshold(1);
+                System.out.printf("%-10s %-10s %-14s %10s %12s%n", "user", "case", "plan", "hits", "median(ms)");
+                reportAll(connection, "force_custom_plan", "custom");
+
+                String plan = explain(connection, HEAVY_USER, "quarterly");
+                System.out.println(plan);
+                assertTrue(plan.contains("idx_file_search_vector") || plan.contains("_trgm"),
+                        "罕见词应走分词或三元组索引");
+
+                reportAll(connection, "force_generic_plan", "generic");
+
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DROP INDEX idx_file_search_vector, idx_file_name_trgm, idx_file_original_name_trgm");
+                }
+                reportAll(connection, "force_custom_plan", "uploader-only");
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+                }
+            }
+        }
+    }
+
+    private static void createSchema(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // 扩展装在 public 中，删除临时 schema 时不会连带删除
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm SCHEMA public");
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+            statement.execute("SET search_path TO " + SCHEMA + ", public");
+            statement.execute("CREATE TABLE file (id VARCHAR(36) PRIMARY KEY, name VARCHAR(255) NOT NULL, " +
+                    "original_name VARCHAR(255) NOT NULL, file_size BIGINT NOT NULL, mime_type VARCHAR(100) NOT NULL, " +
+                    "storage_path VARCHAR(500) NOT NULL, tags TEXT[] DEFAULT '{}', category_id VARCHAR(36), " +
+                    "uploader_id VARCHAR(36), status VARCHAR(20) DEFAULT 'ACTIVE', " +
+                    "deleted BOOLEAN NOT NULL DEFAULT FALSE, created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        }
+    }
+
+    /**
+     * 写入文件后再执行 V18：迁移脚本回填分词列并建索引，与已有数据库升级的路径一致
+     */
+    private static void seed(Connection connection) throws SQLException, IOException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO file (id, name, original_name, file_size, mime_type, storage_path, " +
+                    "uploader_id, created_at) " +
+                    "SELECT 'f' || g, 'stored_' || md5(g::text) || '.bin', " +
+                    "(ARRAY['report', 'invoice', 'photo', 'contract', 'thesis', '报告', '合同', '照片', '论文', '作业'])" +
+                    "[1 + (g / 1000) % 10] || '_' || (2000 + g % 25) || '-' || " +
+                    "(ARRAY['final', 'draft', 'v2', 'scan', '副本', '终稿'])[1 + (g / 7) % 6] || " +
+                    "CASE WHEN g % 5000 = 0 THEN '_quarterly' ELSE '' END || " +
+                    "(ARRAY['.pdf', '.docx', '.jpg', '.xlsx'])[1 + g % 4], " +
+                    "1024 * (g % 10000), 'application/octet-stream', 'u/' || g, " +
+                    "CASE WHEN g % 2 = 0 THEN '" + HEAVY_USER + "' ELSE 'u-' || (g % 1000) END, " +
+                    "TIMESTAMP '2024-01-01' + g * INTERVAL '30 seconds' " +
+                    "FROM generate_series(1, " + FILE_COUNT + ") g");
+            statement.execute("CREATE INDEX idx_file_active_uploader_created ON file(uploader_id, created_at DESC) " +
+                    "INCLUDE (file_size, mime_type, category_id) WHERE status = 'ACTIVE' AND deleted = false");
+            statement.execute(migration("db/migration/V18__file_search.sql"));
+        }
+    }
+
+    private static String migration(String resource) throws IOException {
+        try (InputStream in = PostgresFileSearchBenchmark.class.getClassLoader().getResourceAsStream(resource)) {
+            assertNotNull(in, resource);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void reportAll(Connection connection, String planCacheMode, String label) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET plan_cache_mode = " + planCacheMode);
+        }
+        for (String user : List.of(HEAVY_USER, TYPICAL_USER)) {
+            for (Case c : CASES) {
+                long[] hits = new long[1];
+                double median = measure(() -> hits[0] = search(connection, user, c.keyword()));
+                System.out.printf("%-10s %-10s %-14s %10d %12.2f%n", user, c.label(), label, hits[0], median);
+            }
+        }
+    }
+
+    /**
+     * 与 PostgresFileSearchEngine 一致：先计数，有命中时再查第一页
+     */
+    private static long search(Connection connection, String user, String keyword) throws SQLException {
+        String tsQuery = PostgresFileSearchEngine.toTsQuery(keyword);
+        String like = "%" + keyword + "%";
+        long total;
+        try (PreparedStatement statement = connection.prepareStatement(COUNT)) {
+            bindConditions(statement, user, tsQuery, like);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                total = rs.getLong(1);
+            }
+        }
+        if (total > 0) {
+            try (PreparedStatement statement = connection.prepareStatement(SEARCH)) {
+                bindConditions(statement, user, tsQuery, like);
+                statement.setString(5, tsQuery);
+                statement.setString(6, keyword);
+                statement.setString(7, keyword);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        rs.getString("id");
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    private static void bindConditions(PreparedStatement statement, String user, String tsQuery, String like)
+            throws SQLException {
+        statement.setString(1, user);
+        statement.setString(2, tsQuery);
+        statement.setString(3, like);
+        statement.setString(4, like);
+    }
+
+    private static String explain(Connection connection, String user, String keyword) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (ANALYZE, COSTS OFF) " + SEARCH)) {
+            String like = "%" + keyword + "%";
+            String tsQuery = PostgresFileSearchEngine.toTsQuery(keyword);
+            bindConditions(statement, user, tsQuery, like);
+            statement.setString(5, tsQuery);
+            statement.setString(6, keyword);
+            statement.setString(7, keyword);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+        }
+        return plan.toString();
+    }
+
+    private static double measure(Workload workload) throws SQLException {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            workload.run();
+        }
+        long[] nanos = new long[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            workload.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[MEASURED_ROUNDS / 2] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @FunctionalInterface
+    private interface Workload {
+        void run() throws SQLException;
+    }
+
+    private record Case(String label, String keyword) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.idropin.infrastructure.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.idropin.infrastructure.persistence.mapper.FileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 上传中对象跟踪的崩溃恢复测试
+ *
+ * @author Idrop.in Team
+ */
+class PendingUploadTrackerTest {
+
+    @TempDir
+    Path dir;
+
+    private Path journalPath;
+    private StorageService storageService;
+    private FileMapper fileMapper;
+
+    @BeforeEach
+    void setUp() {
+        journalPath = dir.resolve("pending-upload.journal");
+        storageService = mock(StorageService.class);
+        fileMapper = mock(FileMapper.class);
+        when(fileMapper.selectExistingStoragePaths(anyCollection())).thenReturn(List.of());
+    }
+
+    @Test
+    void replayDeletesOrphansAndKeepsCommittedObjects() throws IOException {
+        PendingUploadTracker before = newTracker();
+        before.begin("u/committed.pdf");
+        before.begin("u/orphan.pdf");
+        before.complete("u/committed.pdf");
+        // 进程在 u/orphan.pdf 的记录提交前退出，且没有执行 stop()
+
+        when(fileMapper.selectExistingStoragePaths(anyCollection())).thenReturn(List.of("u/committed.pdf"));
+        newTracker();
+
+        verify(storageService).deleteFile("u/orphan.pdf");
+        verify(storageService, never()).deleteFile("u/committed.pdf");
+        assertTrue(journalLines().isEmpty());
+    }
+
+    @Test
+    void failedDeletesSurviveRestartAndAreRetried() throws IOException {
+        PendingUploadTracker before = newTracker();
+        before.begin("u/orphan.pdf");
+
+        doThrow(new IllegalStateException("storage down")).when(storageService).deleteFile(any());
+        PendingUploadTracker after = newTracker();
+        assertEquals(1, journalLines().size());
+
+        reset(storageService);
+        after.retryUnresolved();
+        verify(storageService).deleteFile("u/orphan.pdf");
+        assertTrue(journalLines().isEmpty());
+    }
+
+    @Test
+    void unresolvedEntriesAreDroppedAfterRetention() throws IOException {
+        long old = System.currentTimeMillis() - Duration.ofHours(200).toMillis();
+        Files.writeString(journalPath, "{\"path\":\"u/stuck.pdf\",\"since\":" + old + "}\n", StandardCharsets.UTF_8);
+
+        doThrow(new IllegalStateException("storage down")).when(storageService).deleteFile(any());
+        PendingUploadTracker tracker = newTracker();
+        assertEquals(1, journalLines().size());
+
+        tracker.retryUnresolved();
+        assertTrue(journalLines().isEmpty());
+    }
+
+    @Test
+    void journalIsCompactedWhileUploadsStayPending() throws IOException {
+        PendingUploadTracker tracker = newTracker();
+        tracker.begin("u/long-running.pdf");
+        for (int i = 0; i < 100; i++) {
+            tracker.begin("u/" + i + ".pdf");
+            tracker.complete("u/" + i + ".pdf");
+        }
+
+        List<String> lines = journalLines();
+        assertTrue(lines.size() <= 10, "journal should stay bounded but has " + lines.size() + " lines");
+        assertTrue(lines.stream().anyMatch(line -> line.contains("u/long-running.pdf")));
+
+        newTracker();
+        verify(storageService).deleteFile("u/long-running.pdf");
+        verify(storageService, never()).deleteFile("u/0.pdf");
+    }
+
+    @Test
+    void tornTrailingLineIsIgnored() throws IOException {
+        Files.writeString(journalPath, "{\"path\":\"u/new.pdf\",\"since\":1}\n{\"path\":\"u/tor",
+                StandardCharsets.UTF_8);
+
+        newTracker();
+
+        verify(storageService).deleteFile("u/new.pdf");
+        assertTrue(journalLines().isEmpty());
+    }
+
+    private PendingUploadTracker newTracker() {
+        PendingUploadTracker tracker = new PendingUploadTracker(storageService, fileMapper, new ObjectMapper());
+        ReflectionTestUtils.setField(tracker, "journalPath", journalPath.toString());
+        ReflectionTestUtils.setField(tracker, "compactEntries", 10);
+        ReflectionTestUtils.setField(tracker, "orphanRetentionHours", 168L);
+        tracker.start();
+        return tracker;
+    }
+
+    private List<String> journalLines() throws IOException {
+        return Files.readAllLines(journalPath, StandardCharsets.UTF_8).stream()
+                .filter(line -> !line.isBlank())
+                .toList();
+    }
+}
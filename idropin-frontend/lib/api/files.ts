@@ -1,4 +1,4 @@
-import apiClient, { extractApiError } from './client';
+import apiClient, { extractApiError, type ApiError } from './client';
 import type { ApiResponse } from './auth';
 
 // 文件类型
@@ -336,12 +336,65 @@ export const batchPermanentDelete = async (ids: string[]): Promise<void> => {
   }
 };
 
-export const emptyTrash = async (): Promise<void> => {
+// 回收站清理任务
+export interface FilePurgeJob {
+  id: string;
+  jobType: 'EMPTY_TRASH' | 'AUTO_PURGE';
+  status: 'PENDING' | 'RUNNING' | 'COMPLETED' | 'FAILED';
+  cutoff: string;
+  purgedCount: number;
+  errorMessage?: string;
+  createdAt: string;
+  updatedAt: string;
+  finishedAt?: string;
+}
+
+const PURGE_POLL_INTERVAL_MS = 1000;
+// 任务进度超过该时间未更新时停止轮询：服务端 stale-minutes（10 分钟）后才会由定时任务
+// （每 10 分钟）接管，留出余量后仍无进展则交由用户稍后刷新查看
+const PURGE_STALL_TIMEOUT_MS = 25 * 60 * 1000;
+
+export const getPurgeJob = async (jobId: string): Promise<FilePurgeJob> => {
+  try {
+    const response = await apiClient.get<ApiResponse<FilePurgeJob>>(`/files/trash/purge-jobs/${jobId}`);
+    return response.data.data;
+  } catch (error) {
+    throw extractApiError(error);
+  }
+};
+
+/**
+ * 清空回收站：服务端在后台分批删除，这里轮询清理任务直到完成，
+ * 返回时回收站已清空；任务失败或长时间没有进展时抛出错误。onProgress 可用于展示已删除数量
+ */
+export const emptyTrash = async (onProgress?: (job: FilePurgeJob) => void): Promise<FilePurgeJob> => {
+  let job: FilePurgeJob;
   try {
-    await apiClient.delete('/files/trash/empty');
+    const response = await apiClient.delete<ApiResponse<FilePurgeJob>>('/files/trash/empty');
+    job = response.data.data;
   } catch (error) {
     throw extractApiError(error);
   }
+  let lastUpdatedAt = job.updatedAt;
+  let lastProgressAt = Date.now();
+  while (job.status === 'PENDING' || job.status === 'RUNNING') {
+    onProgress?.(job);
+    if (Date.now() - lastProgressAt > PURGE_STALL_TIMEOUT_MS) {
+      const timeout: ApiError = { code: 504, message: '清空回收站仍在后台进行，请稍后刷新查看' };
+      throw timeout;
+    }
+    await new Promise((resolve) => setTimeout(resolve, PURGE_POLL_INTERVAL_MS));
+    job = await getPurgeJob(job.id);
+    if (job.updatedAt !== lastUpdatedAt) {
+      lastUpdatedAt = job.updatedAt;
+      lastProgressAt = Date.now();
+    }
+  }
+  if (job.status === 'FAILED') {
+    const failure: ApiError = { code: 500, message: job.errorMessage || '清空回收站失败' };
+    throw failure;
+  }
+  return job;
 };
 
 export const getTrashFiles = async (params: { page?: number; size?: number } = {}): Promise<PageResponse<FileItem>> => {